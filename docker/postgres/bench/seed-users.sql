@@ -0,0 +1,45 @@
+-- Заполнение базы тестовыми пользователями для замеров справочника сотрудников.
+--
+-- Использование (схема должна быть создана приложением):
+--   psql -h localhost -U postgres_user -d anti_corruption_department -v count=10000 -f seed-users.sql
+--   psql ... -v count=100000 -f seed-users.sql
+--
+-- Сравниваемые запросы:
+--   GET /api/users                            — полные сущности всех пользователей
+--   GET /api/users/directory?page=0&size=50   — страница справочника
+--
+-- Пользователи получают заполненные "тяжелые" столбцы (адрес, реквизиты, заметки),
+-- чтобы разница в объеме передаваемых данных была заметна. Вход под ними не предполагается.
+-- Удаление: DELETE FROM users WHERE username LIKE 'bench_user_%' (после очистки user_groups).
+
+INSERT INTO users (username, password, employee_id, last_name, first_name, middle_name,
+                   position, department, passport_series, passport_number, address,
+                   bank_details, notes, salary, is_fired)
+SELECT 'bench_user_' || n,
+       '{noop}bench',
+       'E' || lpad(n::text, 7, '0'),
+       'Фамилия' || n,
+       'Имя' || (n % 500),
+       'Отчество' || (n % 300),
+       'Специалист',
+       'Отдел ' || (n % 40),
+       '4500',
+       lpad(n::text, 6, '0'),
+       repeat('ул. Примерная, д. 1, кв. 1; ', 8),
+       repeat('40817810099910004312; ', 4),
+       repeat('Служебная заметка. ', 40),
+       50000 + n % 1000,
+       false
+FROM generate_series(1, :count) AS n
+ON CONFLICT (username) DO NOTHING;
+
+-- Каждому пользователю — одна-две группы из существующих
+INSERT INTO user_groups (user_id, group_id)
+SELECT u.id, g.id
+FROM users u
+         JOIN access_groups g ON g.id % 3 = u.id % 3 OR g.id % 5 = u.id % 5
+WHERE u.username LIKE 'bench_user_%'
+ON CONFLICT DO NOTHING;
+
+ANALYZE users;
+ANALYZE user_groups;
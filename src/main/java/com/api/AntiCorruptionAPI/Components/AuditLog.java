@@ -0,0 +1,727 @@
+package com.api.AntiCorruptionAPI.Components;
+
+import com.api.AntiCorruptionAPI.Models.AuditRecord;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал аудита в виде append-only сегментов, отображенных в память.
+ * <p>
+ * Записи кодируются в компактный бинарный формат и дописываются в активный сегмент
+ * фиксированного размера. При заполнении сегмента создается новый (ротация).
+ * Сброс на диск выполняется фоновым потоком группами (group commit): одна операция
+ * {@code force()} подтверждает все записи, накопленные за интервал сброса.
+ * <p>
+ * Для каждого сегмента в памяти хранится разреженный индекс: фильтр Блума по ключам
+ * сущностей и пользователей, а также смещение каждой N-й записи с ее временем.
+ * Поиск просматривает только сегменты, которые могут содержать искомый ключ,
+ * начиная с ближайшей точки разреженного индекса.
+ * <p>
+ * Формат записи: {@code [int длина][int crc32][данные]}, нулевая длина означает конец данных.
+ * <p>
+ * В память отображается только активный сегмент. При ротации отображение закрытого сегмента
+ * освобождается, и дальше он читается последовательно через файловый канал. Закрытые сегменты
+ * старше срока хранения (и сверх максимального количества сегментов) удаляются фоновой задачей.
+ */
+@Component
+public class AuditLog {
+
+    /**
+     * Логгер для записи информации о работе журнала аудита.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(AuditLog.class);
+
+    private static final int SEGMENT_MAGIC = 0x41554431;
+    private static final int FORMAT_VERSION = 1;
+    private static final int SEGMENT_HEADER_SIZE = 8;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int SPARSE_INDEX_INTERVAL = 256;
+    private static final int BLOOM_BITS = 1 << 16;
+    private static final int MAX_VALUE_LENGTH = 4096;
+    private static final long NULL_ACTOR = Long.MIN_VALUE;
+    private static final long ACTOR_KEY_KIND = 0x0F;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Каталог для хранения сегментов журнала.
+     */
+    @Value("${app.audit.dir:audit}")
+    private String directory;
+
+    /**
+     * Размер одного сегмента в байтах.
+     */
+    @Value("${app.audit.segment-size-bytes:16777216}")
+    private int segmentSize;
+
+    /**
+     * Интервал группового сброса на диск в миллисекундах.
+     */
+    @Value("${app.audit.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    /**
+     * Срок хранения закрытых сегментов (отсчитывается от последней записи сегмента, 0 — без ограничения).
+     */
+    @Value("${app.audit.retention:P365D}")
+    private Duration retention;
+
+    /**
+     * Максимальное количество сегментов вместе с активным (0 — без ограничения).
+     */
+    @Value("${app.audit.max-segments:0}")
+    private int maxSegments;
+
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final List<PendingCommit> pendingCommits = new ArrayList<>();
+    private final Object flushSignal = new Object();
+
+    /**
+     * Защищает активный сегмент и очередь подтверждений. Явная блокировка вместо монитора:
+     * при ротации под ней выполняется сброс сегмента на диск, а блокирующий ввод-вывод
+     * внутри synchronized закрепляет виртуальный поток за несущим.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private Segment active;
+    private long nextSequence = 1;
+    private long writtenSequence;
+    private volatile boolean running;
+    private Thread flusher;
+
+    /**
+     * Открывает существующие сегменты, восстанавливает индексы и запускает поток сброса.
+     *
+     * @throws IOException при ошибках работы с файлами сегментов
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        Path root = Paths.get(directory);
+        Files.createDirectories(root);
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(root)) {
+            files = stream.filter(path -> path.getFileName().toString().matches("segment-\\d{20}\\.log"))
+                    .sorted()
+                    .toList();
+        }
+
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            // Отображается только последний сегмент, в который продолжится запись
+            Segment segment = i == files.size() - 1 ? Segment.open(file, segmentSize) : Segment.openSealed(file);
+            segments.add(segment);
+            if (segment.lastSequence > 0) {
+                nextSequence = segment.lastSequence + 1;
+            }
+        }
+        writtenSequence = nextSequence - 1;
+        active = segments.isEmpty() ? createSegment() : segments.get(segments.size() - 1);
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "audit-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+
+        logger.info("Audit log opened at {} with {} segment(s), next sequence {}", root.toAbsolutePath(), segments.size(), nextSequence);
+    }
+
+    /**
+     * Останавливает поток сброса и сбрасывает незаписанные данные на диск.
+     */
+    @PreDestroy
+    public void close() {
+        running = false;
+        synchronized (flushSignal) {
+            flushSignal.notifyAll();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Дописывает запись в журнал.
+     * <p>
+     * Запись становится видимой для поиска сразу, а возвращаемое будущее завершается
+     * после группового сброса сегмента на диск.
+     *
+     * @param entityType тип измененной сущности
+     * @param action     выполненное действие
+     * @param entityId   идентификатор сущности
+     * @param actorId    идентификатор пользователя, выполнившего изменение
+     * @param changes    измененные поля
+     * @return будущее, завершающееся после сохранения записи на диск
+     */
+    public CompletableFuture<Void> append(AuditRecord.EntityType entityType,
+                                          AuditRecord.Action action,
+                                          long entityId,
+                                          Long actorId,
+                                          List<AuditRecord.FieldChange> changes) {
+        CompletableFuture<Void> commit = new CompletableFuture<>();
+
+        lock.lock();
+        try {
+            AuditRecord record = new AuditRecord(nextSequence, Instant.now(), entityType, action, entityId, actorId, changes);
+            byte[] payload = encode(record);
+            if (RECORD_HEADER_SIZE + payload.length > segmentSize - SEGMENT_HEADER_SIZE - Integer.BYTES) {
+                commit.completeExceptionally(new IllegalArgumentException("Audit record is larger than a segment"));
+                return commit;
+            }
+            if (!active.hasRoom(RECORD_HEADER_SIZE + payload.length)) {
+                rotate();
+            }
+
+            active.write(record, payload);
+            writtenSequence = nextSequence++;
+            pendingCommits.add(new PendingCommit(record.sequence(), commit));
+        } finally {
+            lock.unlock();
+        }
+
+        synchronized (flushSignal) {
+            flushSignal.notifyAll();
+        }
+        return commit;
+    }
+
+    /**
+     * Поиск записей по сущности.
+     *
+     * @param entityType тип сущности
+     * @param entityId   идентификатор сущности
+     * @param from       нижняя граница времени записи (null — без ограничения)
+     * @param limit      максимальное количество последних записей
+     * @return записи в хронологическом порядке
+     */
+    public List<AuditRecord> findByEntity(AuditRecord.EntityType entityType, long entityId, Instant from, int limit) {
+        long key = key(entityType.ordinal(), entityId);
+        return scan(key, from, limit,
+                record -> record.entityType() == entityType && record.entityId() == entityId);
+    }
+
+    /**
+     * Поиск записей, созданных действиями пользователя.
+     *
+     * @param actorId идентификатор пользователя
+     * @param from    нижняя граница времени записи (null — без ограничения)
+     * @param limit   максимальное количество последних записей
+     * @return записи в хронологическом порядке
+     */
+    public List<AuditRecord> findByActor(long actorId, Instant from, int limit) {
+        long key = key(ACTOR_KEY_KIND, actorId);
+        return scan(key, from, limit,
+                record -> record.actorId() != null && record.actorId() == actorId);
+    }
+
+    private List<AuditRecord> scan(long key, Instant from, int limit, Predicate<AuditRecord> filter) {
+        long fromMillis = from != null ? from.toEpochMilli() : Long.MIN_VALUE;
+        List<AuditRecord> result = new ArrayList<>();
+
+        // Сегменты просматриваются от новых к старым, пока не набрано нужное количество записей
+        List<Segment> snapshot = new ArrayList<>(segments);
+        for (int i = snapshot.size() - 1; i >= 0 && result.size() < limit; i--) {
+            Segment segment = snapshot.get(i);
+            if (segment.lastTimestamp < fromMillis || !segment.mightContain(key)) {
+                continue;
+            }
+
+            List<AuditRecord> matches = new ArrayList<>();
+            try {
+                segment.forEachFrom(fromMillis, record -> {
+                    if (record.timestamp().toEpochMilli() >= fromMillis && filter.test(record)) {
+                        matches.add(record);
+                    }
+                });
+            } catch (IOException e) {
+                // Сегмент мог быть удален по сроку хранения во время поиска
+                logger.warn("Skipping unreadable audit segment {}: {}", segment.path, e.getMessage());
+                continue;
+            }
+
+            // Добавляем совпадения сегмента в начало, сохраняя хронологический порядок
+            Collections.reverse(matches);
+            for (AuditRecord match : matches) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                result.add(match);
+            }
+        }
+
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Удаление закрытых сегментов старше срока хранения и сверх максимального количества сегментов.
+     * Сегменты удаляются от старых к новым; активный сегмент не удаляется.
+     */
+    @Scheduled(fixedDelayString = "${app.audit.retention-check-interval-ms:3600000}")
+    public void enforceRetention() {
+        long expiredBefore = retention.isZero() ? Long.MIN_VALUE : Instant.now().minus(retention).toEpochMilli();
+        List<Segment> expired = new ArrayList<>();
+
+        lock.lock();
+        try {
+            for (Segment segment : segments) {
+                if (segment == active) {
+                    break;
+                }
+                boolean overLimit = maxSegments > 0 && segments.size() - expired.size() > maxSegments;
+                if (!overLimit && segment.lastTimestamp >= expiredBefore) {
+                    break;
+                }
+                expired.add(segment);
+            }
+            segments.removeAll(expired);
+        } finally {
+            lock.unlock();
+        }
+
+        for (Segment segment : expired) {
+            try {
+                Files.deleteIfExists(segment.path);
+                logger.info("Deleted audit segment {} (last record at {})", segment.path, Instant.ofEpochMilli(segment.lastTimestamp));
+            } catch (IOException e) {
+                logger.error("Failed to delete audit segment {}", segment.path, e);
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (running) {
+            synchronized (flushSignal) {
+                try {
+                    flushSignal.wait(flushIntervalMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            try {
+                // Небольшая пауза накапливает группу записей для одного сброса
+                Thread.sleep(Math.max(1, flushIntervalMs / 10));
+                flush();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Audit log flush failed", e);
+            }
+        }
+    }
+
+    private void flush() {
+        Segment segment;
+        long flushedUpTo;
+        List<PendingCommit> committed;
+
+        lock.lock();
+        try {
+            if (pendingCommits.isEmpty()) {
+                return;
+            }
+            segment = active;
+            flushedUpTo = writtenSequence;
+            committed = new ArrayList<>(pendingCommits);
+            pendingCommits.clear();
+        } finally {
+            lock.unlock();
+        }
+
+        // Сегмент, закрытый ротацией после снятия блокировки, уже сброшен на диск
+        segment.force();
+        for (PendingCommit commit : committed) {
+            if (commit.sequence() <= flushedUpTo) {
+                commit.future().complete(null);
+            }
+        }
+    }
+
+    private void rotate() {
+        // Закрываемый сегмент сбрасывается синхронно, чтобы групповой сброс касался только активного
+        Segment sealed = active;
+        sealed.force();
+        active = createSegment();
+        sealed.seal();
+    }
+
+    private Segment createSegment() {
+        Path file = Paths.get(directory, String.format("segment-%020d.log", nextSequence));
+        Segment segment = Segment.create(file, segmentSize);
+        segments.add(segment);
+        return segment;
+    }
+
+    private static long key(long kind, long id) {
+        return (kind << 56) ^ id;
+    }
+
+    private static byte[] encode(AuditRecord record) {
+        // Строки кодируются заранее, чтобы выделить буфер точного размера
+        List<byte[]> strings = new ArrayList<>(record.changes().size() * 3);
+        int size = 8 + 8 + 1 + 1 + 8 + 8 + 2;
+        for (AuditRecord.FieldChange change : record.changes()) {
+            for (String value : new String[]{change.field(), change.before(), change.after()}) {
+                byte[] bytes = utf8(value);
+                strings.add(bytes);
+                size += Integer.BYTES + (bytes != null ? bytes.length : 0);
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(record.sequence());
+        buffer.putLong(record.timestamp().toEpochMilli());
+        buffer.put((byte) record.entityType().ordinal());
+        buffer.put((byte) record.action().ordinal());
+        buffer.putLong(record.entityId());
+        buffer.putLong(record.actorId() != null ? record.actorId() : NULL_ACTOR);
+        buffer.putShort((short) record.changes().size());
+        for (byte[] bytes : strings) {
+            if (bytes == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(bytes.length);
+                buffer.put(bytes);
+            }
+        }
+        return buffer.array();
+    }
+
+    private static AuditRecord decode(ByteBuffer buffer) {
+        long sequence = buffer.getLong();
+        long timestamp = buffer.getLong();
+        AuditRecord.EntityType entityType = AuditRecord.EntityType.values()[buffer.get()];
+        AuditRecord.Action action = AuditRecord.Action.values()[buffer.get()];
+        long entityId = buffer.getLong();
+        long actorId = buffer.getLong();
+        int fieldCount = buffer.getShort();
+        List<AuditRecord.FieldChange> changes = new ArrayList<>(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            changes.add(new AuditRecord.FieldChange(getString(buffer), getString(buffer), getString(buffer)));
+        }
+        return new AuditRecord(sequence, Instant.ofEpochMilli(timestamp), entityType, action, entityId,
+                actorId == NULL_ACTOR ? null : actorId, changes);
+    }
+
+    private static byte[] utf8(String value) {
+        if (value == null) {
+            return null;
+        }
+        String truncated = value.length() > MAX_VALUE_LENGTH ? value.substring(0, MAX_VALUE_LENGTH) : value;
+        return truncated.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload);
+        return (int) crc32.getValue();
+    }
+
+    /**
+     * Ожидание сброса записи на диск.
+     */
+    private record PendingCommit(long sequence, CompletableFuture<Void> future) {
+
+    }
+
+    /**
+     * Обработчик записи при последовательном чтении сегмента.
+     */
+    @FunctionalInterface
+    private interface RecordVisitor {
+
+        /**
+         * @return false, чтобы прекратить чтение
+         */
+        boolean visit(int position, int crc, ByteBuffer payload);
+    }
+
+    /**
+     * Сегмент журнала: файл фиксированного размера с разреженным индексом.
+     * Активный сегмент отображен в память; закрытый читается через файловый канал.
+     */
+    private static final class Segment {
+
+        private final Path path;
+        /**
+         * Отображение файла; null после закрытия сегмента. Освобождается сборщиком мусора,
+         * когда на буфер не остается ссылок (в том числе у поиска, начатого до закрытия).
+         */
+        private volatile MappedByteBuffer buffer;
+        /**
+         * Фильтр Блума; пишется под блокировкой журнала, читается поиском без нее.
+         */
+        private final AtomicLongArray bloom = new AtomicLongArray(BLOOM_BITS / Long.SIZE);
+        private final List<long[]> sparseIndex = new CopyOnWriteArrayList<>();
+        private volatile int writePosition;
+        private volatile long lastTimestamp = Long.MIN_VALUE;
+        private long lastSequence;
+        private int recordCount;
+
+        private Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        static Segment create(Path path, int size) {
+            Segment segment = new Segment(path, map(path, size));
+            segment.buffer.putInt(0, SEGMENT_MAGIC);
+            segment.buffer.putInt(Integer.BYTES, FORMAT_VERSION);
+            segment.writePosition = SEGMENT_HEADER_SIZE;
+            return segment;
+        }
+
+        static Segment open(Path path, int size) throws IOException {
+            int fileSize = (int) Math.max(size, Files.size(path));
+            Segment segment = new Segment(path, map(path, fileSize));
+            if (segment.buffer.getInt(0) != SEGMENT_MAGIC) {
+                throw new IOException("Not an audit segment: " + path);
+            }
+
+            // Восстановление позиции записи и индекса; повреждённый хвост отбрасывается
+            int position = SEGMENT_HEADER_SIZE;
+            while (position + RECORD_HEADER_SIZE <= segment.buffer.capacity()) {
+                int length = segment.buffer.getInt(position);
+                if (length <= 0 || position + RECORD_HEADER_SIZE + length > segment.buffer.capacity()) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                segment.buffer.get(position + RECORD_HEADER_SIZE, payload);
+                if (crc(payload) != segment.buffer.getInt(position + Integer.BYTES)) {
+                    logger.warn("Truncating corrupted audit segment tail in {} at offset {}", path, position);
+                    segment.buffer.putInt(position, 0);
+                    break;
+                }
+                segment.index(decode(ByteBuffer.wrap(payload)), position);
+                position += RECORD_HEADER_SIZE + length;
+            }
+            segment.writePosition = position;
+            return segment;
+        }
+
+        /**
+         * Открытие закрытого сегмента без отображения в память: индекс восстанавливается
+         * последовательным чтением, чтение прекращается на первой поврежденной записи.
+         */
+        static Segment openSealed(Path path) throws IOException {
+            Segment segment = new Segment(path, null);
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+                if (in.readInt() != SEGMENT_MAGIC) {
+                    throw new IOException("Not an audit segment: " + path);
+                }
+            }
+            int end = (int) Files.size(path);
+            segment.writePosition = segment.readFile(SEGMENT_HEADER_SIZE, end, (position, crc, payload) -> {
+                if (crc(payload.array()) != crc) {
+                    logger.warn("Ignoring corrupted audit segment tail in {} at offset {}", path, position);
+                    return false;
+                }
+                segment.index(decode(payload), position);
+                return true;
+            });
+            return segment;
+        }
+
+        private static MappedByteBuffer map(Path path, int size) {
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot map audit segment " + path, e);
+            }
+        }
+
+        boolean hasRoom(int bytes) {
+            // Оставляем место под завершающий нулевой заголовок
+            return writePosition + bytes + Integer.BYTES <= buffer.capacity();
+        }
+
+        void write(AuditRecord record, byte[] payload) {
+            int position = writePosition;
+            buffer.put(position + RECORD_HEADER_SIZE, payload);
+            buffer.putInt(position + Integer.BYTES, crc(payload));
+            // Длина пишется последней: запись становится видимой только целиком
+            buffer.putInt(position, payload.length);
+            index(record, position);
+            writePosition = position + RECORD_HEADER_SIZE + payload.length;
+        }
+
+        void force() {
+            MappedByteBuffer mapped = buffer;
+            if (mapped != null) {
+                mapped.force();
+            }
+        }
+
+        /**
+         * Закрытие сегмента после ротации: отображение больше не используется для записи и чтения.
+         */
+        void seal() {
+            buffer = null;
+        }
+
+        boolean mightContain(long key) {
+            long hash1 = mix(key);
+            long hash2 = mix(hash1);
+            return bit(hash1) && bit(hash2);
+        }
+
+        void forEachFrom(long fromMillis, Consumer<AuditRecord> consumer) throws IOException {
+            int limit = writePosition;
+            MappedByteBuffer mapped = buffer;
+            int start = SEGMENT_HEADER_SIZE;
+            for (long[] entry : sparseIndex) {
+                if (entry[1] >= fromMillis) {
+                    break;
+                }
+                start = (int) entry[2];
+            }
+
+            RecordVisitor visitor = (position, crc, payload) -> {
+                try {
+                    consumer.accept(decode(payload));
+                } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+                    logger.warn("Skipping unreadable audit record in {} at offset {}", path, position);
+                }
+                return true;
+            };
+
+            if (mapped == null) {
+                readFile(start, limit, visitor);
+                return;
+            }
+
+            ByteBuffer view = mapped.duplicate();
+            int position = start;
+            while (position + RECORD_HEADER_SIZE <= limit) {
+                int length = view.getInt(position);
+                if (length <= 0) {
+                    break;
+                }
+                visitor.visit(position, view.getInt(position + Integer.BYTES), view.slice(position + RECORD_HEADER_SIZE, length));
+                position += RECORD_HEADER_SIZE + length;
+            }
+        }
+
+        /**
+         * Последовательное чтение записей из файла начиная с позиции {@code from}.
+         *
+         * @return позиция после последней прочитанной записи
+         */
+        private int readFile(int from, int limit, RecordVisitor visitor) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    Channels.newInputStream(channel.position(from)), READ_BUFFER_SIZE))) {
+                int position = from;
+                while (position + RECORD_HEADER_SIZE <= limit) {
+                    int length;
+                    int crc;
+                    try {
+                        length = in.readInt();
+                        crc = in.readInt();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    if (length <= 0 || position + RECORD_HEADER_SIZE + length > limit) {
+                        break;
+                    }
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+                    if (!visitor.visit(position, crc, ByteBuffer.wrap(payload))) {
+                        break;
+                    }
+                    position += RECORD_HEADER_SIZE + length;
+                }
+                return position;
+            }
+        }
+
+        private void index(AuditRecord record, int position) {
+            addToBloom(key(record.entityType().ordinal(), record.entityId()));
+            if (record.actorId() != null) {
+                addToBloom(key(ACTOR_KEY_KIND, record.actorId()));
+            }
+            if (recordCount++ % SPARSE_INDEX_INTERVAL == 0) {
+                sparseIndex.add(new long[]{record.sequence(), record.timestamp().toEpochMilli(), position});
+            }
+            lastSequence = record.sequence();
+            lastTimestamp = record.timestamp().toEpochMilli();
+        }
+
+        private void addToBloom(long key) {
+            long hash1 = mix(key);
+            long hash2 = mix(hash1);
+            setBit(hash1);
+            setBit(hash2);
+        }
+
+        private boolean bit(long hash) {
+            int index = (int) (hash & (BLOOM_BITS - 1));
+            return (bloom.get(index >>> 6) & (1L << index)) != 0;
+        }
+
+        private void setBit(long hash) {
+            int index = (int) (hash & (BLOOM_BITS - 1));
+            bloom.getAndAccumulate(index >>> 6, 1L << index, (bits, bit) -> bits | bit);
+        }
+
+        private static long mix(long value) {
+            value ^= value >>> 33;
+            value *= 0xff51afd7ed558ccdL;
+            value ^= value >>> 33;
+            value *= 0xc4ceb9fe1a85ec53L;
+            value ^= value >>> 33;
+            return value;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.api.AntiCorruptionAPI.Components;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.github.luben.zstd.ZstdOutputStream;
+import com.github.luben.zstd.util.Native;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Поддерживаемые кодировки содержимого HTTP-ответов ({@code Content-Encoding}).
+ * <p>
+ * Brotli и Zstandard используют нативные библиотеки; если библиотека не загрузилась
+ * на текущей платформе, кодировка считается недоступной и не предлагается клиентам.
+ */
+public enum CompressionCodec {
+
+    GZIP("gzip", 9) {
+        @Override
+        public OutputStream wrap(OutputStream out, int level) throws IOException {
+            return new GZIPOutputStream(out, 8192) {
+                {
+                    def.setLevel(level);
+                }
+            };
+        }
+
+        @Override
+        boolean loadNative() {
+            return true;
+        }
+    },
+
+    BROTLI("br", 11) {
+        @Override
+        public OutputStream wrap(OutputStream out, int level) throws IOException {
+            return new BrotliOutputStream(out, new Encoder.Parameters().setQuality(level));
+        }
+
+        @Override
+        boolean loadNative() {
+            return Brotli4jLoader.isAvailable();
+        }
+    },
+
+    ZSTD("zstd", 19) {
+        @Override
+        public OutputStream wrap(OutputStream out, int level) throws IOException {
+            return new ZstdOutputStream(out, level);
+        }
+
+        @Override
+        boolean loadNative() {
+            Native.load();
+            return Native.isLoaded();
+        }
+    };
+
+    private final String token;
+    private final int maxLevel;
+    private Boolean available;
+
+    CompressionCodec(String token, int maxLevel) {
+        this.token = token;
+        this.maxLevel = maxLevel;
+    }
+
+    /**
+     * Имя кодировки в заголовках {@code Accept-Encoding} и {@code Content-Encoding}.
+     *
+     * @return имя кодировки
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Уровень максимального сжатия (для ответов, сжимаемых один раз и кэшируемых).
+     *
+     * @return уровень сжатия
+     */
+    public int maxLevel() {
+        return maxLevel;
+    }
+
+    /**
+     * Создание потока сжатия поверх указанного потока.
+     * Закрытие возвращенного потока закрывает и исходный.
+     *
+     * @param out   поток для сжатых данных
+     * @param level уровень сжатия
+     * @return поток сжатия
+     * @throws IOException при ошибке инициализации кодировщика
+     */
+    public abstract OutputStream wrap(OutputStream out, int level) throws IOException;
+
+    abstract boolean loadNative();
+
+    /**
+     * Сжатие массива целиком.
+     *
+     * @param data  исходные данные
+     * @param level уровень сжатия
+     * @return сжатые данные
+     * @throws IOException при ошибке сжатия
+     */
+    public byte[] compress(byte[] data, int level) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (OutputStream out = wrap(buffer, level)) {
+            out.write(data);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Проверка доступности кодировки на текущей платформе.
+     *
+     * @return true, если кодировщик можно использовать
+     */
+    public synchronized boolean isAvailable() {
+        if (available == null) {
+            try {
+                available = loadNative();
+            } catch (Throwable e) {
+                available = false;
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Поиск кодировки по имени.
+     *
+     * @param token имя кодировки
+     * @return кодировка или null
+     */
+    public static CompressionCodec fromToken(String token) {
+        for (CompressionCodec codec : values()) {
+            if (codec.token.equalsIgnoreCase(token)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Выбор кодировки по заголовку {@code Accept-Encoding}: наибольшее q-значение клиента,
+     * при равенстве — порядок сервера.
+     *
+     * @param acceptEncoding значение заголовка {@code Accept-Encoding}
+     * @param offered        доступные кодировки в порядке предпочтения сервера
+     * @return кодировка или null, если сжатие не нужно
+     */
+    public static CompressionCodec negotiate(String acceptEncoding, List<CompressionCodec> offered) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        Map<String, Double> qualities = new HashMap<>();
+        double wildcard = -1;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String name = params[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (name.equals("*")) {
+                wildcard = quality;
+            } else {
+                qualities.put(name, quality);
+            }
+        }
+
+        CompressionCodec best = null;
+        double bestQuality = 0;
+        for (CompressionCodec codec : offered) {
+            double quality = qualities.getOrDefault(codec.token(), wildcard);
+            if (quality > bestQuality) {
+                best = codec;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Уровень по умолчанию для потокового сжатия.
+     *
+     * @return уровень сжатия
+     */
+    public int defaultLevel() {
+        return switch (this) {
+            case GZIP -> Deflater.DEFAULT_COMPRESSION;
+            case BROTLI -> 4;
+            case ZSTD -> 3;
+        };
+    }
+}
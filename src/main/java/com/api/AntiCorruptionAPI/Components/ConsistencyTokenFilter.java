@@ -0,0 +1,54 @@
+package com.api.AntiCorruptionAPI.Components;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Фильтр, извлекающий маркер согласованности чтения из заголовка запроса.
+ * <p>
+ * Если клиент передал {@link ReplicaConsistencyContext#HEADER}, чтения в рамках запроса
+ * направляются только на реплики, воспроизведшие указанную позицию WAL,
+ * либо на основной сервер.
+ */
+public class ConsistencyTokenFilter extends OncePerRequestFilter {
+
+    /**
+     * Логгер для записи некорректных маркеров.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ConsistencyTokenFilter.class);
+
+    /**
+     * Обрабатывает запрос, устанавливая контекст согласованности на время его выполнения.
+     *
+     * @param request     HTTP-запрос
+     * @param response    HTTP-ответ
+     * @param filterChain цепочка фильтров
+     * @throws ServletException при ошибках сервлета
+     * @throws IOException      при ошибках ввода-вывода
+     */
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String token = request.getHeader(ReplicaConsistencyContext.HEADER);
+        try {
+            if (StringUtils.hasText(token)) {
+                try {
+                    ReplicaConsistencyContext.setRequiredLsn(ReplicaConsistencyContext.parseLsn(token.trim()));
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Ignoring malformed consistency token: {}", token);
+                }
+            }
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaConsistencyContext.clear();
+        }
+    }
+}
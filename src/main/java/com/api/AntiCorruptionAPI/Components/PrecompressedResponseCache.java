@@ -0,0 +1,98 @@
+package com.api.AntiCorruptionAPI.Components;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Кэш заранее сжатых вариантов редко меняющихся ответов.
+ * <p>
+ * Ответ по-прежнему формируется контроллером (с проверкой прав доступа), но сжимается
+ * с максимальным уровнем только один раз для каждой версии содержимого: версия определяется
+ * хэшем несжатого тела, поэтому явная инвалидация не нужна — изменившийся ответ
+ * просто получает новую запись.
+ * <p>
+ * Количество записей ограничено: ответы с новыми ключами сверх предела сжимаются без сохранения.
+ */
+public class PrecompressedResponseCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    private record Entry(String hash, Map<CompressionCodec, byte[]> variants) {
+    }
+
+    /**
+     * Вариант ответа для отправки клиенту.
+     *
+     * @param etag     слабый ETag, вычисленный по несжатому содержимому
+     * @param body     тело ответа в выбранной кодировке
+     * @param computed true, если сжатый вариант был вычислен при этом запросе
+     */
+    public record Variant(String etag, byte[] body, boolean computed) {
+    }
+
+    /**
+     * Создание кэша.
+     *
+     * @param maxEntries максимальное количество ключей
+     */
+    public PrecompressedResponseCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Получение варианта ответа в нужной кодировке.
+     *
+     * @param key   ключ ответа (путь запроса)
+     * @param body  несжатое тело ответа
+     * @param codec кодировка (null — без сжатия)
+     * @return вариант ответа
+     * @throws IOException при ошибке сжатия
+     */
+    public Variant get(String key, byte[] body, CompressionCodec codec) throws IOException {
+        String hash = digest(body);
+        String etag = "W/\"" + hash + "\"";
+        if (!entries.containsKey(key) && entries.size() >= maxEntries) {
+            return codec == null
+                    ? new Variant(etag, body, false)
+                    : new Variant(etag, codec.compress(body, codec.maxLevel()), true);
+        }
+        Entry entry = entries.compute(key, (k, existing) ->
+                existing != null && existing.hash().equals(hash)
+                        ? existing
+                        : new Entry(hash, new EnumMap<>(CompressionCodec.class)));
+        if (codec == null) {
+            return new Variant(etag, body, false);
+        }
+
+        byte[] compressed;
+        synchronized (entry) {
+            compressed = entry.variants().get(codec);
+        }
+        if (compressed != null) {
+            return new Variant(etag, compressed, false);
+        }
+
+        // Параллельные запросы могут сжать одно и то же содержимое дважды — результат одинаков
+        compressed = codec.compress(body, codec.maxLevel());
+        synchronized (entry) {
+            entry.variants().putIfAbsent(codec, compressed);
+        }
+        return new Variant(etag, compressed, true);
+    }
+
+    private static String digest(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
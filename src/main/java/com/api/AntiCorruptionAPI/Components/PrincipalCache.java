@@ -0,0 +1,124 @@
+package com.api.AntiCorruptionAPI.Components;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш данных аутентификации пользователей.
+ * <p>
+ * {@link AuthTokenFilter} загружает пользователя и его группы на каждый запрос с JWT-токеном.
+ * Кэш хранит готовые {@link UserDetailsImpl} в течение ограниченного времени и сбрасывается
+ * при изменении групп, пароля или удалении пользователя. Сброс выполняется после фиксации
+ * транзакции, чтобы параллельный запрос не закэшировал данные до изменения.
+ */
+@Component
+public class PrincipalCache {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Номер поколения кэша: увеличивается при каждом сбросе.
+     * Загруженные до сброса данные в кэш не попадают.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private record Entry(UserDetailsImpl details, long expiresAt) {
+    }
+
+    /**
+     * Конструктор с параметрами кэша.
+     *
+     * @param ttl        время жизни записи (0 — кэш отключен)
+     * @param maxEntries максимальное количество записей
+     */
+    public PrincipalCache(@Value("${app.security.principal-cache.ttl:PT60S}") Duration ttl,
+                          @Value("${app.security.principal-cache.max-entries:10000}") int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Получение данных пользователя из кэша или их загрузка.
+     *
+     * @param username имя пользователя
+     * @param loader   загрузка данных при отсутствии в кэше
+     * @return данные аутентификации
+     */
+    public UserDetailsImpl get(String username, Supplier<UserDetailsImpl> loader) {
+        if (ttlNanos <= 0) {
+            return loader.get();
+        }
+
+        long now = System.nanoTime();
+        Entry entry = entries.get(username);
+        if (entry != null && entry.expiresAt() - now > 0) {
+            return entry.details();
+        }
+
+        long loadedGeneration = generation.get();
+        UserDetailsImpl details = loader.get();
+
+        if (entries.size() >= maxEntries) {
+            entries.clear();
+        }
+        entries.put(username, new Entry(details, now + ttlNanos));
+        // Сброс во время загрузки: запись могла устареть, удаляем ее
+        if (generation.get() != loadedGeneration) {
+            entries.remove(username);
+        }
+        return details;
+    }
+
+    /**
+     * Сброс данных указанных пользователей за один проход.
+     *
+     * @param userIds идентификаторы пользователей
+     */
+    public void invalidate(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Set<Long> ids = new HashSet<>(userIds);
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            entries.values().removeIf(entry -> ids.contains(entry.details().getId()));
+        });
+    }
+
+    /**
+     * Полный сброс кэша (например, при удалении группы доступа).
+     */
+    public void invalidateAll() {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            entries.clear();
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
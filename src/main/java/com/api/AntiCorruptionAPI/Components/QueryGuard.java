@@ -0,0 +1,244 @@
+package com.api.AntiCorruptionAPI.Components;
+
+import com.api.AntiCorruptionAPI.Models.Report;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionTimedOutException;
+
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Защита базы данных от дорогих запросов.
+ * <p>
+ * Перед фильтрацией отчетов запрашивает у планировщика PostgreSQL оценку запроса
+ * ({@code EXPLAIN} SQL, который Hibernate строит по той же спецификации и с теми же параметрами).
+ * Планировщик учитывает статистику таблицы
+ * ({@code pg_stats}), поэтому, например, поиск по одной букве в {@code involvedPersons} получает
+ * оценку, близкую к размеру таблицы. Запрос дороже бюджета отклоняется, а запрос с большим
+ * ожидаемым количеством строк выполняется с принудительным ограничением выборки.
+ * Если оценку получить не удалось, запрос выполняется без ограничений: оценка выполняется
+ * в точке сохранения на соединении текущей транзакции и отдельной сессии Hibernate,
+ * поэтому ее ошибка не прерывает транзакцию и не помечает ее для отката.
+ * <p>
+ * Также учитывает запросы, прерванные по тайм-ауту выполнения.
+ * <p>
+ * Метрики: {@code app.queries.guard.decisions} (теги {@code operation}, {@code action})
+ * и {@code app.queries.timeouts} (тег {@code operation}).
+ */
+@Component
+public class QueryGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryGuard.class);
+
+    /**
+     * Код PostgreSQL для запроса, отмененного по тайм-ауту или по запросу клиента.
+     */
+    private static final String QUERY_CANCELED = "57014";
+
+    /**
+     * Оценка верхнего узла плана: {@code (cost=0.00..1234.56 rows=789 width=8)}.
+     */
+    private static final Pattern PLAN_ESTIMATE = Pattern.compile("cost=[\\d.]+\\.\\.([\\d.]+) rows=(\\d+)");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final boolean enabled;
+    private final double maxCost;
+    private final double limitRows;
+    private final int forcedLimit;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Действие по результату оценки запроса.
+     */
+    public enum Action {
+        /**
+         * Запрос выполняется без изменений.
+         */
+        ALLOW,
+        /**
+         * Запрос выполняется с ограничением количества строк.
+         */
+        LIMIT,
+        /**
+         * Запрос отклоняется.
+         */
+        REJECT
+    }
+
+    /**
+     * Решение по запросу.
+     *
+     * @param action        действие
+     * @param estimatedRows оценка количества строк (отрицательная, если оценка не выполнялась)
+     * @param estimatedCost оценка стоимости в единицах планировщика
+     * @param limit         ограничение количества строк для {@link Action#LIMIT}
+     */
+    public record Decision(Action action, double estimatedRows, double estimatedCost, int limit) {
+
+        static Decision allow() {
+            return new Decision(Action.ALLOW, -1, -1, 0);
+        }
+    }
+
+    /**
+     * Конструктор с параметрами.
+     *
+     * @param enabled       включена ли оценка запросов
+     * @param maxCost       бюджет стоимости запроса (выше — отклонение)
+     * @param limitRows     ожидаемое количество строк, начиная с которого выборка ограничивается
+     * @param forcedLimit   принудительное ограничение количества строк
+     * @param meterRegistry реестр метрик
+     */
+    public QueryGuard(@Value("${app.queries.guard.enabled:true}") boolean enabled,
+                      @Value("${app.queries.guard.max-cost:1000000}") double maxCost,
+                      @Value("${app.queries.guard.limit-rows:5000}") double limitRows,
+                      @Value("${app.queries.guard.forced-limit:500}") int forcedLimit,
+                      MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxCost = maxCost;
+        this.limitRows = limitRows;
+        this.forcedLimit = forcedLimit;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Оценка фильтрации отчетов. Должна вызываться в транзакции, в которой будет выполнен запрос,
+     * чтобы оценка выполнялась на том же сервере (основном или реплике).
+     *
+     * @param operation     имя операции (тег метрики)
+     * @param specification спецификация фильтрации, по которой будет выполнен запрос
+     * @return решение по запросу
+     */
+    public Decision checkReportFilter(String operation, Specification<Report> specification) {
+        if (!enabled) {
+            return Decision.allow();
+        }
+
+        Decision decision;
+        try {
+            Matcher estimate = PLAN_ESTIMATE.matcher(explain(specification));
+            if (!estimate.find()) {
+                throw new IllegalStateException("Unexpected plan format");
+            }
+            double cost = Double.parseDouble(estimate.group(1));
+            double rows = Double.parseDouble(estimate.group(2));
+            if (cost > maxCost) {
+                decision = new Decision(Action.REJECT, rows, cost, 0);
+            } else if (rows > limitRows) {
+                decision = new Decision(Action.LIMIT, rows, cost, forcedLimit);
+            } else {
+                decision = new Decision(Action.ALLOW, rows, cost, 0);
+            }
+        } catch (Exception e) {
+            // Оценка — вспомогательная проверка: при ее ошибке запрос выполняется как раньше
+            logger.warn("Не удалось оценить запрос {}: {}", operation, e.getMessage());
+            counter("app.queries.guard.decisions", operation, "action", "error").increment();
+            return Decision.allow();
+        }
+
+        counter("app.queries.guard.decisions", operation, "action", decision.action().name().toLowerCase())
+                .increment();
+        return decision;
+    }
+
+    /**
+     * Учет ошибки запроса: если запрос прерван по тайм-ауту, увеличивается счетчик тайм-аутов.
+     *
+     * @param operation имя операции (тег метрики)
+     * @param error     ошибка выполнения
+     * @return true, если ошибка вызвана тайм-аутом запроса или транзакции
+     */
+    public boolean recordTimeout(String operation, Throwable error) {
+        if (!isTimeout(error)) {
+            return false;
+        }
+        counter("app.queries.timeouts", operation, null, null).increment();
+        return true;
+    }
+
+    /**
+     * Проверка, вызвана ли ошибка тайм-аутом запроса или транзакции.
+     *
+     * @param error ошибка выполнения
+     * @return true для тайм-аута
+     */
+    public static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof jakarta.persistence.QueryTimeoutException
+                    || cause instanceof org.hibernate.QueryTimeoutException
+                    || cause instanceof org.springframework.dao.QueryTimeoutException
+                    || cause instanceof TransactionTimedOutException
+                    || cause instanceof SQLException sqlException && QUERY_CANCELED.equals(sqlException.getSQLState())) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Первая строка плана запроса, построенного Hibernate по спецификации.
+     * <p>
+     * Запрос создается в отдельной сессии на соединении текущей транзакции: инспектор SQL
+     * этой сессии добавляет {@code EXPLAIN} к сформированному запросу, а параметры (в том числе
+     * массивы шаблонов поиска) привязываются Hibernate как при обычном выполнении. Выбирается
+     * строковый столбец, поэтому строки плана читаются как значения результата.
+     */
+    private String explain(Specification<Report> specification) {
+        Session session = entityManager.unwrap(Session.class);
+        return session.doReturningWork(connection -> {
+            Savepoint savepoint = connection.getAutoCommit() ? null : connection.setSavepoint();
+            try (Session explainSession = session.getSessionFactory().withOptions()
+                    .connection(connection)
+                    .statementInspector(sql -> "EXPLAIN " + sql)
+                    .openSession()) {
+                HibernateCriteriaBuilder criteriaBuilder = explainSession.getCriteriaBuilder();
+                CriteriaQuery<String> query = criteriaBuilder.createQuery(String.class);
+                Root<Report> root = query.from(Report.class);
+                query.select(root.get("incidentLocation"));
+                Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+                if (predicate != null) {
+                    query.where(predicate);
+                }
+                List<String> plan = explainSession.createQuery(query).getResultList();
+                if (savepoint != null) {
+                    connection.releaseSavepoint(savepoint);
+                }
+                return plan.get(0);
+            } catch (SQLException | RuntimeException e) {
+                if (savepoint != null) {
+                    connection.rollback(savepoint);
+                }
+                throw e;
+            }
+        });
+    }
+
+    private Counter counter(String name, String operation, String tag, String value) {
+        Counter.Builder builder = Counter.builder(name).tag("operation", operation);
+        if (tag != null) {
+            builder.tag(tag, value);
+        }
+        return builder.register(meterRegistry);
+    }
+}
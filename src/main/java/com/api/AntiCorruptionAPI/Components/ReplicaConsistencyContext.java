@@ -0,0 +1,104 @@
+package com.api.AntiCorruptionAPI.Components;
+
+import java.util.function.Supplier;
+
+/**
+ * Контекст согласованности чтения с реплик для текущего запроса.
+ * <p>
+ * Хранит позицию журнала WAL (LSN), которую реплика должна воспроизвести,
+ * чтобы клиент увидел собственные ранее выполненные изменения (read-your-writes).
+ * Позиция передается клиентом в заголовке {@link #HEADER} и выдается сервером
+ * в том же заголовке после каждой фиксации записи на основном сервере.
+ */
+public final class ReplicaConsistencyContext {
+
+    /**
+     * Заголовок HTTP с маркером согласованности.
+     */
+    public static final String HEADER = "X-Consistency-Token";
+
+    /**
+     * Позиция WAL, которую не воспроизвела ни одна реплика: чтение выполняется на основном сервере.
+     */
+    public static final long PRIMARY_ONLY = Long.MAX_VALUE;
+
+    private static final ThreadLocal<Long> REQUIRED_LSN = new ThreadLocal<>();
+
+    private ReplicaConsistencyContext() {
+    }
+
+    /**
+     * Устанавливает требуемую позицию WAL для текущего потока.
+     *
+     * @param lsn позиция WAL
+     */
+    public static void setRequiredLsn(long lsn) {
+        REQUIRED_LSN.set(lsn);
+    }
+
+    /**
+     * Возвращает требуемую позицию WAL для текущего потока.
+     *
+     * @return позиция WAL или 0, если клиент не передал маркер
+     */
+    public static long getRequiredLsn() {
+        Long lsn = REQUIRED_LSN.get();
+        return lsn != null ? lsn : 0L;
+    }
+
+    /**
+     * Выполняет чтение на основном сервере независимо от состояния реплик.
+     * Контекст текущего потока восстанавливается после выполнения.
+     *
+     * @param action чтение
+     * @param <T>    тип результата
+     * @return результат чтения
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Long previous = REQUIRED_LSN.get();
+        REQUIRED_LSN.set(PRIMARY_ONLY);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                REQUIRED_LSN.set(previous);
+            } else {
+                REQUIRED_LSN.remove();
+            }
+        }
+    }
+
+    /**
+     * Очищает контекст текущего потока.
+     */
+    public static void clear() {
+        REQUIRED_LSN.remove();
+    }
+
+    /**
+     * Разбор LSN в текстовом формате PostgreSQL ({@code 16/B374D848}).
+     *
+     * @param text текстовое представление LSN
+     * @return числовое значение LSN
+     * @throws IllegalArgumentException если формат некорректен
+     */
+    public static long parseLsn(String text) {
+        int slash = text.indexOf('/');
+        if (slash <= 0 || slash == text.length() - 1) {
+            throw new IllegalArgumentException("Invalid LSN: " + text);
+        }
+        long high = Long.parseLong(text.substring(0, slash), 16);
+        long low = Long.parseLong(text.substring(slash + 1), 16);
+        return (high << 32) | low;
+    }
+
+    /**
+     * Форматирование LSN в текстовый формат PostgreSQL.
+     *
+     * @param lsn числовое значение LSN
+     * @return текстовое представление LSN
+     */
+    public static String formatLsn(long lsn) {
+        return Long.toHexString(lsn >>> 32).toUpperCase() + "/" + Long.toHexString(lsn & 0xFFFFFFFFL).toUpperCase();
+    }
+}
@@ -0,0 +1,184 @@
+package com.api.AntiCorruptionAPI.Components;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Источник данных, направляющий транзакции только для чтения на реплики PostgreSQL.
+ * <p>
+ * Транзакции {@code @Transactional(readOnly = true)} обслуживаются репликой, воспроизведшей
+ * журнал WAL как минимум до позиции из {@link ReplicaConsistencyContext}; если такой реплики нет,
+ * чтение выполняется на основном сервере. Все остальные транзакции идут на основной сервер.
+ * <p>
+ * После фиксации записывающей транзакции в рамках HTTP-запроса текущая позиция WAL основного
+ * сервера возвращается клиенту в заголовке {@link ReplicaConsistencyContext#HEADER}.
+ * <p>
+ * Должен использоваться через {@code LazyConnectionDataSourceProxy}: признак readOnly
+ * устанавливается менеджером транзакций уже после начала транзакции.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Логгер для записи состояния реплик.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+
+    /**
+     * Ключ ресурса транзакции, предотвращающий повторную регистрацию выдачи маркера.
+     */
+    private static final Object TOKEN_SYNCHRONIZATION_KEY = new Object();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    /**
+     * Состояние реплики.
+     */
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+        private volatile long replayLsn;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+
+    /**
+     * Создает маршрутизирующий источник данных.
+     *
+     * @param primary  основной сервер
+     * @param replicas реплики по именам
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach((name, dataSource) -> {
+            this.replicas.add(new Replica(name, dataSource));
+            targets.put(name, dataSource);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Обновляет сведения о доступности реплик и воспроизведенной ими позиции WAL.
+     */
+    public void refreshReplicaState() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT pg_last_wal_replay_lsn()::text")) {
+                String lsn = resultSet.next() ? resultSet.getString(1) : null;
+                if (lsn == null) {
+                    // Сервер не находится в режиме восстановления, т.е. не является репликой
+                    markUnhealthy(replica, "not in recovery");
+                    continue;
+                }
+                replica.replayLsn = ReplicaConsistencyContext.parseLsn(lsn);
+                if (!replica.healthy) {
+                    logger.info("Replica {} is available at LSN {}", replica.name, lsn);
+                }
+                replica.healthy = true;
+            } catch (SQLException | RuntimeException e) {
+                markUnhealthy(replica, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Выбор целевого источника данных для текущей транзакции.
+     *
+     * @return ключ реплики или основного сервера
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registerTokenIssue();
+            return PRIMARY;
+        }
+
+        long requiredLsn = ReplicaConsistencyContext.getRequiredLsn();
+        int size = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy && replica.replayLsn >= requiredLsn) {
+                return replica.name;
+            }
+        }
+        return PRIMARY;
+    }
+
+    private void registerTokenIssue() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(TOKEN_SYNCHRONIZATION_KEY)) {
+            return;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)
+                || servletAttributes.getResponse() == null) {
+            return;
+        }
+
+        HttpServletResponse response = servletAttributes.getResponse();
+        TransactionSynchronizationManager.bindResource(TOKEN_SYNCHRONIZATION_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                String lsn = currentPrimaryLsn();
+                if (lsn != null && !response.isCommitted()) {
+                    response.setHeader(ReplicaConsistencyContext.HEADER, lsn);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TOKEN_SYNCHRONIZATION_KEY);
+            }
+        });
+    }
+
+    private String currentPrimaryLsn() {
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT pg_current_wal_lsn()::text")) {
+            return resultSet.next() ? resultSet.getString(1) : null;
+        } catch (SQLException e) {
+            logger.warn("Unable to read primary WAL position: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static void markUnhealthy(Replica replica, String reason) {
+        if (replica.healthy) {
+            logger.warn("Replica {} is unavailable, routing reads to primary: {}", replica.name, reason);
+        }
+        replica.healthy = false;
+    }
+}
@@ -0,0 +1,50 @@
+package com.api.AntiCorruptionAPI.Components;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Инициализатор последовательности номеров изменений отчетов.
+ * <p>
+ * Создает последовательность {@code report_change_seq}, если она отсутствует,
+ * и присваивает номера изменений отчетам, созданным до появления ленты изменений.
+ * Зависит от {@link EntityManagerFactory}, чтобы выполняться после обновления схемы Hibernate.
+ */
+@Component
+public class ReportChangeSequenceInitializer {
+
+    /**
+     * Логгер для записи информации об инициализации.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ReportChangeSequenceInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param jdbcTemplate         шаблон для выполнения SQL-запросов
+     * @param entityManagerFactory фабрика менеджеров сущностей (гарантирует готовность схемы)
+     */
+    public ReportChangeSequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Создает последовательность и заполняет номера изменений для старых отчетов.
+     */
+    @PostConstruct
+    public void initialize() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS report_change_seq");
+
+        int backfilled = jdbcTemplate.update(
+                "UPDATE reports SET change_seq = nextval('report_change_seq') WHERE change_seq IS NULL");
+        if (backfilled > 0) {
+            logger.info("Assigned change sequence numbers to {} existing reports", backfilled);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.api.AntiCorruptionAPI.Components;
+
+import com.api.AntiCorruptionAPI.Responses.ServiceResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш результатов фильтрации отчетов.
+ * <p>
+ * Ключ — нормализованный набор параметров фильтра вместе с областью видимости пользователя.
+ * Каждая запись помечается номером версии данных отчетов, прочитанным до выполнения запроса;
+ * любое изменение отчетов увеличивает версию после фиксации транзакции, поэтому результат,
+ * вычисленный параллельно с изменением, не будет выдан. Время жизни записи ограничивает
+ * устаревание при изменениях, выполненных другими экземплярами приложения, и изменениях
+ * ФИО сотрудников.
+ * <p>
+ * Запрос с маркером согласованности ({@link ReplicaConsistencyContext#HEADER}) кэш не использует:
+ * запись могла быть вычислена на реплике, еще не воспроизведшей изменения клиента.
+ * <p>
+ * Кэш можно отключить свойством {@code app.reports.filter-cache.enabled=false}
+ * или во время работы через {@link ReportFilterCacheEndpoint}.
+ */
+@Component
+public class ReportFilterCache {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private volatile boolean enabled;
+
+    private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Версия данных отчетов: увеличивается при каждом изменении.
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+
+    private record Entry(ServiceResponse<?> response, long version, long expiresAt) {
+    }
+
+    /**
+     * Конструктор с параметрами кэша.
+     *
+     * @param enabled       включен ли кэш
+     * @param ttl           время жизни записи
+     * @param maxEntries    максимальное количество записей
+     * @param meterRegistry реестр метрик
+     */
+    public ReportFilterCache(@Value("${app.reports.filter-cache.enabled:true}") boolean enabled,
+                             @Value("${app.reports.filter-cache.ttl:PT60S}") Duration ttl,
+                             @Value("${app.reports.filter-cache.max-entries:1000}") int maxEntries,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("app.reports.filter-cache.requests")
+                .description("Report filter cache lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("app.reports.filter-cache.requests")
+                .description("Report filter cache lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.invalidations = Counter.builder("app.reports.filter-cache.invalidations")
+                .description("Report changes that invalidated the filter cache")
+                .register(meterRegistry);
+        Gauge.builder("app.reports.filter-cache.size", entries, Map::size)
+                .description("Cached report filter results")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Получение результата фильтрации из кэша или его вычисление.
+     * Кэшируются только успешные ответы. Запросы с маркером согласованности выполняются мимо кэша.
+     *
+     * @param key    нормализованный ключ фильтра
+     * @param loader выполнение фильтрации
+     * @param <T>    тип данных ответа
+     * @return ответ сервиса
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ServiceResponse<T> get(Object key, Supplier<ServiceResponse<T>> loader) {
+        if (!enabled || ReplicaConsistencyContext.getRequiredLsn() != 0) {
+            return loader.get();
+        }
+
+        long now = System.nanoTime();
+        long currentVersion = version.get();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version() == currentVersion && entry.expiresAt() - now > 0) {
+            hits.increment();
+            return (ServiceResponse<T>) entry.response();
+        }
+
+        misses.increment();
+        ServiceResponse<T> response = loader.get();
+        if (response.status() == HttpStatus.OK) {
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+            // Запись с версией до запроса: изменение во время запроса сделает ее недействительной
+            entries.put(key, new Entry(response, currentVersion, now + ttlNanos));
+        }
+        return response;
+    }
+
+    /**
+     * Сброс кэша после фиксации текущей транзакции (или сразу, если транзакции нет).
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bumpVersion();
+                }
+            });
+        } else {
+            bumpVersion();
+        }
+    }
+
+    /**
+     * Включение или отключение кэша во время работы.
+     *
+     * @param enabled true — кэш включен
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Проверка, включен ли кэш.
+     *
+     * @return true, если кэш включен
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Текущее количество записей.
+     *
+     * @return количество записей
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Текущая версия данных отчетов.
+     *
+     * @return номер версии
+     */
+    public long version() {
+        return version.get();
+    }
+
+    private void bumpVersion() {
+        version.incrementAndGet();
+        invalidations.increment();
+        entries.clear();
+    }
+}
@@ -0,0 +1,57 @@
+package com.api.AntiCorruptionAPI.Components;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Эндпоинт Actuator для управления кэшем фильтрации отчетов
+ * ({@code /actuator/reportfiltercache}, право ViewMetrics).
+ * <p>
+ * Чтение возвращает состояние кэша; запись с параметром {@code enabled}
+ * включает или отключает кэш без перезапуска.
+ */
+@Component
+@Endpoint(id = "reportfiltercache")
+public class ReportFilterCacheEndpoint {
+
+    private final ReportFilterCache cache;
+
+    /**
+     * Конструктор эндпоинта.
+     *
+     * @param cache кэш фильтрации отчетов
+     */
+    public ReportFilterCacheEndpoint(ReportFilterCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Состояние кэша.
+     *
+     * @return признак включения, количество записей и версия данных
+     */
+    @ReadOperation
+    public Map<String, Object> state() {
+        return Map.of(
+                "enabled", cache.isEnabled(),
+                "entries", cache.size(),
+                "version", cache.version()
+        );
+    }
+
+    /**
+     * Включение или отключение кэша.
+     *
+     * @param enabled true — кэш включен
+     * @return новое состояние кэша
+     */
+    @WriteOperation
+    public Map<String, Object> setEnabled(boolean enabled) {
+        cache.setEnabled(enabled);
+        return state();
+    }
+}
@@ -0,0 +1,277 @@
+package com.api.AntiCorruptionAPI.Components;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Журнал предзаписи (write-ahead log) для очереди приема отчетов.
+ * <p>
+ * Принятые отчеты дописываются в файл {@code intake.wal} кадрами
+ * {@code [int длина][int crc32][данные]}. Запись считается принятой только после
+ * сброса файла на диск; параллельные писатели разделяют один {@code force()}.
+ * <p>
+ * Смещение, до которого записи уже перенесены в базу данных, хранится в файле
+ * {@code intake.checkpoint}. Когда все записи подтверждены, журнал усекается.
+ * При открытии поврежденный хвост журнала (недописанный кадр) отбрасывается.
+ */
+@Component
+@ConditionalOnProperty(name = "app.reports.intake.enabled", havingValue = "true")
+public class ReportIntakeLog {
+
+    /**
+     * Логгер для записи информации о работе журнала.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(ReportIntakeLog.class);
+
+    private static final int FRAME_HEADER_SIZE = 8;
+
+    /**
+     * Каталог для хранения журнала и контрольной точки.
+     */
+    @Value("${app.reports.intake.dir:intake}")
+    private String directory;
+
+    private FileChannel channel;
+    private Path checkpointFile;
+    private long checkpoint;
+    private volatile long writePosition;
+    private volatile long durablePosition;
+
+    /**
+     * Явные блокировки вместо мониторов: под ними выполняется запись и сброс файла,
+     * а блокирующий ввод-вывод внутри synchronized закрепляет виртуальный поток за несущим.
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock forceLock = new ReentrantLock();
+
+    /**
+     * Кадр журнала.
+     *
+     * @param offset     смещение начала кадра
+     * @param nextOffset смещение следующего кадра
+     * @param payload    данные кадра
+     */
+    public record Frame(long offset, long nextOffset, byte[] payload) {
+
+    }
+
+    /**
+     * Открывает журнал, восстанавливает контрольную точку и отбрасывает поврежденный хвост.
+     *
+     * @throws IOException при ошибках работы с файлами
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        Path root = Paths.get(directory);
+        Files.createDirectories(root);
+        checkpointFile = root.resolve("intake.checkpoint");
+        channel = FileChannel.open(root.resolve("intake.wal"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        checkpoint = Files.exists(checkpointFile)
+                ? Long.parseLong(Files.readString(checkpointFile, StandardCharsets.US_ASCII).trim())
+                : 0;
+        if (checkpoint > channel.size()) {
+            // Журнал был усечен, но новая контрольная точка не успела сохраниться
+            checkpoint = 0;
+        }
+
+        long validEnd = checkpoint;
+        while (true) {
+            Frame frame = readFrame(validEnd);
+            if (frame == null) {
+                break;
+            }
+            validEnd = frame.nextOffset();
+        }
+        if (validEnd < channel.size()) {
+            logger.warn("Truncating torn intake log tail at offset {} (file size {})", validEnd, channel.size());
+            channel.truncate(validEnd);
+            channel.force(true);
+        }
+
+        writePosition = validEnd;
+        durablePosition = validEnd;
+        logger.info("Report intake log opened: {} bytes pending replay", validEnd - checkpoint);
+    }
+
+    /**
+     * Закрывает файл журнала.
+     *
+     * @throws IOException при ошибках закрытия файла
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Дописывает запись в журнал и дожидается ее сброса на диск.
+     *
+     * @param payload данные записи
+     * @throws IOException при ошибках записи
+     */
+    public void append(byte[] payload) throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_SIZE + payload.length);
+        frame.putInt(payload.length);
+        frame.putInt(crc(payload));
+        frame.put(payload);
+        frame.flip();
+
+        long end;
+        writeLock.lock();
+        try {
+            long position = writePosition;
+            while (frame.hasRemaining()) {
+                position += channel.write(frame, position);
+            }
+            writePosition = position;
+            end = position;
+        } finally {
+            writeLock.unlock();
+        }
+
+        // Групповой сброс: один force() подтверждает все записи, сделанные до его начала
+        forceLock.lock();
+        try {
+            if (durablePosition >= end) {
+                return;
+            }
+            long target = writePosition;
+            channel.force(false);
+            durablePosition = target;
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    /**
+     * Чтение неподтвержденных записей начиная с контрольной точки.
+     *
+     * @param maxFrames максимальное количество записей
+     * @return список кадров в порядке записи
+     * @throws IOException при ошибках чтения
+     */
+    public List<Frame> readPending(int maxFrames) throws IOException {
+        long limit;
+        long position;
+        writeLock.lock();
+        try {
+            limit = durablePosition;
+            position = checkpoint;
+        } finally {
+            writeLock.unlock();
+        }
+
+        List<Frame> frames = new ArrayList<>();
+        while (frames.size() < maxFrames && position < limit) {
+            Frame frame = readFrame(position);
+            if (frame == null) {
+                break;
+            }
+            frames.add(frame);
+            position = frame.nextOffset();
+        }
+        return frames;
+    }
+
+    /**
+     * Подтверждает перенос записей в базу данных до указанного смещения.
+     * <p>
+     * Если подтверждены все записи, журнал усекается до нуля.
+     *
+     * @param offset смещение, до которого записи перенесены
+     * @throws IOException при ошибках записи контрольной точки
+     */
+    public void commit(long offset) throws IOException {
+        writeLock.lock();
+        try {
+            checkpoint = offset;
+            if (checkpoint == writePosition && durablePosition == writePosition) {
+                forceLock.lock();
+                try {
+                    channel.truncate(0);
+                    channel.force(true);
+                    checkpoint = 0;
+                    writePosition = 0;
+                    durablePosition = 0;
+                } finally {
+                    forceLock.unlock();
+                }
+            }
+            writeCheckpoint(checkpoint);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void writeCheckpoint(long value) throws IOException {
+        Path temp = checkpointFile.resolveSibling("intake.checkpoint.tmp");
+        try (FileChannel out = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.write(ByteBuffer.wrap(Long.toString(value).getBytes(StandardCharsets.US_ASCII)));
+            out.force(true);
+        }
+        Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Frame readFrame(long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+        if (readFully(header, offset) < FRAME_HEADER_SIZE) {
+            return null;
+        }
+        header.flip();
+        int length = header.getInt();
+        int expectedCrc = header.getInt();
+        if (length <= 0 || offset + FRAME_HEADER_SIZE + length > channel.size()) {
+            return null;
+        }
+
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        if (readFully(payload, offset + FRAME_HEADER_SIZE) < length) {
+            return null;
+        }
+        byte[] bytes = payload.array();
+        if (crc(bytes) != expectedCrc) {
+            return null;
+        }
+        return new Frame(offset, offset + FRAME_HEADER_SIZE + length, bytes);
+    }
+
+    private int readFully(ByteBuffer buffer, long offset) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload);
+        return (int) crc32.getValue();
+    }
+}
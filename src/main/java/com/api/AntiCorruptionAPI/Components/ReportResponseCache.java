@@ -0,0 +1,344 @@
+package com.api.AntiCorruptionAPI.Components;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Кэш готовых байтов ответа {@code GET /api/reports/{id}}.
+ * <p>
+ * Запись содержит JSON-представление ответа для версии отчета ({@code changeSeq}) и
+ * идентификатор назначенного сотрудника для проверки доступа, поэтому при попадании
+ * не выполняются ни запрос к базе данных, ни сериализация. Если включено сжатие ответов
+ * ({@code app.compression.enabled}), сжатые варианты вычисляются при первом запросе
+ * и хранятся вместе с записью.
+ * <p>
+ * Объем кэша ограничен суммарным размером байтов; при превышении вытесняются давно
+ * не использовавшиеся записи. Любое изменение отчета удаляет его запись после фиксации
+ * транзакции, а ответы, загруженные параллельно с изменением, в кэш не попадают.
+ * Время жизни записи ограничивает устаревание при изменениях, выполненных другими
+ * экземплярами приложения.
+ */
+@Component
+public class ReportResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportResponseCache.class);
+
+    /**
+     * Примерные накладные расходы на запись сверх размера байтов ответа.
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final boolean enabled;
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final List<CompressionCodec> codecs = new ArrayList<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    /**
+     * Номер поколения: увеличивается при каждом изменении отчетов.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    /**
+     * Запись кэша для одной версии отчета.
+     */
+    public static final class Entry {
+        private final Long id;
+        private final long changeSeq;
+        private final Long assignedTo;
+        private final byte[] json;
+        private final long expiresAt;
+        private final Map<CompressionCodec, byte[]> variants = new EnumMap<>(CompressionCodec.class);
+
+        private Entry(Long id, long changeSeq, Long assignedTo, byte[] json, long expiresAt) {
+            this.id = id;
+            this.changeSeq = changeSeq;
+            this.assignedTo = assignedTo;
+            this.json = json;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Номер изменения (версия) отчета.
+         *
+         * @return номер изменения
+         */
+        public long changeSeq() {
+            return changeSeq;
+        }
+
+        /**
+         * Идентификатор назначенного сотрудника для проверки доступа.
+         *
+         * @return идентификатор сотрудника
+         */
+        public Long assignedTo() {
+            return assignedTo;
+        }
+    }
+
+    /**
+     * Тело ответа для отправки клиенту.
+     *
+     * @param bytes    байты ответа
+     * @param encoding кодировка сжатия (null — без сжатия)
+     */
+    public record Body(byte[] bytes, CompressionCodec encoding) {
+    }
+
+    /**
+     * Конструктор с параметрами кэша.
+     *
+     * @param enabled            включен ли кэш
+     * @param maxSize            максимальный суммарный размер записей
+     * @param ttl                время жизни записи
+     * @param compressionEnabled включено ли сжатие ответов
+     * @param encodings          кодировки сжатия в порядке предпочтения сервера
+     * @param meterRegistry      реестр метрик
+     */
+    public ReportResponseCache(@Value("${app.reports.response-cache.enabled:true}") boolean enabled,
+                               @Value("${app.reports.response-cache.max-size:64MB}") DataSize maxSize,
+                               @Value("${app.reports.response-cache.ttl:PT5M}") Duration ttl,
+                               @Value("${app.compression.enabled:false}") boolean compressionEnabled,
+                               @Value("${app.compression.encodings:zstd,br,gzip}") List<String> encodings,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxBytes = maxSize.toBytes();
+        this.ttlNanos = ttl.toNanos();
+        if (compressionEnabled) {
+            for (String encoding : encodings) {
+                CompressionCodec codec = CompressionCodec.fromToken(encoding.trim());
+                if (codec != null && codec.isAvailable()) {
+                    codecs.add(codec);
+                }
+            }
+        }
+
+        this.hits = Counter.builder("app.reports.response-cache.requests")
+                .description("Report response byte cache lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("app.reports.response-cache.requests")
+                .description("Report response byte cache lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("app.reports.response-cache.evictions")
+                .description("Entries evicted to stay within the byte budget")
+                .register(meterRegistry);
+        Gauge.builder("app.reports.response-cache.bytes", this, ReportResponseCache::totalBytes)
+                .description("Bytes held by the report response cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Проверка, включен ли кэш.
+     *
+     * @return true, если кэш включен
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Текущее поколение кэша; считывается до загрузки отчета и передается в {@link #put}.
+     *
+     * @return номер поколения
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Поиск записи отчета.
+     *
+     * @param id идентификатор отчета
+     * @return запись или null, если ее нет или время жизни истекло
+     */
+    public Entry get(Long id) {
+        Entry entry;
+        lock.lock();
+        try {
+            entry = entries.get(id);
+            if (entry != null && entry.expiresAt - System.nanoTime() <= 0) {
+                entries.remove(id);
+                totalBytes -= sizeOf(entry);
+                entry = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        (entry != null ? hits : misses).increment();
+        return entry;
+    }
+
+    /**
+     * Сохранение сериализованного ответа.
+     * Если после {@code loadedGeneration} отчеты изменялись, ответ не сохраняется.
+     *
+     * @param id               идентификатор отчета
+     * @param loadedGeneration поколение, считанное до загрузки отчета
+     * @param changeSeq        номер изменения отчета
+     * @param assignedTo       идентификатор назначенного сотрудника
+     * @param json             JSON-представление ответа
+     * @return новая запись
+     */
+    public Entry put(Long id, long loadedGeneration, long changeSeq, Long assignedTo, byte[] json) {
+        Entry entry = new Entry(id, changeSeq, assignedTo, json, System.nanoTime() + ttlNanos);
+        long size = json.length + ENTRY_OVERHEAD;
+        if (size > maxBytes) {
+            return entry;
+        }
+        lock.lock();
+        try {
+            if (generation.get() != loadedGeneration) {
+                return entry;
+            }
+            Entry previous = entries.put(id, entry);
+            if (previous != null) {
+                totalBytes -= sizeOf(previous);
+            }
+            totalBytes += size;
+            evictOverBudget();
+        } finally {
+            lock.unlock();
+        }
+        return entry;
+    }
+
+    /**
+     * Выбор тела ответа в кодировке, принимаемой клиентом.
+     * Сжатый вариант вычисляется при первом запросе и сохраняется в записи.
+     *
+     * @param entry          запись кэша
+     * @param acceptEncoding значение заголовка {@code Accept-Encoding}
+     * @return тело ответа
+     */
+    public Body body(Entry entry, String acceptEncoding) {
+        CompressionCodec codec = CompressionCodec.negotiate(acceptEncoding, codecs);
+        if (codec == null || entry.json.length < 1024) {
+            return new Body(entry.json, null);
+        }
+
+        lock.lock();
+        try {
+            byte[] variant = entry.variants.get(codec);
+            if (variant != null) {
+                return new Body(variant, codec);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        byte[] compressed;
+        try {
+            compressed = codec.compress(entry.json, codec.defaultLevel());
+        } catch (IOException e) {
+            logger.warn("Failed to compress cached report response with {}", codec.token(), e);
+            return new Body(entry.json, null);
+        }
+
+        lock.lock();
+        try {
+            // Вариант учитывается в объеме, только если запись все еще в кэше
+            if (entries.get(entry.id) == entry
+                    && entry.variants.putIfAbsent(codec, compressed) == null) {
+                totalBytes += compressed.length;
+                evictOverBudget();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return new Body(compressed, codec);
+    }
+
+    /**
+     * Удаление записей измененных отчетов после фиксации текущей транзакции.
+     *
+     * @param ids идентификаторы отчетов
+     */
+    public void invalidate(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> copy = List.copyOf(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(copy);
+                }
+            });
+        } else {
+            remove(copy);
+        }
+    }
+
+    private void remove(List<Long> ids) {
+        lock.lock();
+        try {
+            generation.incrementAndGet();
+            for (Long id : ids) {
+                Entry removed = entries.remove(id);
+                if (removed != null) {
+                    totalBytes -= sizeOf(removed);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictOverBudget() {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            totalBytes -= sizeOf(iterator.next());
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private long totalBytes() {
+        lock.lock();
+        try {
+            return totalBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long sizeOf(Entry entry) {
+        long size = entry.json.length + ENTRY_OVERHEAD;
+        for (byte[] variant : entry.variants.values()) {
+            size += variant.length;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,106 @@
+package com.api.AntiCorruptionAPI.Components;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одинаковых одновременных чтений (single-flight).
+ * <p>
+ * Первый вызов с данным ключом выполняет загрузку, а вызовы с тем же ключом, пришедшие
+ * до ее завершения, ожидают и получают тот же результат. Проверка прав доступа выполняется
+ * вызывающим кодом для каждого вызова отдельно. Результат общий для всех ожидающих,
+ * поэтому изменяемые объекты должны копироваться вызывающим кодом.
+ * <p>
+ * Метрика {@code app.reports.coalescing.calls} с тегами {@code operation} и
+ * {@code result} ({@code executed} — выполненные загрузки, {@code coalesced} — присоединившиеся вызовы).
+ */
+@Component
+public class RequestCoalescer {
+
+    private final boolean enabled;
+    private final MeterRegistry meterRegistry;
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private record Key(String operation, Object key) {
+    }
+
+    /**
+     * Результат вызова.
+     *
+     * @param value     загруженное значение
+     * @param coalesced true, если вызов присоединился к чужой загрузке
+     * @param <T>       тип значения
+     */
+    public record Result<T>(T value, boolean coalesced) {
+    }
+
+    /**
+     * Конструктор с параметрами.
+     *
+     * @param enabled       включено ли объединение вызовов
+     * @param meterRegistry реестр метрик
+     */
+    public RequestCoalescer(@Value("${app.reports.coalescing.enabled:true}") boolean enabled,
+                            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Выполнение загрузки или присоединение к уже выполняющейся с тем же ключом.
+     *
+     * @param operation имя операции (тег метрики)
+     * @param key       ключ загрузки (должен учитывать все параметры запроса)
+     * @param loader    загрузка
+     * @param <T>       тип значения
+     * @return результат загрузки
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Result<T> execute(String operation, Object key, Supplier<T> loader) {
+        if (!enabled) {
+            return new Result<>(loader.get(), false);
+        }
+
+        Key flightKey = new Key(operation, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            counter(operation, "coalesced").increment();
+            try {
+                return new Result<>((T) existing.join(), true);
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw e;
+            }
+        }
+
+        counter(operation, "executed").increment();
+        try {
+            T value = loader.get();
+            flight.complete(value);
+            return new Result<>(value, false);
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    private Counter counter(String operation, String result) {
+        return Counter.builder("app.reports.coalescing.calls")
+                .description("Report reads executed or joined to an identical in-flight read")
+                .tags("operation", operation, "result", result)
+                .register(meterRegistry);
+    }
+}
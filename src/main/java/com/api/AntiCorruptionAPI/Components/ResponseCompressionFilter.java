@@ -0,0 +1,515 @@
+package com.api.AntiCorruptionAPI.Components;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сжатие ответов с согласованием кодировки по заголовку {@code Accept-Encoding}.
+ * <p>
+ * Поддерживаются zstd, brotli и gzip (в порядке предпочтения сервера, с учетом q-значений клиента).
+ * Ответ буферизуется до порога {@code minSize}: короткие ответы отправляются как есть,
+ * а после превышения порога включается потоковое сжатие, поэтому большие списки
+ * не накапливаются в памяти целиком. Сжимаются только текстовые типы содержимого.
+ * Если обработчик запустил асинхронную обработку (например, {@code StreamingResponseBody}),
+ * тело пишется после выхода из цепочки фильтров, поэтому ответ завершается
+ * при повторной асинхронной диспетчеризации запроса.
+ * <p>
+ * Для путей из {@code precompressedPaths} (редко меняющиеся справочники) сжатые варианты
+ * вычисляются один раз с максимальным уровнем и берутся из {@link PrecompressedResponseCache};
+ * такие ответы также получают ETag и поддерживают {@code If-None-Match}.
+ * Запросы к этим путям с параметрами сжимаются потоково и в кэш не попадают.
+ * <p>
+ * Метрики: {@code app.http.compression.bytes.in/out}, {@code app.http.compression.ratio},
+ * {@code app.http.compression.cpu} (процессорное время сжатия) и
+ * {@code app.http.compression.precompressed} (попадания в кэш сжатых вариантов).
+ */
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCompressionFilter.class);
+
+    private static final String SOURCE_STREAM = "stream";
+    private static final String SOURCE_PRECOMPRESSED = "precompressed";
+
+    /**
+     * Атрибут запроса с ответом, который завершается после асинхронной обработки.
+     */
+    private static final String ASYNC_RESPONSE_ATTRIBUTE = ResponseCompressionFilter.class.getName() + ".ASYNC_RESPONSE";
+
+    private final List<CompressionCodec> codecs;
+    private final Map<CompressionCodec, Integer> levels;
+    private final int minSize;
+    private final Set<String> mimeTypes;
+    private final Set<String> precompressedPaths;
+    private final PrecompressedResponseCache precompressedCache;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private final Map<CompressionCodec, Map<String, Meters>> meters = new EnumMap<>(CompressionCodec.class);
+    private final Counter precompressedHits;
+    private final Counter precompressedMisses;
+
+    /**
+     * Метрики одной кодировки и одного источника сжатия.
+     */
+    private record Meters(Counter bytesIn, Counter bytesOut, DistributionSummary ratio, Timer cpu) {
+    }
+
+    /**
+     * Создание фильтра.
+     *
+     * @param encodings          кодировки в порядке предпочтения сервера
+     * @param levels             уровни потокового сжатия (отсутствующие — по умолчанию)
+     * @param minSize            минимальный размер ответа для сжатия в байтах
+     * @param mimeTypes          сжимаемые типы содержимого
+     * @param precompressedPaths пути, ответы которых кэшируются в сжатом виде
+     * @param meterRegistry      реестр метрик
+     */
+    public ResponseCompressionFilter(Collection<CompressionCodec> encodings,
+                                     Map<CompressionCodec, Integer> levels,
+                                     int minSize,
+                                     Set<String> mimeTypes,
+                                     Set<String> precompressedPaths,
+                                     MeterRegistry meterRegistry) {
+        this.codecs = new ArrayList<>();
+        for (CompressionCodec codec : encodings) {
+            if (codec.isAvailable()) {
+                codecs.add(codec);
+            } else {
+                logger.warn("Compression codec {} is not available on this platform", codec.token());
+            }
+        }
+        this.levels = levels;
+        this.minSize = minSize;
+        this.mimeTypes = mimeTypes;
+        this.precompressedPaths = precompressedPaths;
+        this.precompressedCache = new PrecompressedResponseCache(precompressedPaths.size());
+
+        for (CompressionCodec codec : codecs) {
+            Map<String, Meters> bySource = new HashMap<>();
+            for (String source : List.of(SOURCE_STREAM, SOURCE_PRECOMPRESSED)) {
+                bySource.put(source, new Meters(
+                        Counter.builder("app.http.compression.bytes.in")
+                                .description("Uncompressed response bytes")
+                                .tags("encoding", codec.token(), "source", source)
+                                .register(meterRegistry),
+                        Counter.builder("app.http.compression.bytes.out")
+                                .description("Compressed response bytes")
+                                .tags("encoding", codec.token(), "source", source)
+                                .register(meterRegistry),
+                        DistributionSummary.builder("app.http.compression.ratio")
+                                .description("Uncompressed to compressed size ratio")
+                                .tags("encoding", codec.token(), "source", source)
+                                .register(meterRegistry),
+                        Timer.builder("app.http.compression.cpu")
+                                .description("CPU time spent compressing a response")
+                                .tags("encoding", codec.token(), "source", source)
+                                .register(meterRegistry)));
+            }
+            meters.put(codec, bySource);
+        }
+        precompressedHits = Counter.builder("app.http.compression.precompressed")
+                .tag("result", "hit").register(meterRegistry);
+        precompressedMisses = Counter.builder("app.http.compression.precompressed")
+                .tag("result", "miss").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // Повторная диспетчеризация нужна, чтобы завершить сжатие асинхронно записанного тела
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            filterChain.doFilter(request, response);
+            finishIfComplete(request);
+            return;
+        }
+        if ("HEAD".equals(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CompressionCodec codec = CompressionCodec.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING), codecs);
+        if ("GET".equals(request.getMethod()) && request.getQueryString() == null
+                && precompressedPaths.contains(request.getRequestURI())) {
+            servePrecompressed(request, response, filterChain, codec);
+            return;
+        }
+        if (codec == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        CompressingResponse compressing = new CompressingResponse(response, codec);
+        // Атрибут устанавливается до обработки: асинхронная диспетчеризация не начнется раньше выхода из фильтра
+        request.setAttribute(ASYNC_RESPONSE_ATTRIBUTE, compressing);
+        filterChain.doFilter(request, compressing);
+        finishIfComplete(request);
+    }
+
+    /**
+     * Завершение ответа, если обработка запроса (в том числе асинхронная) закончена.
+     *
+     * @param request запрос
+     * @throws IOException при ошибках записи
+     */
+    private void finishIfComplete(HttpServletRequest request) throws IOException {
+        if (request.isAsyncStarted()) {
+            return;
+        }
+        if (request.getAttribute(ASYNC_RESPONSE_ATTRIBUTE) instanceof CompressingResponse compressing) {
+            request.removeAttribute(ASYNC_RESPONSE_ATTRIBUTE);
+            compressing.finish();
+        }
+    }
+
+    private void servePrecompressed(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain, CompressionCodec codec)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper caching = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, caching);
+
+        if (caching.getStatus() != HttpServletResponse.SC_OK
+                || !isCompressible(caching.getContentType())
+                || caching.getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+            caching.copyBodyToResponse();
+            return;
+        }
+
+        byte[] body = caching.getContentAsByteArray();
+        long cpuStart = cpuTime();
+        PrecompressedResponseCache.Variant variant = precompressedCache.get(request.getRequestURI(), body, codec);
+        long cpuNanos = cpuTime() - cpuStart;
+
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.ETAG, variant.etag());
+        if (variant.etag().equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        if (codec != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, codec.token());
+            (variant.computed() ? precompressedMisses : precompressedHits).increment();
+            record(codec, SOURCE_PRECOMPRESSED, body.length, variant.body().length, variant.computed() ? cpuNanos : 0);
+        }
+        response.setContentLength(variant.body().length);
+        response.getOutputStream().write(variant.body());
+    }
+
+    private boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int separator = contentType.indexOf(';');
+        String mimeType = (separator >= 0 ? contentType.substring(0, separator) : contentType).trim().toLowerCase(Locale.ROOT);
+        return mimeTypes.contains(mimeType) || mimeType.endsWith("+json");
+    }
+
+    private void record(CompressionCodec codec, String source, long bytesIn, long bytesOut, long cpuNanos) {
+        Meters codecMeters = meters.get(codec).get(source);
+        codecMeters.bytesIn().increment(bytesIn);
+        codecMeters.bytesOut().increment(bytesOut);
+        if (bytesOut > 0) {
+            codecMeters.ratio().record((double) bytesIn / bytesOut);
+        }
+        if (cpuNanos > 0) {
+            codecMeters.cpu().record(cpuNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private long cpuTime() {
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * Ответ, который буферизует начало тела и после превышения порога переключается
+     * на потоковое сжатие (или на прямую запись, если тип содержимого не сжимается).
+     */
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+
+        private final CompressionCodec codec;
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        private ServletOutputStream stream;
+        private PrintWriter writer;
+
+        private boolean decided;
+        private OutputStream target;
+        private OutputStream compressor;
+        private long declaredLength = -1;
+        private long bytesIn;
+        private long bytesOut;
+        private long cpuNanos;
+
+        private CompressingResponse(HttpServletResponse response, CompressionCodec codec) {
+            super(response);
+            this.codec = codec;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            return outputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (stream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called");
+                }
+                writer = new PrintWriter(new OutputStreamWriter(outputStream(), Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            // Длина известна только после сжатия; для несжатого ответа она будет передана при решении
+            declaredLength = len;
+            if (decided && compressor == null) {
+                super.setContentLengthLong(len);
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value != null ? Long.parseLong(value) : -1);
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+            } else {
+                super.setIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+            } else {
+                super.addIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            // До принятия решения о сжатии сброс откладывается
+            if (decided) {
+                target.flush();
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (!decided) {
+                pending.reset();
+                bytesIn = 0;
+            }
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            if (!decided) {
+                pending.reset();
+                bytesIn = 0;
+                declaredLength = -1;
+            }
+            super.reset();
+        }
+
+        private ServletOutputStream outputStream() {
+            if (stream == null) {
+                stream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        write(new byte[]{(byte) b}, 0, 1);
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        onWrite(b, off, len);
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        if (decided) {
+                            target.flush();
+                        }
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        throw new UnsupportedOperationException("Non-blocking writes are not supported");
+                    }
+                };
+            }
+            return stream;
+        }
+
+        private void onWrite(byte[] b, int off, int len) throws IOException {
+            bytesIn += len;
+            if (!decided) {
+                pending.write(b, off, len);
+                if (pending.size() >= minSize) {
+                    decide(shouldCompress());
+                }
+                return;
+            }
+            if (compressor != null) {
+                long start = cpuTime();
+                compressor.write(b, off, len);
+                cpuNanos += cpuTime() - start;
+            } else {
+                target.write(b, off, len);
+            }
+        }
+
+        private boolean shouldCompress() {
+            int status = getStatus();
+            return status != HttpServletResponse.SC_NO_CONTENT
+                    && status != HttpServletResponse.SC_PARTIAL_CONTENT
+                    && status != HttpServletResponse.SC_NOT_MODIFIED
+                    && getHeader(HttpHeaders.CONTENT_ENCODING) == null
+                    && isCompressible(getContentType());
+        }
+
+        private void decide(boolean compress) throws IOException {
+            decided = true;
+            OutputStream raw = super.getOutputStream();
+            if (compress) {
+                super.setHeader(HttpHeaders.CONTENT_ENCODING, codec.token());
+                super.setContentLengthLong(-1);
+                // Поток-счетчик не закрывает поток сервлета при завершении сжатия
+                target = new OutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        raw.write(b);
+                        bytesOut++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        raw.write(b, off, len);
+                        bytesOut += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        raw.flush();
+                    }
+                };
+                long start = cpuTime();
+                compressor = codec.wrap(target, levels.getOrDefault(codec, codec.defaultLevel()));
+                pending.writeTo(compressor);
+                cpuNanos += cpuTime() - start;
+                target = compressor;
+            } else {
+                if (declaredLength >= 0) {
+                    super.setContentLengthLong(declaredLength);
+                }
+                target = raw;
+                pending.writeTo(raw);
+            }
+            pending.reset();
+        }
+
+        /**
+         * Завершение ответа: отправка буфера или окончание сжатого потока.
+         *
+         * @throws IOException при ошибках записи
+         */
+        private void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (!decided) {
+                // Короткий ответ уходит без сжатия с точной длиной
+                decided = true;
+                target = super.getOutputStream();
+                if (!isCommitted()) {
+                    super.setContentLengthLong(pending.size());
+                }
+                if (pending.size() > 0) {
+                    pending.writeTo(target);
+                    pending.reset();
+                }
+                return;
+            }
+            if (compressor != null) {
+                long start = cpuTime();
+                compressor.close();
+                cpuNanos += cpuTime() - start;
+                record(codec, SOURCE_STREAM, bytesIn, bytesOut, cpuNanos);
+            }
+        }
+    }
+}
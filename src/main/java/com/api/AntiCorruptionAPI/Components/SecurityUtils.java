@@ -37,4 +37,20 @@ public class SecurityUtils {
                         authority.equals("AccessToAllReports")
                 );
     }
-}
\ No newline at end of file
+
+    /**
+     * Проверяет наличие у текущего пользователя указанного права.
+     *
+     * @param authority имя права
+     * @return true, если право есть, false в противном случае или при отсутствии аутентификации
+     */
+    public boolean hasAuthority(String authority) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return false;
+        }
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(authority::equals);
+    }
+}
@@ -0,0 +1,125 @@
+package com.api.AntiCorruptionAPI.Components;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Перенос фотографий сотрудников из столбца {@code users.photo} в таблицу {@code user_photos}.
+ * <p>
+ * Перенос выполняется в два этапа, чтобы не ломать экземпляры предыдущей версии при
+ * последовательном обновлении и оставлять возможность отката:
+ * <ol>
+ *     <li>Копирование (при каждом запуске): фотографии пользователей, которых еще нет в
+ *     {@code user_photos}, копируются туда; старый столбец и большие объекты не изменяются.</li>
+ *     <li>Удаление старого столбца — только при {@code app.users.photos.drop-legacy-column=true},
+ *     которое включается в следующем выпуске, когда экземпляров старой версии не осталось.
+ *     Перед удалением копирование выполняется еще раз, затем большие объекты PostgreSQL освобождаются.</li>
+ * </ol>
+ * Пока старый столбец существует, удаление фотографии очищает и его ({@link #clearLegacyPhoto(Long)}),
+ * иначе удаленная фотография была бы скопирована повторно при следующем запуске.
+ * Тип содержимого не переносится и определяется при первом обращении.
+ * Зависит от {@link EntityManagerFactory}, чтобы выполняться после обновления схемы Hibernate.
+ */
+@Component
+public class UserPhotoMigration {
+
+    /**
+     * Логгер для записи информации о переносе.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(UserPhotoMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean dropLegacyColumn;
+
+    /**
+     * Тип старого столбца {@code users.photo} или null, если столбца нет.
+     */
+    private volatile String legacyColumnType;
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param jdbcTemplate         шаблон для выполнения SQL-запросов
+     * @param transactionTemplate  шаблон транзакций
+     * @param entityManagerFactory фабрика менеджеров сущностей (гарантирует готовность схемы)
+     * @param dropLegacyColumn     удалить старый столбец после копирования
+     */
+    public UserPhotoMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                              EntityManagerFactory entityManagerFactory,
+                              @Value("${app.users.photos.drop-legacy-column:false}") boolean dropLegacyColumn) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.dropLegacyColumn = dropLegacyColumn;
+    }
+
+    /**
+     * Копирует фотографии, если в таблице пользователей остался старый столбец,
+     * и удаляет столбец, если это явно разрешено.
+     */
+    @PostConstruct
+    public void migrate() {
+        String columnType = jdbcTemplate.query(
+                "SELECT data_type FROM information_schema.columns " +
+                        "WHERE table_schema = current_schema() AND table_name = 'users' AND column_name = 'photo'",
+                resultSet -> resultSet.next() ? resultSet.getString(1) : null);
+        if (columnType == null) {
+            return;
+        }
+        legacyColumnType = columnType;
+
+        // Hibernate хранил @Lob byte[] как большой объект (oid); bytea поддерживается на случай ручной схемы
+        boolean largeObject = "oid".equals(columnType);
+        String bytes = largeObject ? "lo_get(u.photo)" : "u.photo";
+
+        Integer copied = transactionTemplate.execute(status -> {
+            // Фотографии, загруженные через новую версию, не перезаписываются старыми
+            int count = jdbcTemplate.update(
+                    "INSERT INTO user_photos (user_id, data, size_bytes, etag, updated_at) " +
+                            "SELECT u.id, " + bytes + ", length(" + bytes + "), md5(" + bytes + "), now() " +
+                            "FROM users u WHERE u.photo IS NOT NULL " +
+                            "AND NOT EXISTS (SELECT 1 FROM user_photos p WHERE p.user_id = u.id) " +
+                            "ON CONFLICT (user_id) DO NOTHING");
+            if (dropLegacyColumn) {
+                if (largeObject) {
+                    jdbcTemplate.query("SELECT lo_unlink(photo) FROM users WHERE photo IS NOT NULL", resultSet -> {
+                    });
+                }
+                jdbcTemplate.execute("ALTER TABLE users DROP COLUMN photo");
+            }
+            return count;
+        });
+        if (dropLegacyColumn) {
+            legacyColumnType = null;
+        }
+
+        if (dropLegacyColumn) {
+            logger.info("Copied {} user photos to user_photos and dropped users.photo", copied);
+        } else if (copied != null && copied > 0) {
+            logger.info("Copied {} user photos to user_photos; users.photo is kept until app.users.photos.drop-legacy-column=true", copied);
+        }
+    }
+
+    /**
+     * Очистка старого столбца фотографии пользователя, если столбец еще существует.
+     *
+     * @param userId идентификатор пользователя
+     */
+    public void clearLegacyPhoto(Long userId) {
+        String columnType = legacyColumnType;
+        if (columnType == null) {
+            return;
+        }
+        if ("oid".equals(columnType)) {
+            jdbcTemplate.query("SELECT lo_unlink(photo) FROM users WHERE id = ? AND photo IS NOT NULL", resultSet -> {
+            }, userId);
+        }
+        jdbcTemplate.update("UPDATE users SET photo = NULL WHERE id = ? AND photo IS NOT NULL", userId);
+    }
+}
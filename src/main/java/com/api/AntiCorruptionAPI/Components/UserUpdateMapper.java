@@ -0,0 +1,179 @@
+package com.api.AntiCorruptionAPI.Components;
+
+import com.api.AntiCorruptionAPI.Models.User;
+import com.api.AntiCorruptionAPI.Requests.UserUpdateRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Копирование заполненных полей {@link UserUpdateRequest} в {@link User}.
+ * <p>
+ * Пары "геттер запроса — сеттер пользователя" определяются один раз при создании компонента
+ * и компилируются через {@link LambdaMetafactory} в обычные функциональные объекты, поэтому
+ * обновление пользователя не использует рефлексию и не создает промежуточных объектов.
+ * Поддерживается преобразование {@link Date} в {@link LocalDate}.
+ * <p>
+ * Пароль, группы и фотография не копируются: для них предусмотрены отдельные механизмы
+ * (хэширование пароля, проверка групп, сервис фотографий).
+ */
+@Component
+public class UserUpdateMapper {
+
+    /**
+     * Логгер для записи полей, которые не удалось сопоставить.
+     */
+    private static final Logger logger = LoggerFactory.getLogger(UserUpdateMapper.class);
+
+    /**
+     * Свойства запроса, которые не копируются напрямую.
+     */
+    private static final Set<String> EXCLUDED_PROPERTIES = Set.of("Class", "Password", "Groups", "Photo");
+
+    private final FieldCopier[] copiers;
+
+    /**
+     * Копирование одного свойства.
+     *
+     * @param name      имя свойства
+     * @param getter    геттер запроса
+     * @param converter преобразование значения (null — без преобразования)
+     * @param setter    сеттер пользователя
+     */
+    private record FieldCopier(String name,
+                               Function<UserUpdateRequest, Object> getter,
+                               Function<Object, Object> converter,
+                               BiConsumer<User, Object> setter) {
+    }
+
+    /**
+     * Создает копировщики для всех сопоставимых свойств.
+     */
+    public UserUpdateMapper() {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<FieldCopier> result = new ArrayList<>();
+
+        for (Method getter : UserUpdateRequest.class.getMethods()) {
+            String getterName = getter.getName();
+            if (!getterName.startsWith("get") || getter.getParameterCount() != 0
+                    || Modifier.isStatic(getter.getModifiers())) {
+                continue;
+            }
+            String property = getterName.substring(3);
+            if (EXCLUDED_PROPERTIES.contains(property)) {
+                continue;
+            }
+
+            Method setter = findSetter("set" + property, getter.getReturnType());
+            if (setter == null) {
+                logger.warn("No compatible User setter for UserUpdateRequest.{}", getterName);
+                continue;
+            }
+
+            try {
+                result.add(new FieldCopier(
+                        property,
+                        compileGetter(lookup, getter),
+                        converter(getter.getReturnType(), setter.getParameterTypes()[0]),
+                        compileSetter(lookup, setter)));
+            } catch (Throwable e) {
+                throw new IllegalStateException("Unable to compile mapping for " + property, e);
+            }
+        }
+        this.copiers = result.toArray(FieldCopier[]::new);
+    }
+
+    /**
+     * Копирует в пользователя все непустые поля запроса.
+     *
+     * @param request запрос на обновление
+     * @param user    обновляемый пользователь
+     */
+    public void apply(UserUpdateRequest request, User user) {
+        for (FieldCopier copier : copiers) {
+            Object value = copier.getter().apply(request);
+            if (value != null) {
+                copier.setter().accept(user, copier.converter() != null ? copier.converter().apply(value) : value);
+            }
+        }
+    }
+
+    /**
+     * Имена копируемых свойств (для диагностики).
+     *
+     * @return список имен свойств
+     */
+    public List<String> mappedProperties() {
+        List<String> names = new ArrayList<>(copiers.length);
+        for (FieldCopier copier : copiers) {
+            names.add(copier.name());
+        }
+        return names;
+    }
+
+    private static Method findSetter(String name, Class<?> sourceType) {
+        for (Method method : User.class.getMethods()) {
+            if (method.getName().equals(name) && method.getParameterCount() == 1) {
+                Class<?> targetType = method.getParameterTypes()[0];
+                if (targetType.isAssignableFrom(sourceType) || converter(sourceType, targetType) != null) {
+                    return method;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Function<Object, Object> converter(Class<?> sourceType, Class<?> targetType) {
+        if (Date.class.isAssignableFrom(sourceType) && targetType == LocalDate.class) {
+            // Jackson разбирает даты без времени как полночь UTC
+            return value -> value instanceof java.sql.Date sqlDate
+                    ? sqlDate.toLocalDate()
+                    : ((Date) value).toInstant().atZone(ZoneOffset.UTC).toLocalDate();
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<UserUpdateRequest, Object> compileGetter(MethodHandles.Lookup lookup, Method getter)
+            throws Throwable {
+        MethodHandle handle = lookup.unreflect(getter);
+        CallSite site = LambdaMetafactory.metafactory(
+                lookup,
+                "apply",
+                MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class),
+                handle,
+                handle.type().wrap());
+        return (Function<UserUpdateRequest, Object>) site.getTarget().invoke();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<User, Object> compileSetter(MethodHandles.Lookup lookup, Method setter)
+            throws Throwable {
+        MethodHandle handle = lookup.unreflect(setter);
+        CallSite site = LambdaMetafactory.metafactory(
+                lookup,
+                "accept",
+                MethodType.methodType(BiConsumer.class),
+                MethodType.methodType(void.class, Object.class, Object.class),
+                handle,
+                handle.type().wrap().changeReturnType(void.class));
+        return (BiConsumer<User, Object>) site.getTarget().invoke();
+    }
+}
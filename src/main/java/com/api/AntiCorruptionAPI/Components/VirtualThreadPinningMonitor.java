@@ -0,0 +1,157 @@
+package com.api.AntiCorruptionAPI.Components;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Диагностика закрепления виртуальных потоков за несущими потоками.
+ * <p>
+ * Если виртуальный поток блокируется внутри {@code synchronized} (например, в коде драйвера JDBC
+ * или в собственных мониторах приложения), он не освобождает несущий поток, и пул несущих
+ * потоков перестает масштабироваться. Компонент подписывается на событие JFR
+ * {@code jdk.VirtualThreadPinned}, считает такие события в метриках
+ * {@code app.threads.virtual.pinned} и один раз записывает в журнал стек для каждого
+ * нового места закрепления. Верхние кадры стека всегда принадлежат JDK (парковка потока),
+ * поэтому местом закрепления считается первый кадр вне пакетов JDK.
+ * <p>
+ * Работает только в режиме виртуальных потоков ({@code spring.threads.virtual.enabled=true}).
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "app.threads.pinning-monitor.enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    /**
+     * Количество кадров стека, записываемых в журнал.
+     */
+    private static final int LOGGED_FRAMES = 12;
+
+    /**
+     * Ограничение количества различных мест закрепления, для которых ведется журнал.
+     */
+    private static final int MAX_REPORTED_SITES = 1000;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private Counter pinnedCounter;
+    private Timer pinnedTimer;
+    private RecordingStream stream;
+
+    /**
+     * Конструктор с параметрами диагностики.
+     *
+     * @param meterRegistry реестр метрик
+     * @param threshold     минимальная длительность закрепления, о которой сообщает JFR
+     */
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${app.threads.pinning-monitor.threshold:PT0.02S}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Запуск потока событий JFR.
+     */
+    @PostConstruct
+    public void start() {
+        pinnedCounter = Counter.builder("app.threads.virtual.pinned")
+                .description("Virtual thread pinned events longer than the configured threshold")
+                .register(meterRegistry);
+        pinnedTimer = Timer.builder("app.threads.virtual.pinned.duration")
+                .description("Duration of virtual thread pinning")
+                .register(meterRegistry);
+
+        try {
+            stream = new RecordingStream();
+            stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(PINNED_EVENT, this::onPinned);
+            stream.startAsync();
+            logger.info("Virtual thread pinning monitor started (threshold {} ms)", threshold.toMillis());
+        } catch (Exception e) {
+            // JFR может быть недоступен (например, в урезанном образе JRE)
+            logger.warn("Virtual thread pinning monitor is not available: {}", e.getMessage());
+            stream = null;
+        }
+    }
+
+    /**
+     * Остановка потока событий JFR.
+     */
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        pinnedTimer.record(event.getDuration());
+
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null) {
+            return;
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        int siteIndex = siteIndex(frames);
+        String site = frames.isEmpty() ? "unknown" : describe(frames.get(siteIndex));
+        if (reportedSites.size() >= MAX_REPORTED_SITES || !reportedSites.add(site)) {
+            return;
+        }
+
+        StringBuilder trace = new StringBuilder();
+        for (int i = siteIndex; i < Math.min(siteIndex + LOGGED_FRAMES, frames.size()); i++) {
+            trace.append("\n\tat ").append(describe(frames.get(i)));
+        }
+        logger.warn("Virtual thread pinned for {} ms at a new site:{}", event.getDuration().toMillis(), trace);
+    }
+
+    /**
+     * Индекс первого кадра вне пакетов JDK или 0, если весь стек принадлежит JDK.
+     */
+    private static int siteIndex(List<RecordedFrame> frames) {
+        for (int i = 0; i < frames.size(); i++) {
+            RecordedFrame frame = frames.get(i);
+            if (!frame.isJavaFrame()) {
+                continue;
+            }
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static String describe(RecordedFrame frame) {
+        if (!frame.isJavaFrame()) {
+            return "<native>";
+        }
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,49 @@
+package com.api.AntiCorruptionAPI.Configurations;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Конфигурация двоичных форматов ответов и запросов: CBOR ({@code application/cbor})
+ * и Smile ({@code application/x-jackson-smile}).
+ * <p>
+ * Формат выбирается по заголовкам {@code Accept} и {@code Content-Type}; без них по-прежнему
+ * используется JSON. Преобразователи строятся из того же {@link Jackson2ObjectMapperBuilder},
+ * что и JSON-преобразователь Spring Boot, поэтому набор полей, формат дат и перечислений
+ * в {@code ServiceResponse} совпадают. Преобразователи Spring MVC по умолчанию для этих форматов
+ * создаются без настроек {@code spring.jackson.*} и здесь заменяются.
+ * <p>
+ * Отключается свойством {@code app.http.binary-formats.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.http.binary-formats.enabled", havingValue = "true", matchIfMissing = true)
+public class BinaryFormatsConfig {
+
+    /**
+     * Преобразователь CBOR.
+     *
+     * @param builder построитель ObjectMapper с настройками приложения
+     * @return преобразователь CBOR
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Преобразователь Smile.
+     *
+     * @param builder построитель ObjectMapper с настройками приложения
+     * @return преобразователь Smile
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
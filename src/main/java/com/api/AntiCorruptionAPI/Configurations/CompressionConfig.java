@@ -0,0 +1,75 @@
+package com.api.AntiCorruptionAPI.Configurations;
+
+import com.api.AntiCorruptionAPI.Components.CompressionCodec;
+import com.api.AntiCorruptionAPI.Components.ResponseCompressionFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Конфигурация сжатия HTTP-ответов.
+ * <p>
+ * Используется собственный фильтр вместо {@code server.compression}: встроенное сжатие Tomcat
+ * поддерживает только gzip и не публикует метрики степени сжатия и затрат процессора.
+ * <p>
+ * Включается свойством {@code app.compression.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.compression.enabled", havingValue = "true")
+public class CompressionConfig {
+
+    /**
+     * Фильтр сжатия ответов.
+     *
+     * @param encodings          кодировки в порядке предпочтения сервера
+     * @param gzipLevel          уровень потокового сжатия gzip (-1 — по умолчанию)
+     * @param brotliLevel        уровень потокового сжатия brotli
+     * @param zstdLevel          уровень потокового сжатия zstd
+     * @param minSize            минимальный размер ответа для сжатия в байтах
+     * @param mimeTypes          сжимаемые типы содержимого
+     * @param precompressedPaths пути, ответы которых кэшируются в сжатом виде
+     * @param meterRegistry      реестр метрик
+     * @return фильтр сжатия
+     */
+    @Bean
+    public ResponseCompressionFilter responseCompressionFilter(
+            @Value("${app.compression.encodings:zstd,br,gzip}") List<String> encodings,
+            @Value("${app.compression.level.gzip:-1}") int gzipLevel,
+            @Value("${app.compression.level.br:4}") int brotliLevel,
+            @Value("${app.compression.level.zstd:3}") int zstdLevel,
+            @Value("${app.compression.min-size:1024}") int minSize,
+            @Value("${app.compression.mime-types:application/json}") List<String> mimeTypes,
+            @Value("${app.compression.precompressed-paths:}") List<String> precompressedPaths,
+            MeterRegistry meterRegistry) {
+        List<CompressionCodec> codecs = new ArrayList<>();
+        for (String encoding : encodings) {
+            CompressionCodec codec = CompressionCodec.fromToken(encoding.trim());
+            if (codec == null) {
+                throw new IllegalArgumentException("Unknown compression encoding: " + encoding);
+            }
+            codecs.add(codec);
+        }
+
+        Map<CompressionCodec, Integer> levels = new EnumMap<>(CompressionCodec.class);
+        levels.put(CompressionCodec.GZIP, gzipLevel);
+        levels.put(CompressionCodec.BROTLI, brotliLevel);
+        levels.put(CompressionCodec.ZSTD, zstdLevel);
+
+        Set<String> types = new HashSet<>();
+        mimeTypes.forEach(type -> types.add(type.trim().toLowerCase(Locale.ROOT)));
+        Set<String> paths = new HashSet<>();
+        precompressedPaths.stream().map(String::trim).filter(path -> !path.isEmpty()).forEach(paths::add);
+
+        return new ResponseCompressionFilter(codecs, levels, minSize, types, paths, meterRegistry);
+    }
+}
@@ -0,0 +1,41 @@
+package com.api.AntiCorruptionAPI.Configurations;
+
+import graphql.analysis.MaxQueryComplexityInstrumentation;
+import graphql.analysis.MaxQueryDepthInstrumentation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация ограничений GraphQL API.
+ * <p>
+ * Запросы, превышающие допустимую глубину вложенности или сложность
+ * (количество запрашиваемых полей), отклоняются до выполнения.
+ */
+@Configuration
+public class GraphQLConfig {
+
+    /**
+     * Ограничение глубины вложенности запроса.
+     *
+     * @param maxDepth максимальная глубина
+     * @return инструментирование graphql-java
+     */
+    @Bean
+    public MaxQueryDepthInstrumentation maxQueryDepthInstrumentation(
+            @Value("${app.graphql.max-depth:6}") int maxDepth) {
+        return new MaxQueryDepthInstrumentation(maxDepth);
+    }
+
+    /**
+     * Ограничение сложности запроса.
+     *
+     * @param maxComplexity максимальная сложность
+     * @return инструментирование graphql-java
+     */
+    @Bean
+    public MaxQueryComplexityInstrumentation maxQueryComplexityInstrumentation(
+            @Value("${app.graphql.max-complexity:200}") int maxComplexity) {
+        return new MaxQueryComplexityInstrumentation(maxComplexity);
+    }
+}
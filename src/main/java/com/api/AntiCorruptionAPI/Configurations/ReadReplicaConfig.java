@@ -0,0 +1,114 @@
+package com.api.AntiCorruptionAPI.Configurations;
+
+import com.api.AntiCorruptionAPI.Components.ConsistencyTokenFilter;
+import com.api.AntiCorruptionAPI.Components.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Конфигурация чтения с реплик PostgreSQL.
+ * <p>
+ * Заменяет источник данных приложения маршрутизирующим: транзакции только для чтения
+ * выполняются на репликах, запись — на основном сервере. Состояние реплик периодически
+ * опрашивается, отстающие и недоступные реплики исключаются из маршрутизации.
+ * <p>
+ * Включается свойством {@code app.datasource.replicas.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    /**
+     * Маршрутизирующий источник данных приложения.
+     * <p>
+     * Пул основного сервера настраивается стандартными свойствами {@code spring.datasource.hikari.*},
+     * как и без реплик, поэтому включение реплик не меняет его размер и тайм-ауты.
+     *
+     * @param connectionDetails параметры подключения к основному серверу
+     * @param environment       окружение (свойства пула основного сервера)
+     * @param replicaUrls       JDBC URL реплик
+     * @param replicaUsername   имя пользователя реплик (по умолчанию — как у основного сервера)
+     * @param replicaPassword   пароль реплик (по умолчанию — как у основного сервера)
+     * @param maxPoolSize       размер пула соединений каждой реплики
+     * @return источник данных с отложенным получением соединения
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(JdbcConnectionDetails connectionDetails,
+                                 Environment environment,
+                                 @Value("${app.datasource.replicas.urls}") List<String> replicaUrls,
+                                 @Value("${app.datasource.replicas.username:}") String replicaUsername,
+                                 @Value("${app.datasource.replicas.password:}") String replicaPassword,
+                                 @Value("${app.datasource.replicas.max-pool-size:10}") int maxPoolSize) {
+        HikariDataSource primary = new HikariDataSource();
+        primary.setPoolName("primary");
+        primary.setJdbcUrl(connectionDetails.getJdbcUrl());
+        primary.setUsername(connectionDetails.getUsername());
+        primary.setPassword(connectionDetails.getPassword());
+        primary.setDriverClassName(connectionDetails.getDriverClassName());
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        String username = StringUtils.hasText(replicaUsername) ? replicaUsername : connectionDetails.getUsername();
+        String password = StringUtils.hasText(replicaPassword) ? replicaPassword : connectionDetails.getPassword();
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            String name = "replica-" + (i + 1);
+            HikariDataSource replica = pool(name, replicaUrls.get(i).trim(), username, password, maxPoolSize);
+            replica.setReadOnly(true);
+            replicas.put(name, replica);
+        }
+
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicas);
+        routingDataSource.afterPropertiesSet();
+        routingDataSource.refreshReplicaState();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Фильтр, принимающий маркер согласованности чтения от клиента.
+     *
+     * @return фильтр маркера согласованности
+     */
+    @Bean
+    public ConsistencyTokenFilter consistencyTokenFilter() {
+        return new ConsistencyTokenFilter();
+    }
+
+    /**
+     * Периодический опрос позиции воспроизведения WAL на репликах.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.lag-check-interval-ms:200}")
+    public void refreshReplicaState() {
+        if (routingDataSource != null) {
+            routingDataSource.refreshReplicaState();
+        }
+    }
+
+    private static HikariDataSource pool(String name, String url, String username, String password, int maxPoolSize) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(maxPoolSize);
+        return dataSource;
+    }
+}
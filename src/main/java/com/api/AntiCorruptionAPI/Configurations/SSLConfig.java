@@ -2,13 +2,22 @@ package com.api.AntiCorruptionAPI.Configurations;
 
 import org.apache.catalina.Context;
 import org.apache.catalina.connector.Connector;
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.apache.coyote.http2.Http2Protocol;
 import org.apache.tomcat.util.descriptor.web.SecurityCollection;
 import org.apache.tomcat.util.descriptor.web.SecurityConstraint;
+import org.apache.tomcat.util.net.SSLHostConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
 import org.springframework.boot.web.servlet.server.ServletWebServerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 /**
  * Конфигурация SSL (Secure Sockets Layer) для обеспечения безопасного
  * HTTP-соединения в приложении.
@@ -20,10 +29,70 @@ import org.springframework.context.annotation.Configuration;
  * - Принудительное использование HTTPS
  * - Перенаправление HTTP-запросов на защищенный порт
  * - Установка Constraint безопасности для всех эндпоинтов
+ * - Настраиваемый профиль TLS-коннектора: HTTP/2, возобновление TLS-сессий,
+ *   порядок шифров и keep-alive ({@code app.server.tls-tuning.*})
  */
 @Configuration
 public class SSLConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(SSLConfig.class);
+
+    /**
+     * Порт HTTPS-коннектора, на который перенаправляются HTTP-запросы.
+     */
+    @Value("${server.port:8443}")
+    private int httpsPort;
+
+    /**
+     * Включение настроенного профиля TLS-коннектора (false — коннектор по умолчанию).
+     */
+    @Value("${app.server.tls-tuning.enabled:false}")
+    private boolean tlsTuningEnabled;
+
+    /**
+     * Версии протокола TLS в формате Tomcat.
+     */
+    @Value("${app.server.tls-tuning.protocols:TLSv1.3+TLSv1.2}")
+    private String tlsProtocols;
+
+    /**
+     * Шифры в порядке предпочтения сервера (имена OpenSSL).
+     */
+    @Value("${app.server.tls-tuning.ciphers:TLS_AES_128_GCM_SHA256:TLS_AES_256_GCM_SHA384:TLS_CHACHA20_POLY1305_SHA256:"
+            + "ECDHE-ECDSA-AES128-GCM-SHA256:ECDHE-RSA-AES128-GCM-SHA256:ECDHE-ECDSA-AES256-GCM-SHA384:"
+            + "ECDHE-RSA-AES256-GCM-SHA384:ECDHE-ECDSA-CHACHA20-POLY1305:ECDHE-RSA-CHACHA20-POLY1305}")
+    private String tlsCiphers;
+
+    /**
+     * Размер кэша TLS-сессий для возобновления без полного рукопожатия.
+     */
+    @Value("${app.server.tls-tuning.session-cache-size:20480}")
+    private int sessionCacheSize;
+
+    /**
+     * Время жизни TLS-сессии в кэше.
+     */
+    @Value("${app.server.tls-tuning.session-timeout:PT1H}")
+    private Duration sessionTimeout;
+
+    /**
+     * Время ожидания следующего запроса в открытом соединении.
+     */
+    @Value("${app.server.tls-tuning.keep-alive-timeout:PT60S}")
+    private Duration keepAliveTimeout;
+
+    /**
+     * Максимальное количество запросов в одном HTTP/1.1-соединении (-1 — без ограничения).
+     */
+    @Value("${app.server.tls-tuning.max-keep-alive-requests:1000}")
+    private int maxKeepAliveRequests;
+
+    /**
+     * Максимальное количество одновременных потоков HTTP/2 в соединении.
+     */
+    @Value("${app.server.tls-tuning.http2-max-concurrent-streams:128}")
+    private int http2MaxConcurrentStreams;
+
     /**
      * Настройка ServletWebServerFactory для конфигурации Tomcat с SSL.
      * <p>
@@ -55,16 +124,62 @@ public class SSLConfig {
 
         // Добавление коннектора для перенаправления HTTP на HTTPS
         tomcat.addAdditionalTomcatConnectors(redirectConnector());
+
+        // Настроенный профиль применяется только к основному (HTTPS) коннектору
+        if (tlsTuningEnabled) {
+            tomcat.addConnectorCustomizers(this::tuneTlsConnector);
+        }
         return tomcat;
     }
 
+    /**
+     * Настройка основного коннектора: HTTP/2 через ALPN, кэш TLS-сессий,
+     * порядок шифров сервера и параметры keep-alive.
+     * <p>
+     * Вызывается после применения настроек {@code server.ssl.*}, поэтому
+     * конфигурация TLS уже создана и здесь только уточняется.
+     *
+     * @param connector основной коннектор
+     */
+    private void tuneTlsConnector(Connector connector) {
+        if (connector.getProtocolHandler() instanceof AbstractHttp11Protocol<?> protocol) {
+            protocol.setKeepAliveTimeout((int) keepAliveTimeout.toMillis());
+            protocol.setMaxKeepAliveRequests(maxKeepAliveRequests);
+
+            for (SSLHostConfig sslHostConfig : protocol.findSslHostConfigs()) {
+                sslHostConfig.setProtocols(tlsProtocols);
+                sslHostConfig.setCiphers(tlsCiphers);
+                sslHostConfig.setHonorCipherOrder(true);
+                sslHostConfig.setSessionCacheSize(sessionCacheSize);
+                sslHostConfig.setSessionTimeout((int) sessionTimeout.toSeconds());
+            }
+        }
+
+        // HTTP/2 мог быть уже включен через server.http2.enabled
+        Http2Protocol http2 = null;
+        for (UpgradeProtocol upgradeProtocol : connector.findUpgradeProtocols()) {
+            if (upgradeProtocol instanceof Http2Protocol existing) {
+                http2 = existing;
+            }
+        }
+        if (http2 == null) {
+            http2 = new Http2Protocol();
+            connector.addUpgradeProtocol(http2);
+        }
+        http2.setKeepAliveTimeout(keepAliveTimeout.toMillis());
+        http2.setMaxConcurrentStreams(http2MaxConcurrentStreams);
+
+        logger.info("TLS connector tuning enabled: protocols {}, HTTP/2, session cache {}, keep-alive {} ms",
+                tlsProtocols, sessionCacheSize, keepAliveTimeout.toMillis());
+    }
+
     /**
      * Создание коннектора для перенаправления HTTP-запросов.
      * <p>
      * Настройки коннектора:
      * - Протокол: HTTP
      * - Входящий порт: 8080
-     * - Порт перенаправления: 8443 (HTTPS)
+     * - Порт перенаправления: порт HTTPS-коннектора ({@code server.port})
      *
      * @return Настроенный Connector для перенаправления
      */
@@ -76,7 +191,7 @@ public class SSLConfig {
         connector.setScheme("http");
         connector.setPort(8080);
         connector.setSecure(false);
-        connector.setRedirectPort(8443);
+        connector.setRedirectPort(httpsPort);
 
         return connector;
     }
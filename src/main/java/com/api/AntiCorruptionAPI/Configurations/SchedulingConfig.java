@@ -0,0 +1,16 @@
+package com.api.AntiCorruptionAPI.Configurations;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Конфигурация планировщика фоновых задач.
+ * <p>
+ * Включает выполнение методов, помеченных {@code @Scheduled}
+ * (например, перенос отчетов из очереди приема в базу данных).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+}
@@ -0,0 +1,109 @@
+package com.api.AntiCorruptionAPI.Controllers;
+
+import com.api.AntiCorruptionAPI.Models.AuditRecord;
+import com.api.AntiCorruptionAPI.Responses.ServiceResponse;
+import com.api.AntiCorruptionAPI.Services.AuditService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Контроллер для просмотра журнала аудита.
+ * <p>
+ * Ключевые функции:
+ * - История изменений отчета
+ * - История изменений пользователя
+ * - Изменения, выполненные пользователем
+ * <p>
+ * Требует права 'ViewAuditLog'
+ */
+@RestController
+@RequestMapping("/api/audit")
+public class AuditController {
+
+    /**
+     * Максимальное количество записей в одном ответе.
+     */
+    private static final int MAX_LIMIT = 1000;
+
+    /**
+     * Сервис аудита изменений.
+     */
+    private final AuditService auditService;
+
+    /**
+     * Конструктор для внедрения зависимости сервиса аудита.
+     *
+     * @param auditService сервис аудита
+     */
+    public AuditController(AuditService auditService) {
+        this.auditService = auditService;
+    }
+
+    /**
+     * Получение истории изменений отчета.
+     *
+     * @param id    идентификатор отчета
+     * @param from  нижняя граница времени записей
+     * @param limit максимальное количество последних записей
+     * @return список записей аудита
+     */
+    @GetMapping("/reports/{id}")
+    @PreAuthorize("hasAuthority('ViewAuditLog')")
+    public ResponseEntity<ServiceResponse<List<AuditRecord>>> getReportHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        ServiceResponse<List<AuditRecord>> response = auditService.getEntityHistory(
+                AuditRecord.EntityType.REPORT, id, from, clamp(limit));
+        return new ResponseEntity<>(response, response.status());
+    }
+
+    /**
+     * Получение истории изменений пользователя.
+     *
+     * @param id    идентификатор пользователя
+     * @param from  нижняя граница времени записей
+     * @param limit максимальное количество последних записей
+     * @return список записей аудита
+     */
+    @GetMapping("/users/{id}")
+    @PreAuthorize("hasAuthority('ViewAuditLog')")
+    public ResponseEntity<ServiceResponse<List<AuditRecord>>> getUserHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        ServiceResponse<List<AuditRecord>> response = auditService.getEntityHistory(
+                AuditRecord.EntityType.USER, id, from, clamp(limit));
+        return new ResponseEntity<>(response, response.status());
+    }
+
+    /**
+     * Получение изменений, выполненных пользователем.
+     *
+     * @param id    идентификатор пользователя, выполнявшего изменения
+     * @param from  нижняя граница времени записей
+     * @param limit максимальное количество последних записей
+     * @return список записей аудита
+     */
+    @GetMapping("/actors/{id}")
+    @PreAuthorize("hasAuthority('ViewAuditLog')")
+    public ResponseEntity<ServiceResponse<List<AuditRecord>>> getActorHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        ServiceResponse<List<AuditRecord>> response = auditService.getActorHistory(id, from, clamp(limit));
+        return new ResponseEntity<>(response, response.status());
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
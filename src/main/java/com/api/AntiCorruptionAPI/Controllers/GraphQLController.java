@@ -0,0 +1,231 @@
+package com.api.AntiCorruptionAPI.Controllers;
+
+import com.api.AntiCorruptionAPI.Components.SecurityUtils;
+import com.api.AntiCorruptionAPI.Models.AccessGroup;
+import com.api.AntiCorruptionAPI.Models.Report;
+import com.api.AntiCorruptionAPI.Models.User;
+import com.api.AntiCorruptionAPI.Responses.ReportUser;
+import com.api.AntiCorruptionAPI.Services.AccessGroupService;
+import com.api.AntiCorruptionAPI.Services.ReportService;
+import com.api.AntiCorruptionAPI.Services.UserService;
+import org.springframework.graphql.data.method.annotation.Argument;
+import org.springframework.graphql.data.method.annotation.BatchMapping;
+import org.springframework.graphql.data.method.annotation.QueryMapping;
+import org.springframework.graphql.data.method.annotation.SchemaMapping;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Controller;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Контроллер GraphQL API только для чтения.
+ * <p>
+ * Ключевые функции:
+ * - Получение отчетов с теми же правилами видимости, что и в {@link ReportController}
+ * - Получение пользователей и групп доступа
+ * - Пакетная загрузка связанных пользователей (назначенный сотрудник, автор отчета)
+ * <p>
+ * Схема описана в {@code graphql/schema.graphqls}.
+ */
+@Controller
+public class GraphQLController {
+
+    /**
+     * Максимальное количество отчетов в одном ответе.
+     */
+    private static final int MAX_REPORTS = 1000;
+
+    private final ReportService reportService;
+    private final UserService userService;
+    private final AccessGroupService accessGroupService;
+    private final SecurityUtils securityUtils;
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param reportService      сервис отчетов
+     * @param userService        сервис пользователей
+     * @param accessGroupService сервис групп доступа
+     * @param securityUtils      утилиты безопасности
+     */
+    public GraphQLController(ReportService reportService,
+                             UserService userService,
+                             AccessGroupService accessGroupService,
+                             SecurityUtils securityUtils) {
+        this.reportService = reportService;
+        this.userService = userService;
+        this.accessGroupService = accessGroupService;
+        this.securityUtils = securityUtils;
+    }
+
+    /**
+     * Получение отчета по идентификатору.
+     * <p>
+     * Пользователь без доступа ко всем отчетам видит только назначенные ему отчеты.
+     *
+     * @param id идентификатор отчета
+     * @return отчет или null, если отчет не найден
+     */
+    @QueryMapping
+    @PreAuthorize("hasAuthority('ViewReport')")
+    public Report report(@Argument Long id) {
+        Report report = reportService.getReport(id).data();
+        if (report == null || securityUtils.isUserInViewAllReportsGroup()) {
+            return report;
+        }
+
+        Long userId = currentUserId();
+        if (userId != null && userId.equals(report.getAssignedTo())) {
+            return report;
+        }
+        throw new AccessDeniedException("Access denied");
+    }
+
+    /**
+     * Поиск отчетов по критериям.
+     * <p>
+     * Пользователь без доступа ко всем отчетам получает только собственные отчеты,
+     * как и в {@code GET /api/reports/filter}.
+     *
+     * @return список отчетов
+     */
+    @QueryMapping
+    @PreAuthorize("hasAuthority('ViewReport')")
+    public List<Report> reports(
+            @Argument Long reporterId,
+            @Argument String startIncidentDate,
+            @Argument String endIncidentDate,
+            @Argument String incidentLocation,
+            @Argument String involvedPersons,
+            @Argument Report.ReportStatus status,
+            @Argument Long assignedTo,
+            @Argument Integer limit
+    ) {
+        if (!securityUtils.isUserInViewAllReportsGroup()) {
+            reporterId = currentUserId();
+        }
+
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : MAX_REPORTS, MAX_REPORTS));
+        return reportService.searchReports(
+                reporterId,
+                startIncidentDate != null ? LocalDate.parse(startIncidentDate) : null,
+                endIncidentDate != null ? LocalDate.parse(endIncidentDate) : null,
+                incidentLocation,
+                involvedPersons,
+                status,
+                assignedTo,
+                pageSize
+        );
+    }
+
+    /**
+     * Получение всех пользователей.
+     *
+     * @return список пользователей
+     */
+    @QueryMapping
+    @PreAuthorize("hasAuthority('ManageUserGroups')")
+    public List<User> users() {
+        return userService.getAllUsers().data();
+    }
+
+    /**
+     * Получение пользователей группы "SolveReport".
+     *
+     * @return список пользователей
+     */
+    @QueryMapping
+    @PreAuthorize("hasAuthority('AssignProcessReport')")
+    public List<User> agents() {
+        return userService.getUsersByGroup("SolveReport").data();
+    }
+
+    /**
+     * Получение всех групп доступа.
+     *
+     * @return список групп доступа
+     */
+    @QueryMapping
+    @PreAuthorize("hasAuthority('ManageUserGroups')")
+    public List<AccessGroup> accessGroups() {
+        return accessGroupService.getAllAccessGroups().data();
+    }
+
+    /**
+     * Пакетная загрузка назначенных сотрудников для списка отчетов.
+     * Возвращаются только идентификатор и полное имя, как в REST API.
+     *
+     * @param reports отчеты
+     * @return карта "отчет — назначенный сотрудник"
+     */
+    @BatchMapping(typeName = "Report")
+    public Map<Report, ReportUser> assignee(List<Report> reports) {
+        return loadUsers(reports, Report::getAssignedTo);
+    }
+
+    /**
+     * Пакетная загрузка авторов для списка отчетов.
+     * Возвращаются только идентификатор и полное имя, как в REST API.
+     *
+     * @param reports отчеты
+     * @return карта "отчет — автор"
+     */
+    @BatchMapping(typeName = "Report")
+    public Map<Report, ReportUser> reporter(List<Report> reports) {
+        return loadUsers(reports, Report::getReporterId);
+    }
+
+    /**
+     * Полное имя пользователя.
+     *
+     * @param user пользователь
+     * @return фамилия, имя и отчество через пробел
+     */
+    @SchemaMapping(typeName = "User")
+    public String fullName(User user) {
+        return fullNameOf(user);
+    }
+
+    private static String fullNameOf(User user) {
+        StringBuilder fullName = new StringBuilder();
+        for (String part : new String[]{user.getLastName(), user.getFirstName(), user.getMiddleName()}) {
+            if (part != null && !part.isBlank()) {
+                if (!fullName.isEmpty()) {
+                    fullName.append(' ');
+                }
+                fullName.append(part);
+            }
+        }
+        return fullName.toString();
+    }
+
+    private Map<Report, ReportUser> loadUsers(List<Report> reports, Function<Report, Long> userIdGetter) {
+        Map<Long, User> users = userService.getUsersByIds(reports.stream()
+                .map(userIdGetter)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList());
+
+        Map<Report, ReportUser> result = new LinkedHashMap<>();
+        for (Report report : reports) {
+            User user = users.get(userIdGetter.apply(report));
+            if (user != null) {
+                result.put(report, new ReportUser(user.getId(), fullNameOf(user)));
+            }
+        }
+        return result;
+    }
+
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return userService.getUserIdByUsername(authentication.getName());
+    }
+}
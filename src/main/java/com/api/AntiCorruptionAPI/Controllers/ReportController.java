@@ -2,22 +2,44 @@ package com.api.AntiCorruptionAPI.Controllers;
 
 import com.api.AntiCorruptionAPI.Models.Report;
 import com.api.AntiCorruptionAPI.Models.ReportDTO;
+import com.api.AntiCorruptionAPI.Requests.ReportBatchGetRequest;
+import com.api.AntiCorruptionAPI.Requests.ReportBatchOperationsRequest;
+import com.api.AntiCorruptionAPI.Requests.ReportSearchJobRequest;
+import com.api.AntiCorruptionAPI.Responses.ReportLookupResult;
+import com.api.AntiCorruptionAPI.Responses.ReportOperationResult;
+import com.api.AntiCorruptionAPI.Responses.ReportChangesResponse;
+import com.api.AntiCorruptionAPI.Responses.ReportSearchJob;
+import com.api.AntiCorruptionAPI.Responses.ReportSearchPage;
 import com.api.AntiCorruptionAPI.Responses.ServiceResponse;
+import com.api.AntiCorruptionAPI.Components.ReportResponseCache;
 import com.api.AntiCorruptionAPI.Components.SecurityUtils;
+import com.api.AntiCorruptionAPI.Services.ReportIntakeService;
+import com.api.AntiCorruptionAPI.Services.ReportSearchJobService;
 import com.api.AntiCorruptionAPI.Services.ReportService;
 import com.api.AntiCorruptionAPI.Services.UserService;
+import com.api.AntiCorruptionAPI.Specifications.ReportProjection;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Контроллер для управления отчетами в системе противодействия коррупции.
@@ -35,6 +57,26 @@ import java.util.List;
 @RequestMapping("/api/reports")
 public class ReportController {
 
+    /**
+     * Максимальный размер страницы ленты изменений.
+     */
+    private static final int MAX_CHANGES_PAGE_SIZE = 1000;
+
+    /**
+     * Максимальное количество идентификаторов в пакетном получении отчетов.
+     */
+    private static final int MAX_BATCH_GET_IDS = 500;
+
+    /**
+     * Максимальное количество операций в пакетном изменении отчетов.
+     */
+    private static final int MAX_BATCH_OPERATIONS = 500;
+
+    /**
+     * Максимальный размер страницы результатов фоновой задачи поиска.
+     */
+    private static final int MAX_SEARCH_PAGE_SIZE = 1000;
+
     /**
      * Сервис для работы с отчетами.
      */
@@ -53,28 +95,119 @@ public class ReportController {
     @Autowired
     private UserService userService;
 
+    /**
+     * Сервис приема отчетов с отложенной записью (присутствует, только если режим включен).
+     */
+    @Autowired(required = false)
+    private ReportIntakeService reportIntakeService;
+
+    /**
+     * Кэш готовых байтов ответа на получение отчета.
+     */
+    @Autowired
+    private ReportResponseCache reportResponseCache;
+
+    /**
+     * ObjectMapper JSON-преобразователя для сериализации кэшируемых ответов.
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Сервис фоновых задач поиска отчетов.
+     */
+    @Autowired
+    private ReportSearchJobService reportSearchJobService;
+
     /**
      * Создание нового отчета.
+     * <p>
+     * Если включен режим приема через очередь, отчет сохраняется в журнал предзаписи
+     * и возвращается со статусом 202 и идентификатором отслеживания в поле {@code intakeId}.
      *
      * @param report данные нового отчета
-     * @return созданный отчет или ошибка
+     * @return созданный (или принятый в очередь) отчет или ошибка
      */
     @PostMapping()
     @PreAuthorize("hasAuthority('CreateReport')")
     public ResponseEntity<ServiceResponse<Report>> createReport(@RequestBody Report report) {
-        ServiceResponse<Report> response = reportService.createReport(report);
+        ServiceResponse<Report> response = reportIntakeService != null
+                ? reportIntakeService.submit(report)
+                : reportService.createReport(report);
+        return new ResponseEntity<>(response, response.status());
+    }
+
+    /**
+     * Получение состояния отчета, принятого через очередь. Доступно только автору отчета.
+     *
+     * @param trackingId идентификатор отслеживания, выданный при приеме
+     * @return созданный отчет, статус ожидания или ошибка обработки
+     */
+    @GetMapping("/intake/{trackingId}")
+    @PreAuthorize("hasAuthority('CreateReport')")
+    public ResponseEntity<ServiceResponse<Report>> getIntakeStatus(@PathVariable String trackingId) {
+        if (reportIntakeService == null) {
+            return new ResponseEntity<>(
+                    new ServiceResponse<>(null, "Режим приема через очередь отключен", HttpStatus.NOT_FOUND),
+                    HttpStatus.NOT_FOUND
+            );
+        }
+        ServiceResponse<Report> response = reportIntakeService.getStatus(trackingId);
         return new ResponseEntity<>(response, response.status());
     }
 
     /**
      * Получение отчета по идентификатору с проверкой прав доступа.
+     * <p>
+     * Полный JSON-ответ кэшируется в {@link ReportResponseCache} до изменения отчета
+     * или истечения времени жизни записи.
      *
-     * @param id идентификатор отчета
+     * @param id             идентификатор отчета
+     * @param fields         поля отчета через запятую (по умолчанию — все поля)
+     * @param accept         заголовок {@code Accept} (кэшированный ответ отдается только в JSON)
+     * @param acceptEncoding заголовок {@code Accept-Encoding} для выбора сжатого варианта
      * @return отчет или ошибка доступа
      */
     @GetMapping("/{id}")
     @PreAuthorize("hasAuthority('ViewReport')")
-    public ResponseEntity<ServiceResponse<Report>> getReport(@PathVariable Long id) {
+    public ResponseEntity<?> getReport(@PathVariable Long id,
+                                       @RequestParam(required = false) String fields,
+                                       @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                       @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ReportProjection projection;
+        try {
+            projection = ReportProjection.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ServiceResponse<>(null, e.getMessage(), HttpStatus.BAD_REQUEST), HttpStatus.BAD_REQUEST);
+        }
+        if (projection != null) {
+            Long visibleTo = null;
+            if (!securityUtils.isUserInViewAllReportsGroup()) {
+                visibleTo = userService.getUserIdByUsername(SecurityContextHolder.getContext().getAuthentication().getName());
+                if (visibleTo == null) {
+                    return new ResponseEntity<>(new ServiceResponse<>(null, "Access denied", HttpStatus.FORBIDDEN), HttpStatus.FORBIDDEN);
+                }
+            }
+            ServiceResponse<Map<String, Object>> response = reportService.getReportFields(id, projection, visibleTo);
+            return new ResponseEntity<>(response, response.status());
+        }
+
+        // Готовый JSON-ответ из кэша: без запроса к базе данных и сериализации
+        boolean cacheable = reportResponseCache.isEnabled() && acceptsJson(accept);
+        if (cacheable) {
+            ReportResponseCache.Entry cached = reportResponseCache.get(id);
+            if (cached != null) {
+                if (!canViewReport(cached.assignedTo())) {
+                    return new ResponseEntity<>(
+                            new ServiceResponse<>(null, "Access denied", HttpStatus.FORBIDDEN),
+                            HttpStatus.FORBIDDEN
+                    );
+                }
+                return cachedReportBody(cached, acceptEncoding);
+            }
+        }
+        long cacheGeneration = reportResponseCache.generation();
+
         // Получаем отчет
         ServiceResponse<Report> response = reportService.getReport(id);
 
@@ -84,39 +217,132 @@ public class ReportController {
         }
 
         // Проверяем права доступа
+        if (!canViewReport(response.data().getAssignedTo())) {
+            // Если отчет не принадлежит пользователю, возвращаем ошибку доступа
+            return new ResponseEntity<>(
+                    new ServiceResponse<>(null, "Access denied", HttpStatus.FORBIDDEN),
+                    HttpStatus.FORBIDDEN
+            );
+        }
+
+        // Отчет, прочитанный с отстающей реплики, не кэшируется: он остался бы в кэше до следующего изменения
+        Report report = response.data();
+        if (cacheable && reportService.isCurrentOnPrimary(id, report.getChangeSeq())) {
+            try {
+                ReportResponseCache.Entry entry = reportResponseCache.put(id, cacheGeneration,
+                        report.getChangeSeq() != null ? report.getChangeSeq() : 0L,
+                        report.getAssignedTo(), objectMapper.writeValueAsBytes(response));
+                return cachedReportBody(entry, acceptEncoding);
+            } catch (JsonProcessingException e) {
+                log.warn("Failed to serialize report {} for the response cache", id, e);
+            }
+        }
+        return new ResponseEntity<>(response, response.status());
+    }
+
+    /**
+     * Проверка доступа текущего пользователя к отчету: доступ ко всем отчетам
+     * или отчет назначен пользователю.
+     */
+    private boolean canViewReport(Long assignedTo) {
         if (securityUtils.isUserInViewAllReportsGroup()) {
-            // Если пользователь может видеть все отчеты, возвращаем отчет
-            return new ResponseEntity<>(response, response.status());
-        } else {
-            // Получаем ID текущего пользователя
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String username = authentication.getName();
-            Long userId = userService.getUserIdByUsername(username);
+            return true;
+        }
+        // Получаем ID текущего пользователя
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Long userId = userService.getUserIdByUsername(authentication.getName());
+        return userId != null && userId.equals(assignedTo);
+    }
 
-            // Проверяем, принадлежит ли отчет текущему пользователю
-            if (userId != null && userId.equals(response.data().getAssignedTo())) {
-                return new ResponseEntity<>(response, response.status());
-            } else {
-                // Если отчет не принадлежит пользователю, возвращаем ошибку доступа
-                return new ResponseEntity<>(
-                        new ServiceResponse<>(null, "Access denied", HttpStatus.FORBIDDEN),
-                        HttpStatus.FORBIDDEN
-                );
+    /**
+     * Кэшированный ответ можно отдать, только если клиент принимает JSON
+     * (а не запрашивает CBOR или Smile).
+     */
+    private static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                if (!mediaType.isWildcardType() && !mediaType.includes(MediaType.APPLICATION_JSON)) {
+                    return false;
+                }
             }
+            return true;
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    private ResponseEntity<byte[]> cachedReportBody(ReportResponseCache.Entry entry, String acceptEncoding) {
+        ReportResponseCache.Body body = reportResponseCache.body(entry, acceptEncoding);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.bytes().length)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (body.encoding() != null) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, body.encoding().token());
         }
+        return builder.body(body.bytes());
+    }
+
+    /**
+     * Получение нескольких отчетов по идентификаторам одним запросом.
+     * <p>
+     * Для каждого идентификатора возвращается отчет или причина отсутствия:
+     * {@code NOT_FOUND} — отчет не существует, {@code FORBIDDEN} — отчет не назначен
+     * текущему пользователю (если он не может видеть все отчеты).
+     *
+     * @param request идентификаторы отчетов
+     * @return результаты в порядке запроса или ошибка
+     */
+    @PostMapping("/batch-get")
+    @PreAuthorize("hasAuthority('ViewReport')")
+    public ResponseEntity<ServiceResponse<List<ReportLookupResult>>> getReports(
+            @Valid @RequestBody ReportBatchGetRequest request
+    ) {
+        List<Long> ids = List.copyOf(new LinkedHashSet<>(request.getIds()));
+        if (ids.size() > MAX_BATCH_GET_IDS) {
+            return new ResponseEntity<>(
+                    new ServiceResponse<>(null, "Слишком много идентификаторов в запросе", HttpStatus.BAD_REQUEST),
+                    HttpStatus.BAD_REQUEST
+            );
+        }
+
+        Long visibleTo = null;
+        if (!securityUtils.isUserInViewAllReportsGroup()) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            visibleTo = userService.getUserIdByUsername(authentication.getName());
+            if (visibleTo == null) {
+                return new ResponseEntity<>(new ServiceResponse<>(null, "Пользователь не найден", HttpStatus.NOT_FOUND), HttpStatus.NOT_FOUND);
+            }
+        }
+
+        ServiceResponse<List<ReportLookupResult>> response = reportService.getReports(ids, visibleTo);
+        return new ResponseEntity<>(response, response.status());
     }
 
     /**
      * Получение списка всех доступных отчетов.
      *
+     * @param fields поля отчетов через запятую (по умолчанию — все поля)
      * @return список отчетов с учетом прав пользователя
      */
     @GetMapping
     @PreAuthorize("hasAuthority('ViewReport')")
-    public ResponseEntity<ServiceResponse<List<ReportDTO>>> getAllReports() {
+    public ResponseEntity<ServiceResponse<?>> getAllReports(@RequestParam(required = false) String fields) {
+        ReportProjection projection;
+        try {
+            projection = ReportProjection.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ServiceResponse<>(null, e.getMessage(), HttpStatus.BAD_REQUEST), HttpStatus.BAD_REQUEST);
+        }
+
         // Если пользователь может видеть все отчеты
         if (securityUtils.isUserInViewAllReportsGroup()) {
-            ServiceResponse<List<ReportDTO>> response = reportService.getAllReports();
+            ServiceResponse<?> response = projection != null
+                    ? reportService.getAllReportFields(projection)
+                    : reportService.getAllReports();
             return new ResponseEntity<>(response, response.status());
         } else {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -125,11 +351,57 @@ public class ReportController {
             if (userId == null) {
                 return new ResponseEntity<>(new ServiceResponse<>(null, "Пользователь не найден", HttpStatus.NOT_FOUND), HttpStatus.NOT_FOUND);
             }
-            ServiceResponse<List<ReportDTO>> response = reportService.getReportsByAssignedTo(userId);
+            ServiceResponse<?> response = projection != null
+                    ? reportService.getReportFieldsByAssignedTo(userId, projection)
+                    : reportService.getReportsByAssignedTo(userId);
             return new ResponseEntity<>(response, response.status());
         }
     }
 
+    /**
+     * Получение ленты изменений отчетов для инкрементальной синхронизации клиентов.
+     * <p>
+     * Возвращает отчеты, измененные после курсора, и отметки об удаленных отчетах.
+     * Пользователи без доступа ко всем отчетам получают только назначенные им отчеты,
+     * а отчеты, переназначенные другому сотруднику, — как удаленные.
+     * Если следующие изменения еще не доступны, ответ содержит заголовок {@code Retry-After}.
+     *
+     * @param since курсор — номер последнего полученного изменения (0 для первой синхронизации)
+     * @param limit максимальное количество изменений на странице
+     * @return страница изменений или ошибка
+     */
+    @GetMapping("/changes")
+    @PreAuthorize("hasAuthority('ViewReport')")
+    public ResponseEntity<ServiceResponse<ReportChangesResponse>> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit
+    ) {
+        if (since < 0 || limit < 1 || limit > MAX_CHANGES_PAGE_SIZE) {
+            return new ResponseEntity<>(
+                    new ServiceResponse<>(null, "Некорректные параметры курсора", HttpStatus.BAD_REQUEST),
+                    HttpStatus.BAD_REQUEST
+            );
+        }
+
+        Long assignedTo = null;
+        if (!securityUtils.isUserInViewAllReportsGroup()) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            assignedTo = userService.getUserIdByUsername(authentication.getName());
+            if (assignedTo == null) {
+                return new ResponseEntity<>(new ServiceResponse<>(null, "Пользователь не найден", HttpStatus.NOT_FOUND), HttpStatus.NOT_FOUND);
+            }
+        }
+
+        ServiceResponse<ReportChangesResponse> response = reportService.getChanges(since, limit, assignedTo);
+        if (response.data() != null && response.data().retryAfterMs() > 0) {
+            long retryAfterSeconds = (response.data().retryAfterMs() + 999) / 1000;
+            return ResponseEntity.status(response.status())
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                    .body(response);
+        }
+        return new ResponseEntity<>(response, response.status());
+    }
+
     /**
      * Обновление отчета с проверкой прав доступа.
      *
@@ -143,8 +415,8 @@ public class ReportController {
         @PathVariable Long id,
         @RequestBody Report report
     ) {
-        // Проверка существования отчета
-        ServiceResponse<Report> existingReport = reportService.getReport(id);
+        // Проверка существования отчета и доступа по данным основного сервера, а не реплики
+        ServiceResponse<Report> existingReport = reportService.getReportForUpdate(id);
         if (existingReport.data() == null) {
             return new ResponseEntity<>(existingReport, existingReport.status());
         }
@@ -166,18 +438,8 @@ public class ReportController {
             @PathVariable Long id,
             @RequestBody String solution) {
 
-        // Получаем существующий отчет
-        ServiceResponse<Report> existingReport = reportService.getReport(id);
-        if (existingReport.data() == null) {
-            return new ResponseEntity<>(
-                    new ServiceResponse<>(null, existingReport.message(), existingReport.status()),
-                    existingReport.status()
-            );
-        }
-
-        // Обновляем решение
-        existingReport.data().setSolution(solution);
-        ServiceResponse<Report> response = reportService.updateReport(id, existingReport.data());
+        // Отчет загружается и изменяется в одной транзакции: остальные поля не перезаписываются
+        ServiceResponse<Report> response = reportService.updateSolution(id, solution);
         return new ResponseEntity<>(response, response.status());
     }
 
@@ -194,18 +456,8 @@ public class ReportController {
             @PathVariable Long id,
             @RequestBody Report.ReportStatus status) {
 
-        // Получаем существующий отчет
-        ServiceResponse<Report> existingReport = reportService.getReport(id);
-        if (existingReport.data() == null) {
-            return new ResponseEntity<>(
-                    new ServiceResponse<>(null, existingReport.message(), existingReport.status()),
-                    existingReport.status()
-            );
-        }
-
-        // Обновляем статус
-        existingReport.data().setStatus(status);
-        ServiceResponse<Report> response = reportService.updateReport(id, existingReport.data());
+        // Отчет загружается и изменяется в одной транзакции: остальные поля не перезаписываются
+        ServiceResponse<Report> response = reportService.updateStatus(id, status);
         return new ResponseEntity<>(response, response.status());
     }
 
@@ -218,8 +470,8 @@ public class ReportController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('DeleteReport')")
     public ResponseEntity<ServiceResponse<Void>> deleteReport(@PathVariable Long id) {
-        // Проверяем доступ к отчету
-        ServiceResponse<Report> existingReport = reportService.getReport(id);
+        // Проверяем доступ к отчету по данным основного сервера
+        ServiceResponse<Report> existingReport = reportService.getReportForUpdate(id);
         if (existingReport.data() == null) {
             return new ResponseEntity<>(
                     new ServiceResponse<>(null, existingReport.message(), existingReport.status()),
@@ -261,6 +513,42 @@ public class ReportController {
         return new ResponseEntity<>(response, response.status());
     }
 
+    /**
+     * Пакетное изменение отчетов: назначение, статус и решение в одной транзакции.
+     * <p>
+     * Каждая операция проверяется на соответствующее право: {@code ASSIGN} — AssignProcessReport,
+     * {@code STATUS} и {@code SOLUTION} — SolveReport. При {@code atomic=true} ошибка любой
+     * операции отменяет весь пакет.
+     *
+     * @param request операции и режим выполнения
+     * @return результаты операций в порядке запроса или ошибка
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyAuthority('AssignProcessReport', 'SolveReport')")
+    public ResponseEntity<ServiceResponse<List<ReportOperationResult>>> applyOperations(
+            @Valid @RequestBody ReportBatchOperationsRequest request
+    ) {
+        if (request.getOperations().size() > MAX_BATCH_OPERATIONS) {
+            return new ResponseEntity<>(
+                    new ServiceResponse<>(null, "Слишком много операций в запросе", HttpStatus.BAD_REQUEST),
+                    HttpStatus.BAD_REQUEST
+            );
+        }
+
+        EnumSet<ReportBatchOperationsRequest.Type> permitted = EnumSet.noneOf(ReportBatchOperationsRequest.Type.class);
+        if (securityUtils.hasAuthority("AssignProcessReport")) {
+            permitted.add(ReportBatchOperationsRequest.Type.ASSIGN);
+        }
+        if (securityUtils.hasAuthority("SolveReport")) {
+            permitted.add(ReportBatchOperationsRequest.Type.STATUS);
+            permitted.add(ReportBatchOperationsRequest.Type.SOLUTION);
+        }
+
+        ServiceResponse<List<ReportOperationResult>> response =
+                reportService.applyOperations(request.getOperations(), request.isAtomic(), permitted);
+        return new ResponseEntity<>(response, response.status());
+    }
+
     /**
      * Фильтрация отчетов по различным критериям.
      *
@@ -271,19 +559,28 @@ public class ReportController {
      * @param involvedPersons вовлеченные лица
      * @param status статус отчета
      * @param assignedTo идентификатор назначенного сотрудника
+     * @param fields поля отчетов через запятую (по умолчанию — все поля)
      * @return список отфильтрованных отчетов
      */
     @GetMapping("/filter")
     @PreAuthorize("hasAuthority('ViewReport')")
-    public ResponseEntity<ServiceResponse<List<ReportDTO>>> filterReports(
+    public ResponseEntity<ServiceResponse<?>> filterReports(
             @RequestParam(required = false) Long reporterId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startIncidentDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endIncidentDate,
             @RequestParam(required = false) String incidentLocation,
             @RequestParam(required = false) String involvedPersons,
             @RequestParam(required = false) Report.ReportStatus status,
-            @RequestParam(required = false) Long assignedTo
+            @RequestParam(required = false) Long assignedTo,
+            @RequestParam(required = false) String fields
     ) {
+        ReportProjection projection;
+        try {
+            projection = ReportProjection.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(new ServiceResponse<>(null, e.getMessage(), HttpStatus.BAD_REQUEST), HttpStatus.BAD_REQUEST);
+        }
+
         // Проверка доступа к фильтрации
         if (!securityUtils.isUserInViewAllReportsGroup()) {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -294,6 +591,20 @@ public class ReportController {
             reporterId = userService.getUserIdByUsername(username);
         }
 
+        if (projection != null) {
+            ServiceResponse<List<Map<String, Object>>> response = reportService.filterReportFields(
+                    reporterId,
+                    startIncidentDate,
+                    endIncidentDate,
+                    incidentLocation,
+                    involvedPersons,
+                    status,
+                    assignedTo,
+                    projection
+            );
+            return new ResponseEntity<>(response, response.status());
+        }
+
         ServiceResponse<List<ReportDTO>> response = reportService.filterReports(
                 reporterId,
                 startIncidentDate,
@@ -306,4 +617,105 @@ public class ReportController {
 
         return new ResponseEntity<>(response, response.status());
     }
+
+    /**
+     * Постановка фоновой задачи поиска отчетов.
+     * <p>
+     * Для долгих поисков вместо {@code GET /filter}: возвращает идентификатор задачи со статусом 202,
+     * состояние и результаты запрашиваются отдельно. Ограничения видимости те же, что у {@code /filter}.
+     *
+     * @param request критерии поиска
+     * @return состояние задачи или ошибка
+     */
+    @PostMapping("/search-jobs")
+    @PreAuthorize("hasAuthority('ViewReport')")
+    public ResponseEntity<ServiceResponse<ReportSearchJob>> submitSearchJob(@RequestBody ReportSearchJobRequest request) {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return new ResponseEntity<>(new ServiceResponse<>(null, "Пользователь не найден", HttpStatus.NOT_FOUND), HttpStatus.NOT_FOUND);
+        }
+        if (!securityUtils.isUserInViewAllReportsGroup()) {
+            // Если пользователь не может видеть все отчеты, то поиск только по его собственным отчетам
+            request.setReporterId(userId);
+        }
+
+        ServiceResponse<ReportSearchJob> response = reportSearchJobService.submit(userId, request);
+        return new ResponseEntity<>(response, response.status());
+    }
+
+    /**
+     * Получение состояния фоновой задачи поиска.
+     *
+     * @param jobId идентификатор задачи
+     * @return состояние задачи или ошибка
+     */
+    @GetMapping("/search-jobs/{jobId}")
+    @PreAuthorize("hasAuthority('ViewReport')")
+    public ResponseEntity<ServiceResponse<ReportSearchJob>> getSearchJob(@PathVariable String jobId) {
+        ServiceResponse<ReportSearchJob> response = reportSearchJobService.getJob(jobId, currentUserId());
+        return new ResponseEntity<>(response, response.status());
+    }
+
+    /**
+     * Получение страницы результатов завершенной задачи поиска.
+     *
+     * @param jobId  идентификатор задачи
+     * @param offset номер первого отчета (с нуля)
+     * @param limit  количество отчетов на странице
+     * @return страница результатов или ошибка
+     */
+    @GetMapping("/search-jobs/{jobId}/results")
+    @PreAuthorize("hasAuthority('ViewReport')")
+    public ResponseEntity<ServiceResponse<ReportSearchPage>> getSearchJobResults(
+            @PathVariable String jobId,
+            @RequestParam(defaultValue = "0") long offset,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        if (offset < 0 || limit < 1 || limit > MAX_SEARCH_PAGE_SIZE) {
+            return new ResponseEntity<>(
+                    new ServiceResponse<>(null, "Некорректные параметры страницы", HttpStatus.BAD_REQUEST),
+                    HttpStatus.BAD_REQUEST
+            );
+        }
+        ServiceResponse<ReportSearchPage> response = reportSearchJobService.getPage(jobId, currentUserId(), offset, limit);
+        return new ResponseEntity<>(response, response.status());
+    }
+
+    /**
+     * Выгрузка всех результатов завершенной задачи поиска в формате NDJSON
+     * ({@code application/x-ndjson}, один отчет на строку).
+     *
+     * @param jobId идентификатор задачи
+     * @return поток результатов или ошибка
+     */
+    @GetMapping("/search-jobs/{jobId}/results/stream")
+    @PreAuthorize("hasAuthority('ViewReport')")
+    public ResponseEntity<?> streamSearchJobResults(@PathVariable String jobId) {
+        Long userId = currentUserId();
+        ServiceResponse<ReportSearchJob> job = reportSearchJobService.checkStreamable(jobId, userId);
+        if (job.status() != HttpStatus.OK) {
+            return new ResponseEntity<>(job, job.status());
+        }
+        StreamingResponseBody body = out -> reportSearchJobService.streamResults(jobId, userId, objectMapper, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Отмена фоновой задачи поиска и удаление ее результатов.
+     *
+     * @param jobId идентификатор задачи
+     * @return пустой ответ или ошибка
+     */
+    @DeleteMapping("/search-jobs/{jobId}")
+    @PreAuthorize("hasAuthority('ViewReport')")
+    public ResponseEntity<ServiceResponse<Void>> deleteSearchJob(@PathVariable String jobId) {
+        ServiceResponse<Void> response = reportSearchJobService.delete(jobId, currentUserId());
+        return new ResponseEntity<>(response, response.status());
+    }
+
+    private Long currentUserId() {
+        return userService.getUserIdByUsername(SecurityContextHolder.getContext().getAuthentication().getName());
+    }
 }
\ No newline at end of file
@@ -1,16 +1,34 @@
 package com.api.AntiCorruptionAPI.Controllers;
 
+import com.api.AntiCorruptionAPI.Components.QueryGuard;
 import com.api.AntiCorruptionAPI.Models.User;
 import com.api.AntiCorruptionAPI.Responses.ServiceResponse;
 import com.api.AntiCorruptionAPI.Requests.AddToGroupRequest;
+import com.api.AntiCorruptionAPI.Requests.BulkGroupMembershipRequest;
 import com.api.AntiCorruptionAPI.Requests.UserUpdateRequest;
+import com.api.AntiCorruptionAPI.Responses.BulkGroupMembershipResult;
+import com.api.AntiCorruptionAPI.Responses.OffboardingProgress;
+import com.api.AntiCorruptionAPI.Responses.UserDirectoryPage;
+import com.api.AntiCorruptionAPI.Responses.UserImportResult;
+import com.api.AntiCorruptionAPI.Responses.UserPhotoFile;
+import com.api.AntiCorruptionAPI.Services.ReportOffboardingService;
+import com.api.AntiCorruptionAPI.Services.UserImportService;
+import com.api.AntiCorruptionAPI.Services.UserPhotoService;
 import com.api.AntiCorruptionAPI.Services.UserService;
+import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -23,7 +41,10 @@ import java.util.List;
  * - Добавление пользователей
  * - Удаление пользователей
  * - Обновление информации о пользователях
- * - Управление группами пользователей
+ * - Управление группами пользователей (в том числе массовое)
+ * - Загрузка и получение фотографий сотрудников
+ * - Массовый импорт пользователей
+ * - Перераспределение отчетов уволенных сотрудников
  * <p>
  * Реализует строгий контроль доступа через Spring Security
  */
@@ -36,12 +57,46 @@ public class UserController {
      */
     private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
+    /**
+     * Максимальный размер страницы справочника сотрудников.
+     */
+    private static final int MAX_DIRECTORY_PAGE_SIZE = 500;
+
+    /**
+     * Максимальное количество пользователей и групп в одном запросе массового изменения членства.
+     */
+    private static final int MAX_BULK_MEMBERSHIP_IDS = 1000;
+
     /**
      * Сервис для работы с пользователями.
      */
     @Autowired
     private UserService userService;
 
+    /**
+     * Учет запросов, прерванных по тайм-ауту.
+     */
+    @Autowired
+    private QueryGuard queryGuard;
+
+    /**
+     * Сервис фотографий сотрудников.
+     */
+    @Autowired
+    private UserPhotoService userPhotoService;
+
+    /**
+     * Сервис массового импорта пользователей.
+     */
+    @Autowired
+    private UserImportService userImportService;
+
+    /**
+     * Сервис перераспределения отчетов уволенных сотрудников.
+     */
+    @Autowired
+    private ReportOffboardingService reportOffboardingService;
+
     /**
      * Добавление нового пользователя.
      *
@@ -77,6 +132,35 @@ public class UserController {
         }
     }
 
+    /**
+     * Массовый импорт пользователей из CSV.
+     * <p>
+     * Первая строка — заголовок с именами полей ({@code username,password,lastName,...,groups});
+     * группы перечисляются через точку с запятой. Назначение групп требует права 'ManageUserGroups'.
+     *
+     * @param csv содержимое файла
+     * @return результаты по каждой строке
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasAuthority('AddUsers')")
+    public ResponseEntity<ServiceResponse<UserImportResult>> importUsersCsv(@RequestBody String csv) {
+        ServiceResponse<UserImportResult> response = userImportService.importCsv(csv, canAssignGroups());
+        return new ResponseEntity<>(response, response.status());
+    }
+
+    /**
+     * Массовый импорт пользователей из NDJSON (один JSON-объект на строку).
+     *
+     * @param ndjson содержимое файла
+     * @return результаты по каждой строке
+     */
+    @PostMapping(value = "/import", consumes = "application/x-ndjson")
+    @PreAuthorize("hasAuthority('AddUsers')")
+    public ResponseEntity<ServiceResponse<UserImportResult>> importUsersNdjson(@RequestBody String ndjson) {
+        ServiceResponse<UserImportResult> response = userImportService.importNdjson(ndjson, canAssignGroups());
+        return new ResponseEntity<>(response, response.status());
+    }
+
     /**
      * Удаление пользователя по идентификатору.
      *
@@ -191,6 +275,40 @@ public class UserController {
         }
     }
 
+    /**
+     * Массовое добавление пользователей в группы.
+     * <p>
+     * Каждый пользователь из списка добавляется в каждую группу из списка.
+     * Уже существующие связи пропускаются.
+     *
+     * @param request идентификаторы пользователей и групп
+     * @return количество добавленных связей или ошибка
+     */
+    @PostMapping("/groups/bulk")
+    @PreAuthorize("hasAuthority('ManageUserGroups')")
+    public ResponseEntity<ServiceResponse<BulkGroupMembershipResult>> addUsersToGroups(
+            @Valid @RequestBody BulkGroupMembershipRequest request
+    ) {
+        return changeGroupMemberships(request, true);
+    }
+
+    /**
+     * Массовое удаление пользователей из групп.
+     * <p>
+     * Каждый пользователь из списка удаляется из каждой группы из списка.
+     * Отсутствующие связи пропускаются.
+     *
+     * @param request идентификаторы пользователей и групп
+     * @return количество удаленных связей или ошибка
+     */
+    @DeleteMapping("/groups/bulk")
+    @PreAuthorize("hasAuthority('ManageUserGroups')")
+    public ResponseEntity<ServiceResponse<BulkGroupMembershipResult>> removeUsersFromGroups(
+            @Valid @RequestBody BulkGroupMembershipRequest request
+    ) {
+        return changeGroupMemberships(request, false);
+    }
+
     /**
      * Получение списка всех пользователей.
      *
@@ -203,6 +321,9 @@ public class UserController {
             ServiceResponse<List<User>> response = userService.getAllUsers();
             return ResponseEntity.ok(response);
         } catch (Exception e) {
+            if (queryGuard.recordTimeout("user-read", e)) {
+                return queryTimedOut();
+            }
             logger.error("Ошибка при получении пользователей", e);
             return ResponseEntity
                     .status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -214,6 +335,46 @@ public class UserController {
         }
     }
 
+    /**
+     * Получение страницы справочника сотрудников.
+     * <p>
+     * Содержит только ФИО, должность, подразделение и группы доступа,
+     * без персональных данных.
+     *
+     * @param page номер страницы (с нуля)
+     * @param size размер страницы
+     * @return страница справочника или ошибка
+     */
+    @GetMapping("/directory")
+    @PreAuthorize("hasAuthority('ManageUserGroups')")
+    public ResponseEntity<ServiceResponse<UserDirectoryPage>> getUserDirectory(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        if (page < 0 || size < 1 || size > MAX_DIRECTORY_PAGE_SIZE) {
+            return new ResponseEntity<>(
+                    new ServiceResponse<>(null, "Некорректные параметры страницы", HttpStatus.BAD_REQUEST),
+                    HttpStatus.BAD_REQUEST
+            );
+        }
+        try {
+            ServiceResponse<UserDirectoryPage> response = userService.getUserDirectory(page, size);
+            return new ResponseEntity<>(response, response.status());
+        } catch (Exception e) {
+            if (queryGuard.recordTimeout("user-read", e)) {
+                return queryTimedOut();
+            }
+            logger.error("Ошибка при получении справочника сотрудников", e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ServiceResponse<>(
+                            null,
+                            "Произошла ошибка при получении справочника сотрудников",
+                            HttpStatus.INTERNAL_SERVER_ERROR
+                    ));
+        }
+    }
+
     /**
      * Удаление пользователя из группы.
      *
@@ -221,7 +382,7 @@ public class UserController {
      * @return обновленный пользователь или ошибка
      */
     @DeleteMapping("/remove-from-group")
-    @PreAuthorize("hasAuthority('ManageUser Groups')")
+    @PreAuthorize("hasAuthority('ManageUserGroups')")
     public ResponseEntity<ServiceResponse<User>> removeUserFromGroup(
             @RequestBody AddToGroupRequest request) {
         try {
@@ -265,6 +426,9 @@ public class UserController {
             ServiceResponse<List<User>> response = userService.getUsersByGroup("SolveReport");
             return ResponseEntity.ok(response);
         } catch (Exception e) {
+            if (queryGuard.recordTimeout("user-read", e)) {
+                return queryTimedOut();
+            }
             logger.error("Ошибка при получении пользователей в группе SolveReport", e);
             return ResponseEntity
                     .status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -275,4 +439,148 @@ public class UserController {
                     ));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Получение фотографии сотрудника.
+     * <p>
+     * Поддерживает условные запросы ({@code If-None-Match}) и запросы диапазонов ({@code Range}).
+     * Собственную фотографию может получить любой пользователь.
+     *
+     * @param id   идентификатор пользователя
+     * @param size размер миниатюры (по большей стороне) или отсутствует для оригинала
+     * @return содержимое фотографии или ошибка
+     */
+    @GetMapping("/{id}/photo")
+    @PreAuthorize("hasAnyAuthority('ManageUserGroups', 'AssignProcessReport', 'UpdateUsers') or #id == principal.id")
+    public ResponseEntity<Resource> getPhoto(
+            @PathVariable("id") Long id,
+            @RequestParam(required = false) Integer size
+    ) {
+        ServiceResponse<UserPhotoFile> response = userPhotoService.getPhoto(id, size);
+        if (response.data() == null) {
+            return ResponseEntity.status(response.status()).build();
+        }
+
+        UserPhotoFile photo = response.data();
+        return ResponseEntity.ok()
+                .eTag(photo.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.parseMediaType(photo.contentType()))
+                .body(new FileSystemResource(photo.file()));
+    }
+
+    /**
+     * Загрузка фотографии сотрудника.
+     *
+     * @param id   идентификатор пользователя
+     * @param data содержимое изображения (JPEG, PNG, GIF или WebP)
+     * @return ETag сохраненной фотографии или ошибка
+     */
+    @PutMapping(value = "/{id}/photo", consumes = {MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE,
+            MediaType.IMAGE_GIF_VALUE, "image/webp", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    @PreAuthorize("hasAuthority('UpdateUsers')")
+    public ResponseEntity<ServiceResponse<String>> uploadPhoto(
+            @PathVariable("id") Long id,
+            @RequestBody byte[] data
+    ) {
+        ServiceResponse<String> response = userPhotoService.savePhoto(id, data);
+        return new ResponseEntity<>(response, response.status());
+    }
+
+    /**
+     * Удаление фотографии сотрудника.
+     *
+     * @param id идентификатор пользователя
+     * @return результат удаления
+     */
+    @DeleteMapping("/{id}/photo")
+    @PreAuthorize("hasAuthority('UpdateUsers')")
+    public ResponseEntity<ServiceResponse<Void>> deletePhoto(@PathVariable("id") Long id) {
+        ServiceResponse<Void> response = userPhotoService.deletePhoto(id);
+        return new ResponseEntity<>(response, response.status());
+    }
+
+    /**
+     * Получение хода перераспределения отчетов уволенного сотрудника.
+     *
+     * @param id идентификатор уволенного сотрудника
+     * @return состояние задачи или ошибка
+     */
+    @GetMapping("/{id}/offboarding")
+    @PreAuthorize("hasAuthority('UpdateUsers')")
+    public ResponseEntity<ServiceResponse<OffboardingProgress>> getOffboardingProgress(@PathVariable("id") Long id) {
+        ServiceResponse<OffboardingProgress> response = reportOffboardingService.getProgress(id);
+        return new ResponseEntity<>(response, response.status());
+    }
+
+    /**
+     * Повторный запуск перераспределения отчетов уволенного сотрудника.
+     *
+     * @param id идентификатор уволенного сотрудника
+     * @return состояние задачи или ошибка
+     */
+    @PostMapping("/{id}/offboarding")
+    @PreAuthorize("hasAuthority('UpdateUsers')")
+    public ResponseEntity<ServiceResponse<OffboardingProgress>> restartOffboarding(@PathVariable("id") Long id) {
+        try {
+            ServiceResponse<OffboardingProgress> response = userService.reassignReportsOfFiredUser(id);
+            return new ResponseEntity<>(response, response.status());
+        } catch (Exception e) {
+            logger.error("Ошибка при запуске перераспределения отчетов", e);
+            return new ResponseEntity<>(
+                    new ServiceResponse<>(
+                            null,
+                            "Не удалось запустить перераспределение отчетов: " + e.getMessage(),
+                            HttpStatus.INTERNAL_SERVER_ERROR
+                    ),
+                    HttpStatus.INTERNAL_SERVER_ERROR
+            );
+        }
+    }
+
+    private static boolean canAssignGroups() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch("ManageUserGroups"::equals);
+    }
+
+    private <T> ResponseEntity<ServiceResponse<T>> queryTimedOut() {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ServiceResponse<>(
+                        null,
+                        "Превышено время выполнения запроса, повторите попытку позже",
+                        HttpStatus.SERVICE_UNAVAILABLE
+                ));
+    }
+
+    private ResponseEntity<ServiceResponse<BulkGroupMembershipResult>> changeGroupMemberships(
+            BulkGroupMembershipRequest request, boolean add) {
+        if (request.getUserIds().size() > MAX_BULK_MEMBERSHIP_IDS || request.getGroupIds().size() > MAX_BULK_MEMBERSHIP_IDS) {
+            return new ResponseEntity<>(
+                    new ServiceResponse<>(null, "Слишком много идентификаторов в запросе", HttpStatus.BAD_REQUEST),
+                    HttpStatus.BAD_REQUEST
+            );
+        }
+        try {
+            ServiceResponse<BulkGroupMembershipResult> response = add
+                    ? userService.addUsersToGroups(request.getUserIds(), request.getGroupIds())
+                    : userService.removeUsersFromGroups(request.getUserIds(), request.getGroupIds());
+            return new ResponseEntity<>(response, response.status());
+        } catch (Exception e) {
+            if (queryGuard.recordTimeout("user-write", e)) {
+                return queryTimedOut();
+            }
+            logger.error("Непредвиденная ошибка при массовом изменении групп пользователей", e);
+            return new ResponseEntity<>(
+                    new ServiceResponse<>(
+                            null,
+                            "Не удалось изменить группы пользователей: " + e.getMessage(),
+                            HttpStatus.INTERNAL_SERVER_ERROR
+                    ),
+                    HttpStatus.INTERNAL_SERVER_ERROR
+            );
+        }
+    }
+}
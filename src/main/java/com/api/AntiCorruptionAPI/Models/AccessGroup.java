@@ -3,6 +3,8 @@ package com.api.AntiCorruptionAPI.Models;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -11,13 +13,26 @@ import java.util.Set;
  * Модель представляет группу доступа в системе.
  *
  * Используется для группировки пользователей и определения их прав.
+ * Группы меняются редко, поэтому хранятся в кэше второго уровня (регион {@code accessGroups}).
  */
 @Getter
 @Setter
 @Entity
 @Table(name = "access_groups")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AccessGroup.CACHE_REGION)
 public class AccessGroup {
 
+    /**
+     * Регион кэша второго уровня для групп доступа.
+     */
+    public static final String CACHE_REGION = "accessGroups";
+
+    /**
+     * Регион кэша результата запроса списка групп доступа.
+     */
+    public static final String LIST_CACHE_REGION = "accessGroupList";
+
     /**
      * Уникальный идентификатор группы доступа.
      * Автоматически генерируется базой данных.
@@ -0,0 +1,61 @@
+package com.api.AntiCorruptionAPI.Models;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Запись журнала аудита об изменении сущности.
+ * <p>
+ * Фиксирует, кто, когда и какие поля изменил, со значениями до и после изменения.
+ *
+ * @param sequence   порядковый номер записи в журнале
+ * @param timestamp  момент изменения
+ * @param entityType тип измененной сущности
+ * @param action     выполненное действие
+ * @param entityId   идентификатор измененной сущности
+ * @param actorId    идентификатор пользователя, выполнившего изменение (null, если неизвестен)
+ * @param changes    список измененных полей
+ */
+public record AuditRecord(
+        long sequence,
+        Instant timestamp,
+        EntityType entityType,
+        Action action,
+        long entityId,
+        Long actorId,
+        List<FieldChange> changes
+) {
+
+    /**
+     * Тип сущности, к которой относится запись аудита.
+     */
+    public enum EntityType {
+        REPORT,
+        USER,
+        ACCESS_GROUP
+    }
+
+    /**
+     * Действие, зафиксированное в журнале аудита.
+     */
+    public enum Action {
+        CREATE,
+        UPDATE,
+        DELETE,
+        ASSIGN,
+        ADD_TO_GROUP,
+        REMOVE_FROM_GROUP,
+        PASSWORD_CHANGE
+    }
+
+    /**
+     * Изменение отдельного поля сущности.
+     *
+     * @param field  имя поля
+     * @param before значение до изменения (null, если отсутствовало)
+     * @param after  значение после изменения (null, если удалено)
+     */
+    public record FieldChange(String field, String before, String after) {
+
+    }
+}
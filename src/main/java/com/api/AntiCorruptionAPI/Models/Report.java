@@ -2,7 +2,6 @@ package com.api.AntiCorruptionAPI.Models;
 
 import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDate;
@@ -16,7 +15,9 @@ import java.time.LocalTime;
  * статус обработки и результаты расследования.
  */
 @Entity
-@Table(name = "reports")
+@Table(name = "reports", indexes = {
+        @Index(name = "idx_reports_change_seq", columnList = "change_seq")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -34,9 +35,9 @@ public class Report {
 
     /**
      * Дата и время подачи сообщения.
-     * Автоматически устанавливается при создании записи.
+     * Устанавливается сервисом при создании записи; для отчетов, принятых через очередь, —
+     * время приема в очередь, а не время переноса в базу данных.
      */
-    @CreationTimestamp
     @Column(name = "date_submitted", nullable = false, updatable = false)
     private LocalDateTime dateSubmitted;
 
@@ -115,6 +116,20 @@ public class Report {
     @Column(name = "solution", length = 2000)
     private String solution;
 
+    /**
+     * Порядковый номер последнего изменения отчета.
+     * Монотонно возрастает и используется лентой изменений для синхронизации клиентов.
+     */
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
+    /**
+     * Идентификатор приема отчета через очередь отложенной записи.
+     * Уникален и используется для исключения повторной вставки при восстановлении.
+     */
+    @Column(name = "intake_id", unique = true, length = 36)
+    private String intakeId;
+
     /**
      * Перечисление статусов обработки отчета.
      */
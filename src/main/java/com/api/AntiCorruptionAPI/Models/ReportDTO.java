@@ -38,6 +38,8 @@ public class ReportDTO extends Report {
         setAssignedTo(report.getAssignedTo());
         setLastUpdated(report.getLastUpdated());
         setSolution(report.getSolution());
+        setChangeSeq(report.getChangeSeq());
+        setIntakeId(report.getIntakeId());
 
         // Устанавливаем дополнительное поле
         this.assignedToFullName = assignedToFullName;
@@ -0,0 +1,18 @@
+package com.api.AntiCorruptionAPI.Models;
+
+import java.time.Instant;
+
+/**
+ * Запись журнала предзаписи (write-ahead log) о принятом отчете.
+ * <p>
+ * Содержит все данные, необходимые для последующей вставки отчета в базу данных
+ * фоновым обработчиком очереди приема.
+ *
+ * @param trackingId идентификатор отслеживания, выданный клиенту
+ * @param reporterId идентификатор пользователя, подавшего отчет
+ * @param receivedAt момент приема отчета
+ * @param report     данные отчета
+ */
+public record ReportIntakeEntry(String trackingId, Long reporterId, Instant receivedAt, Report report) {
+
+}
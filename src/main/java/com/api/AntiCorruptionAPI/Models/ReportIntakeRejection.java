@@ -0,0 +1,47 @@
+package com.api.AntiCorruptionAPI.Models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Модель представляет отклоненную запись очереди приема отчетов.
+ *
+ * Сохраняется, если отчет из журнала предзаписи не может быть вставлен из-за
+ * некорректных данных, чтобы автор мог узнать причину и после перезапуска приложения.
+ */
+@Entity
+@Table(name = "report_intake_rejections")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportIntakeRejection {
+
+    /**
+     * Идентификатор отслеживания отчета.
+     */
+    @Id
+    @Column(name = "tracking_id", length = 36)
+    private String trackingId;
+
+    /**
+     * Автор отчета.
+     */
+    @Column(name = "reporter_id", nullable = false)
+    private Long reporterId;
+
+    /**
+     * Причина отклонения.
+     */
+    @Column(name = "message", length = 2000)
+    private String message;
+
+    /**
+     * Дата и время отклонения.
+     */
+    @Column(name = "rejected_at", nullable = false)
+    private LocalDateTime rejectedAt;
+}
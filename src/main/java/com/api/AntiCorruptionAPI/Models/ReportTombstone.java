@@ -0,0 +1,50 @@
+package com.api.AntiCorruptionAPI.Models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Модель представляет отметку об удалении отчета ("надгробие").
+ *
+ * Сохраняется при удалении отчета, чтобы клиенты, синхронизирующиеся
+ * через ленту изменений, могли удалить отчет из локальной копии.
+ */
+@Entity
+@Table(name = "report_tombstones", indexes = {
+        @Index(name = "idx_report_tombstones_change_seq", columnList = "change_seq")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportTombstone {
+
+    /**
+     * Идентификатор удаленного отчета.
+     */
+    @Id
+    @Column(name = "report_id")
+    private Long reportId;
+
+    /**
+     * Порядковый номер изменения, соответствующий удалению.
+     */
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    /**
+     * Сотрудник, которому был назначен отчет на момент удаления.
+     * Используется для ограничения видимости отметки.
+     */
+    @Column(name = "assigned_to")
+    private Long assignedTo;
+
+    /**
+     * Дата и время удаления отчета.
+     */
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
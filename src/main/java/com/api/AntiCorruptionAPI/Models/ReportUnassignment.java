@@ -0,0 +1,55 @@
+package com.api.AntiCorruptionAPI.Models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Модель представляет отметку о снятии отчета с сотрудника.
+ *
+ * Сохраняется при переназначении отчета другому сотруднику, чтобы клиент прежнего
+ * исполнителя, синхронизирующийся через ленту изменений, удалил отчет из локальной копии.
+ */
+@Entity
+@Table(name = "report_unassignments", indexes = {
+        @Index(name = "idx_report_unassignments_assigned_to_change_seq", columnList = "assigned_to, change_seq")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportUnassignment {
+
+    /**
+     * Уникальный идентификатор отметки.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Идентификатор переназначенного отчета.
+     */
+    @Column(name = "report_id", nullable = false)
+    private Long reportId;
+
+    /**
+     * Номер изменения, присвоенный отчету при переназначении.
+     */
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    /**
+     * Сотрудник, с которого снят отчет.
+     */
+    @Column(name = "assigned_to", nullable = false)
+    private Long assignedTo;
+
+    /**
+     * Дата и время переназначения.
+     */
+    @Column(name = "unassigned_at", nullable = false)
+    private LocalDateTime unassignedAt;
+}
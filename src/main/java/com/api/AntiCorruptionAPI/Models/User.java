@@ -3,6 +3,9 @@ package com.api.AntiCorruptionAPI.Models;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
@@ -40,10 +43,18 @@ public class User {
     @Column(nullable = false)
     private String password;
 
+    /**
+     * Регион кэша второго уровня для связи пользователя с группами доступа.
+     */
+    public static final String GROUPS_CACHE_REGION = "userGroups";
+
     /**
      * Группы доступа, к которым принадлежит пользователь.
+     * Идентификаторы групп кэшируются, сами группы берутся из кэша {@link AccessGroup}.
      */
     @ManyToMany(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = GROUPS_CACHE_REGION)
+    @BatchSize(size = 100)
     @JoinTable(name = "user_groups", joinColumns = @JoinColumn(name = "user_id"), inverseJoinColumns = @JoinColumn(name = "group_id"))
     private Set<AccessGroup> groups = new HashSet<>();
 
@@ -73,12 +84,6 @@ public class User {
      */
     private String gender;
 
-    /**
-     * Фотография сотрудника.
-     */
-    @Lob
-    private byte[] photo;
-
     /**
      * Паспортные данные.
      */
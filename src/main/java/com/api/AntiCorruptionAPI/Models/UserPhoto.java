@@ -0,0 +1,59 @@
+package com.api.AntiCorruptionAPI.Models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Модель представляет фотографию сотрудника.
+ *
+ * Хранится в отдельной таблице, чтобы загрузка пользователя (аутентификация,
+ * списки сотрудников) не читала содержимое фотографии.
+ */
+@Entity
+@Table(name = "user_photos")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserPhoto {
+
+    /**
+     * Идентификатор пользователя, которому принадлежит фотография.
+     */
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    /**
+     * Содержимое фотографии.
+     */
+    @Column(name = "data", nullable = false)
+    private byte[] data;
+
+    /**
+     * MIME-тип фотографии (null — не определен, например, после переноса старых данных).
+     */
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    /**
+     * Размер фотографии в байтах.
+     */
+    @Column(name = "size_bytes", nullable = false)
+    private Long size;
+
+    /**
+     * Хэш содержимого (MD5), используемый как ETag.
+     */
+    @Column(name = "etag", nullable = false, length = 32)
+    private String etag;
+
+    /**
+     * Дата и время загрузки фотографии.
+     */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
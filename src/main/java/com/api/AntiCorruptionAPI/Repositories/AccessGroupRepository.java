@@ -1,9 +1,15 @@
 package com.api.AntiCorruptionAPI.Repositories;
 
 import com.api.AntiCorruptionAPI.Models.AccessGroup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * Репозиторий для управления группами доступа в системе.
  * <p>
@@ -11,4 +17,16 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface AccessGroupRepository extends JpaRepository<AccessGroup, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Получение всех групп доступа с использованием кэша запросов.
+     *
+     * @return список групп доступа, упорядоченный по идентификатору
+     */
+    @Query("select g from AccessGroup g order by g.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = AccessGroup.LIST_CACHE_REGION)
+    })
+    List<AccessGroup> findAllCached();
+}
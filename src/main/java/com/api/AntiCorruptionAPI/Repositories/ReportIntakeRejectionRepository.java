@@ -0,0 +1,12 @@
+package com.api.AntiCorruptionAPI.Repositories;
+
+import com.api.AntiCorruptionAPI.Models.ReportIntakeRejection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Репозиторий для отклоненных записей очереди приема отчетов.
+ */
+@Repository
+public interface ReportIntakeRejectionRepository extends JpaRepository<ReportIntakeRejection, String> {
+}
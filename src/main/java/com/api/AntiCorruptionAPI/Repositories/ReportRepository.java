@@ -1,11 +1,19 @@
 package com.api.AntiCorruptionAPI.Repositories;
 
 import com.api.AntiCorruptionAPI.Models.Report;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Репозиторий для управления отчетами в системе.
@@ -22,4 +30,78 @@ public interface ReportRepository extends JpaRepository<Report, Long>, JpaSpecif
      * @return список отчетов
      */
     List<Report> findByAssignedTo(Long assignedTo);
-}
\ No newline at end of file
+
+    /**
+     * Получение следующего номера изменения из последовательности отчетов.
+     *
+     * @return новый номер изменения
+     */
+    @Query(value = "SELECT nextval('report_change_seq')", nativeQuery = true)
+    Long nextChangeSeq();
+
+    /**
+     * Получение нескольких номеров изменения одним запросом.
+     *
+     * @param count количество номеров
+     * @return новые номера изменения в порядке возрастания
+     */
+    @Query(value = "SELECT nextval('report_change_seq') FROM generate_series(1, :count)", nativeQuery = true)
+    List<Long> nextChangeSeqs(@Param("count") int count);
+
+    /**
+     * Поиск отчетов по идентификаторам с блокировкой строк до конца транзакции.
+     * Строки блокируются в порядке идентификаторов, чтобы параллельные пакеты не взаимоблокировались.
+     *
+     * @param ids идентификаторы отчетов
+     * @return найденные отчеты
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Report r where r.id in :ids order by r.id")
+    List<Report> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Номер изменения (версия) отчета.
+     *
+     * @param id идентификатор отчета
+     * @return номер изменения или null, если отчет не найден
+     */
+    @Query("select r.changeSeq from Report r where r.id = :id")
+    Long findChangeSeqById(@Param("id") Long id);
+
+    /**
+     * Поиск отчетов, измененных после указанного номера изменения.
+     *
+     * @param changeSeq номер изменения (курсор)
+     * @param pageable  ограничение размера выборки
+     * @return список отчетов, упорядоченный по номеру изменения
+     */
+    List<Report> findByChangeSeqGreaterThanOrderByChangeSeqAsc(Long changeSeq, Pageable pageable);
+
+    /**
+     * Поиск отчетов сотрудника, измененных после указанного номера изменения.
+     *
+     * @param assignedTo идентификатор сотрудника
+     * @param changeSeq  номер изменения (курсор)
+     * @param pageable   ограничение размера выборки
+     * @return список отчетов, упорядоченный по номеру изменения
+     */
+    List<Report> findByAssignedToAndChangeSeqGreaterThanOrderByChangeSeqAsc(
+            Long assignedTo, Long changeSeq, Pageable pageable);
+
+    /**
+     * Поиск отчета по идентификатору приема через очередь.
+     *
+     * @param intakeId идентификатор отслеживания
+     * @return Optional с отчетом
+     */
+    Optional<Report> findByIntakeId(String intakeId);
+
+    /**
+     * Поиск уже вставленных идентификаторов приема среди указанных.
+     *
+     * @param intakeIds идентификаторы отслеживания
+     * @return множество существующих идентификаторов
+     */
+    @Query("select r.intakeId from Report r where r.intakeId in :intakeIds")
+    Set<String> findExistingIntakeIds(@Param("intakeIds") Collection<String> intakeIds);
+}
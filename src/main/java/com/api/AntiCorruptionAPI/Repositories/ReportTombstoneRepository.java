@@ -0,0 +1,38 @@
+package com.api.AntiCorruptionAPI.Repositories;
+
+import com.api.AntiCorruptionAPI.Models.ReportTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Репозиторий для отметок об удалении отчетов.
+ * <p>
+ * Используется лентой изменений для передачи клиентам удаленных отчетов.
+ */
+@Repository
+public interface ReportTombstoneRepository extends JpaRepository<ReportTombstone, Long> {
+
+    /**
+     * Поиск отметок об удалении, созданных после указанного номера изменения.
+     *
+     * @param changeSeq номер изменения (курсор)
+     * @param pageable  ограничение размера выборки
+     * @return список отметок, упорядоченный по номеру изменения
+     */
+    List<ReportTombstone> findByChangeSeqGreaterThanOrderByChangeSeqAsc(Long changeSeq, Pageable pageable);
+
+    /**
+     * Поиск отметок об удалении отчетов, назначенных сотруднику,
+     * созданных после указанного номера изменения.
+     *
+     * @param assignedTo идентификатор сотрудника
+     * @param changeSeq  номер изменения (курсор)
+     * @param pageable   ограничение размера выборки
+     * @return список отметок, упорядоченный по номеру изменения
+     */
+    List<ReportTombstone> findByAssignedToAndChangeSeqGreaterThanOrderByChangeSeqAsc(
+            Long assignedTo, Long changeSeq, Pageable pageable);
+}
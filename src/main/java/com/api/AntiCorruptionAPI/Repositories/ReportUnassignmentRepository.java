@@ -0,0 +1,28 @@
+package com.api.AntiCorruptionAPI.Repositories;
+
+import com.api.AntiCorruptionAPI.Models.ReportUnassignment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Репозиторий для отметок о снятии отчетов с сотрудников.
+ * <p>
+ * Используется лентой изменений для передачи прежнему исполнителю переназначенных отчетов.
+ */
+@Repository
+public interface ReportUnassignmentRepository extends JpaRepository<ReportUnassignment, Long> {
+
+    /**
+     * Поиск отметок о снятии отчетов с сотрудника, созданных после указанного номера изменения.
+     *
+     * @param assignedTo идентификатор прежнего исполнителя
+     * @param changeSeq  номер изменения (курсор)
+     * @param pageable   ограничение размера выборки
+     * @return список отметок, упорядоченный по номеру изменения
+     */
+    List<ReportUnassignment> findByAssignedToAndChangeSeqGreaterThanOrderByChangeSeqAsc(
+            Long assignedTo, Long changeSeq, Pageable pageable);
+}
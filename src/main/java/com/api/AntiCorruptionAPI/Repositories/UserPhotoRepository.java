@@ -0,0 +1,56 @@
+package com.api.AntiCorruptionAPI.Repositories;
+
+import com.api.AntiCorruptionAPI.Models.UserPhoto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Репозиторий для управления фотографиями сотрудников.
+ * <p>
+ * Позволяет получать сведения о фотографии без чтения ее содержимого.
+ */
+@Repository
+public interface UserPhotoRepository extends JpaRepository<UserPhoto, Long> {
+
+    /**
+     * Сведения о фотографии без содержимого.
+     */
+    interface Info {
+        Long getUserId();
+
+        String getContentType();
+
+        Long getSize();
+
+        String getEtag();
+
+        LocalDateTime getUpdatedAt();
+    }
+
+    /**
+     * Получение сведений о фотографии пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return Optional со сведениями о фотографии
+     */
+    @Query("select p.userId as userId, p.contentType as contentType, p.size as size, p.etag as etag, " +
+            "p.updatedAt as updatedAt from UserPhoto p where p.userId = :userId")
+    Optional<Info> findInfoByUserId(@Param("userId") Long userId);
+
+    /**
+     * Сохранение определенного MIME-типа фотографии.
+     *
+     * @param userId      идентификатор пользователя
+     * @param contentType MIME-тип
+     * @return количество обновленных записей
+     */
+    @Modifying
+    @Query("update UserPhoto p set p.contentType = :contentType where p.userId = :userId")
+    int updateContentType(@Param("userId") Long userId, @Param("contentType") String contentType);
+}
@@ -1,9 +1,14 @@
 package com.api.AntiCorruptionAPI.Repositories;
 
 import com.api.AntiCorruptionAPI.Models.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +20,36 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /**
+     * Краткие сведения о пользователе для справочника сотрудников.
+     */
+    interface DirectoryRow {
+        Long getId();
+
+        String getUsername();
+
+        String getLastName();
+
+        String getFirstName();
+
+        String getMiddleName();
+
+        String getPosition();
+
+        String getDepartment();
+
+        Boolean getIsFired();
+    }
+
+    /**
+     * Пара "пользователь — название группы доступа".
+     */
+    interface GroupMembershipRow {
+        Long getUserId();
+
+        String getGroupName();
+    }
+
     /**
      * Поиск пользователя по логину.
      *
@@ -30,5 +65,46 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return список пользователей
      */
     List<User> findByGroupsName(String groupName);
-}
 
+    /**
+     * Страница справочника сотрудников без персональных данных и групп.
+     *
+     * @param pageable параметры страницы
+     * @return страница кратких сведений, упорядоченная по ФИО
+     */
+    @Query(value = "select u.id as id, u.username as username, u.lastName as lastName, u.firstName as firstName, " +
+            "u.middleName as middleName, u.position as position, u.department as department, u.isFired as isFired " +
+            "from User u order by u.lastName, u.firstName, u.id",
+            countQuery = "select count(u) from User u")
+    Page<DirectoryRow> findDirectoryPage(Pageable pageable);
+
+    /**
+     * Названия групп доступа для набора пользователей одним запросом.
+     *
+     * @param userIds идентификаторы пользователей
+     * @return пары "пользователь — название группы"
+     */
+    @Query("select u.id as userId, g.name as groupName from User u join u.groups g " +
+            "where u.id in :userIds order by g.name")
+    List<GroupMembershipRow> findGroupNames(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Поиск существующих идентификаторов пользователей среди указанных.
+     *
+     * @param ids идентификаторы пользователей
+     * @return существующие идентификаторы
+     */
+    @Query("select u.id from User u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Идентификаторы действующих сотрудников группы, кроме указанного.
+     *
+     * @param groupName  название группы
+     * @param excludedId идентификатор исключаемого сотрудника
+     * @return идентификаторы по возрастанию
+     */
+    @Query("select u.id from User u join u.groups g where g.name = :groupName " +
+            "and (u.isFired = false or u.isFired is null) and u.id <> :excludedId order by u.id")
+    List<Long> findActiveIdsByGroupName(@Param("groupName") String groupName, @Param("excludedId") Long excludedId);
+}
@@ -0,0 +1,30 @@
+package com.api.AntiCorruptionAPI.Requests;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Запрос на массовое добавление (удаление) пользователей в группы доступа.
+ * <p>
+ * Операция применяется ко всем парам "пользователь — группа".
+ */
+@Getter
+@Setter
+public class BulkGroupMembershipRequest implements Serializable {
+
+    /**
+     * Идентификаторы пользователей.
+     */
+    @NotEmpty(message = "Список пользователей не может быть пустым")
+    private List<Long> userIds;
+
+    /**
+     * Идентификаторы групп доступа.
+     */
+    @NotEmpty(message = "Список групп не может быть пустым")
+    private List<Long> groupIds;
+}
@@ -0,0 +1,23 @@
+package com.api.AntiCorruptionAPI.Requests;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Запрос на получение нескольких отчетов по идентификаторам.
+ */
+@Getter
+@Setter
+public class ReportBatchGetRequest implements Serializable {
+
+    /**
+     * Идентификаторы отчетов (повторы игнорируются).
+     */
+    @NotEmpty(message = "Список отчетов не может быть пустым")
+    private List<@NotNull(message = "Идентификатор отчета не может быть пустым") Long> ids;
+}
@@ -0,0 +1,87 @@
+package com.api.AntiCorruptionAPI.Requests;
+
+import com.api.AntiCorruptionAPI.Models.Report;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Запрос на выполнение нескольких изменений отчетов в одной транзакции.
+ * <p>
+ * Операции применяются в порядке следования; несколько операций над одним отчетом допустимы.
+ */
+@Getter
+@Setter
+public class ReportBatchOperationsRequest implements Serializable {
+
+    /**
+     * Режим "все или ничего": при ошибке в любой операции не применяется ни одна.
+     */
+    private boolean atomic;
+
+    /**
+     * Операции над отчетами.
+     */
+    @NotEmpty(message = "Список операций не может быть пустым")
+    private List<@Valid @NotNull(message = "Операция не может быть пустой") Operation> operations;
+
+    /**
+     * Тип операции над отчетом.
+     */
+    public enum Type {
+        /**
+         * Назначение сотрудника (право AssignProcessReport).
+         */
+        ASSIGN,
+
+        /**
+         * Изменение статуса (право SolveReport).
+         */
+        STATUS,
+
+        /**
+         * Изменение решения (право SolveReport).
+         */
+        SOLUTION
+    }
+
+    /**
+     * Одна операция над отчетом.
+     */
+    @Getter
+    @Setter
+    public static class Operation implements Serializable {
+
+        /**
+         * Тип операции.
+         */
+        @NotNull(message = "Тип операции не может быть пустым")
+        private Type type;
+
+        /**
+         * Идентификатор отчета.
+         */
+        @NotNull(message = "Идентификатор отчета не может быть пустым")
+        private Long reportId;
+
+        /**
+         * Идентификатор назначаемого сотрудника (для ASSIGN).
+         */
+        private Long assignedTo;
+
+        /**
+         * Новый статус (для STATUS).
+         */
+        private Report.ReportStatus status;
+
+        /**
+         * Новое решение (для SOLUTION).
+         */
+        private String solution;
+    }
+}
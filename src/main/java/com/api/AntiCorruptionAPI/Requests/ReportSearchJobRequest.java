@@ -0,0 +1,53 @@
+package com.api.AntiCorruptionAPI.Requests;
+
+import com.api.AntiCorruptionAPI.Models.Report;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Критерии фоновой задачи поиска отчетов.
+ * <p>
+ * Совпадают с параметрами {@code GET /api/reports/filter}; все критерии необязательны.
+ */
+@Getter
+@Setter
+public class ReportSearchJobRequest implements Serializable {
+
+    /**
+     * Идентификатор автора отчета.
+     */
+    private Long reporterId;
+
+    /**
+     * Начальная дата периода инцидента (учитывается вместе с конечной).
+     */
+    private LocalDate startIncidentDate;
+
+    /**
+     * Конечная дата периода инцидента (учитывается вместе с начальной).
+     */
+    private LocalDate endIncidentDate;
+
+    /**
+     * Местоположение инцидента (все слова должны встречаться).
+     */
+    private String incidentLocation;
+
+    /**
+     * Вовлеченные лица (все слова должны встречаться).
+     */
+    private String involvedPersons;
+
+    /**
+     * Статус отчета.
+     */
+    private Report.ReportStatus status;
+
+    /**
+     * Идентификатор назначенного сотрудника.
+     */
+    private Long assignedTo;
+}
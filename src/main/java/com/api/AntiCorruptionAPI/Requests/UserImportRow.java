@@ -0,0 +1,27 @@
+package com.api.AntiCorruptionAPI.Requests;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Строка массового импорта пользователей (CSV или NDJSON).
+ */
+@Getter
+@Setter
+public class UserImportRow {
+    private String username;
+    private String password;
+    private String employeeId;
+    private String lastName;
+    private String firstName;
+    private String middleName;
+    private String position;
+    private String department;
+    private String email;
+    private String phoneNumber;
+
+    private List<String> groups = new ArrayList<>(); // Названия групп доступа
+}
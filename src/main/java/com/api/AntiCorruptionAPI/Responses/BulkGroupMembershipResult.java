@@ -0,0 +1,11 @@
+package com.api.AntiCorruptionAPI.Responses;
+
+/**
+ * Результат массового изменения членства в группах доступа.
+ *
+ * @param users   количество пользователей в запросе
+ * @param groups  количество групп в запросе
+ * @param changed количество добавленных (удаленных) связей; уже существующие (отсутствующие) не учитываются
+ */
+public record BulkGroupMembershipResult(int users, int groups, int changed) {
+}
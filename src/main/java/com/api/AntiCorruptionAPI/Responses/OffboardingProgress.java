@@ -0,0 +1,29 @@
+package com.api.AntiCorruptionAPI.Responses;
+
+import java.time.Instant;
+
+/**
+ * Ход перераспределения отчетов уволенного сотрудника.
+ *
+ * @param userId     идентификатор уволенного сотрудника
+ * @param status     состояние задачи
+ * @param total      количество открытых отчетов на момент запуска
+ * @param reassigned количество уже перераспределенных отчетов
+ * @param agents     количество сотрудников, между которыми распределяются отчеты
+ * @param startedAt  время запуска
+ * @param finishedAt время завершения (null, если задача выполняется)
+ * @param error      причина ошибки
+ */
+public record OffboardingProgress(Long userId, Status status, long total, long reassigned, int agents,
+                                  Instant startedAt, Instant finishedAt, String error) {
+
+    /**
+     * Состояние задачи перераспределения.
+     */
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        NO_AGENTS,
+        FAILED
+    }
+}
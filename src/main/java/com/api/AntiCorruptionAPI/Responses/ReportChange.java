@@ -0,0 +1,19 @@
+package com.api.AntiCorruptionAPI.Responses;
+
+import com.api.AntiCorruptionAPI.Models.ReportDTO;
+
+/**
+ * Элемент ленты изменений отчетов.
+ * <p>
+ * Описывает либо актуальное состояние измененного отчета, либо факт его удаления.
+ * Для пользователя, видящего только назначенные ему отчеты, удалением считается
+ * и переназначение отчета другому сотруднику.
+ *
+ * @param changeSeq номер изменения
+ * @param reportId  идентификатор отчета
+ * @param deleted   признак удаления отчета из локальной копии клиента
+ * @param report    актуальное состояние отчета (null для удаленных отчетов)
+ */
+public record ReportChange(long changeSeq, Long reportId, boolean deleted, ReportDTO report) {
+
+}
@@ -0,0 +1,19 @@
+package com.api.AntiCorruptionAPI.Responses;
+
+import java.util.List;
+
+/**
+ * Страница ленты изменений отчетов.
+ * <p>
+ * Клиент передает {@code nextCursor} в следующем запросе, пока {@code hasMore} равно true.
+ * Если следующее изменение еще не "осело", {@code hasMore} равно false, а {@code retryAfterMs}
+ * указывает, через сколько миллисекунд его можно будет получить.
+ *
+ * @param changes      изменения, упорядоченные по номеру изменения
+ * @param nextCursor   курсор для запроса следующей страницы
+ * @param hasMore      признак наличия следующих изменений, доступных сразу
+ * @param retryAfterMs через сколько миллисекунд станут доступны задержанные изменения (0 — задержанных нет)
+ */
+public record ReportChangesResponse(List<ReportChange> changes, long nextCursor, boolean hasMore, long retryAfterMs) {
+
+}
@@ -0,0 +1,22 @@
+package com.api.AntiCorruptionAPI.Responses;
+
+import com.api.AntiCorruptionAPI.Models.Report;
+
+/**
+ * Результат получения одного отчета в пакетном запросе.
+ *
+ * @param id     запрошенный идентификатор
+ * @param status результат поиска
+ * @param report отчет (только при статусе {@code FOUND})
+ */
+public record ReportLookupResult(Long id, Status status, Report report) {
+
+    /**
+     * Результат поиска отчета.
+     */
+    public enum Status {
+        FOUND,
+        NOT_FOUND,
+        FORBIDDEN
+    }
+}
@@ -0,0 +1,25 @@
+package com.api.AntiCorruptionAPI.Responses;
+
+import com.api.AntiCorruptionAPI.Requests.ReportBatchOperationsRequest;
+
+/**
+ * Результат одной операции пакетного изменения отчетов.
+ *
+ * @param index    порядковый номер операции в запросе (с нуля)
+ * @param type     тип операции
+ * @param reportId идентификатор отчета
+ * @param status   результат
+ * @param message  причина ошибки или пропуска
+ */
+public record ReportOperationResult(int index, ReportBatchOperationsRequest.Type type, Long reportId,
+                                    Status status, String message) {
+
+    /**
+     * Результат операции.
+     */
+    public enum Status {
+        APPLIED,
+        FAILED,
+        SKIPPED
+    }
+}
@@ -0,0 +1,31 @@
+package com.api.AntiCorruptionAPI.Responses;
+
+import java.time.Instant;
+
+/**
+ * Состояние фоновой задачи поиска отчетов.
+ *
+ * @param id          идентификатор задачи
+ * @param status      состояние задачи
+ * @param rows        количество найденных (уже записанных) отчетов
+ * @param truncated   true, если результат обрезан по максимальному количеству строк
+ * @param submittedAt время постановки в очередь
+ * @param startedAt   время начала выполнения (null, если задача в очереди)
+ * @param finishedAt  время завершения (null, если задача не завершена)
+ * @param expiresAt   время удаления результатов (null, если задача не завершена)
+ * @param error       причина ошибки
+ */
+public record ReportSearchJob(String id, Status status, long rows, boolean truncated, Instant submittedAt,
+                              Instant startedAt, Instant finishedAt, Instant expiresAt, String error) {
+
+    /**
+     * Состояние задачи поиска.
+     */
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+}
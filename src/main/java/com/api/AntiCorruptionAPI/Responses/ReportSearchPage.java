@@ -0,0 +1,20 @@
+package com.api.AntiCorruptionAPI.Responses;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * Страница результатов фоновой задачи поиска отчетов.
+ * <p>
+ * Отчеты читаются из файла результатов задачи и передаются в том же виде,
+ * что и в ответе {@code GET /api/reports/filter}.
+ *
+ * @param jobId   идентификатор задачи
+ * @param offset  номер первого отчета страницы (с нуля)
+ * @param total   общее количество отчетов в результате
+ * @param hasMore true, если после страницы есть еще отчеты
+ * @param reports отчеты страницы
+ */
+public record ReportSearchPage(String jobId, long offset, long total, boolean hasMore, List<JsonNode> reports) {
+}
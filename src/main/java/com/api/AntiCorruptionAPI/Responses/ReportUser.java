@@ -0,0 +1,14 @@
+package com.api.AntiCorruptionAPI.Responses;
+
+/**
+ * Пользователь, связанный с отчетом (назначенный сотрудник или автор), в GraphQL API.
+ * <p>
+ * Содержит только те сведения, которые REST API отдает вместе с отчетом:
+ * идентификатор и полное имя. Контактные данные и группы доступны через запрос {@code users}.
+ *
+ * @param id       идентификатор пользователя
+ * @param fullName фамилия, имя и отчество через пробел
+ */
+public record ReportUser(Long id, String fullName) {
+
+}
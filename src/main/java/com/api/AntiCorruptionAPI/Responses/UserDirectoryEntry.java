@@ -0,0 +1,30 @@
+package com.api.AntiCorruptionAPI.Responses;
+
+import java.util.List;
+
+/**
+ * Запись справочника сотрудников.
+ *
+ * @param id         идентификатор пользователя
+ * @param username   логин
+ * @param lastName   фамилия
+ * @param firstName  имя
+ * @param middleName отчество
+ * @param position   должность
+ * @param department подразделение
+ * @param isFired    признак увольнения
+ * @param groups     названия групп доступа
+ */
+public record UserDirectoryEntry(
+        Long id,
+        String username,
+        String lastName,
+        String firstName,
+        String middleName,
+        String position,
+        String department,
+        Boolean isFired,
+        List<String> groups
+) {
+
+}
@@ -0,0 +1,22 @@
+package com.api.AntiCorruptionAPI.Responses;
+
+import java.util.List;
+
+/**
+ * Страница справочника сотрудников.
+ *
+ * @param users         записи страницы
+ * @param page          номер страницы (с нуля)
+ * @param size          размер страницы
+ * @param totalElements общее количество сотрудников
+ * @param totalPages    общее количество страниц
+ */
+public record UserDirectoryPage(
+        List<UserDirectoryEntry> users,
+        int page,
+        int size,
+        long totalElements,
+        int totalPages
+) {
+
+}
@@ -0,0 +1,35 @@
+package com.api.AntiCorruptionAPI.Responses;
+
+import java.util.List;
+
+/**
+ * Результат массового импорта пользователей.
+ *
+ * @param total   количество строк во входных данных
+ * @param created количество созданных пользователей
+ * @param failed  количество отклоненных строк
+ * @param rows    результаты по каждой строке в порядке входных данных
+ */
+public record UserImportResult(int total, int created, int failed, List<Row> rows) {
+
+    /**
+     * Состояние строки импорта.
+     */
+    public enum Status {
+        CREATED,
+        FAILED
+    }
+
+    /**
+     * Результат обработки одной строки.
+     *
+     * @param row      номер строки данных (с единицы, без заголовка CSV)
+     * @param username логин из строки
+     * @param status   состояние
+     * @param userId   идентификатор созданного пользователя
+     * @param error    причина отказа
+     */
+    public record Row(int row, String username, Status status, Long userId, String error) {
+
+    }
+}
@@ -0,0 +1,14 @@
+package com.api.AntiCorruptionAPI.Responses;
+
+import java.nio.file.Path;
+
+/**
+ * Файл фотографии сотрудника в дисковом кэше.
+ *
+ * @param file        путь к файлу
+ * @param contentType MIME-тип файла
+ * @param etag        ETag содержимого (без кавычек)
+ */
+public record UserPhotoFile(Path file, String contentType, String etag) {
+
+}
@@ -1,12 +1,19 @@
 package com.api.AntiCorruptionAPI.Services;
 
+import com.api.AntiCorruptionAPI.Components.PrincipalCache;
 import com.api.AntiCorruptionAPI.Models.AccessGroup;
+import com.api.AntiCorruptionAPI.Models.AuditRecord;
+import com.api.AntiCorruptionAPI.Models.User;
 import com.api.AntiCorruptionAPI.Repositories.AccessGroupRepository;
 import com.api.AntiCorruptionAPI.Responses.ServiceResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -14,6 +21,9 @@ import java.util.Optional;
  * <p>
  * Предоставляет функционал для работы с группами доступа,
  * включая получение списка и выполнение операций с ними.
+ * <p>
+ * Группы доступа и список групп хранятся в кэше второго уровня Hibernate;
+ * при создании и удалении группы соответствующие регионы кэша очищаются.
  */
 @Service
 public class AccessGroupService {
@@ -23,13 +33,35 @@ public class AccessGroupService {
      */
     private final AccessGroupRepository accessGroupRepository;
 
+    /**
+     * Сервис аудита изменений.
+     */
+    private final AuditService auditService;
+
+    /**
+     * Фабрика EntityManager для управления кэшем второго уровня.
+     */
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Кэш данных аутентификации пользователей.
+     */
+    private final PrincipalCache principalCache;
+
     /**
      * Конструктор для внедрения зависимости репозитория групп доступа.
      *
      * @param accessGroupRepository Репозиторий для работы с группами доступа
+     * @param auditService          Сервис аудита изменений
+     * @param entityManagerFactory  Фабрика EntityManager
+     * @param principalCache        Кэш данных аутентификации
      */
-    public AccessGroupService(AccessGroupRepository accessGroupRepository) {
+    public AccessGroupService(AccessGroupRepository accessGroupRepository, AuditService auditService,
+                              EntityManagerFactory entityManagerFactory, PrincipalCache principalCache) {
         this.accessGroupRepository = accessGroupRepository;
+        this.auditService = auditService;
+        this.entityManagerFactory = entityManagerFactory;
+        this.principalCache = principalCache;
     }
 
     /**
@@ -37,9 +69,10 @@ public class AccessGroupService {
      *
      * @return {@link ServiceResponse} со списком групп доступа
      */
+    @Transactional(readOnly = true)
     public ServiceResponse<List<AccessGroup>> getAllAccessGroups() {
         // Получение всех групп доступа из репозитория
-        List<AccessGroup> accessGroups = accessGroupRepository.findAll();
+        List<AccessGroup> accessGroups = accessGroupRepository.findAllCached();
 
         // Формирование ответа с учетом результата
         return new ServiceResponse<>(
@@ -59,6 +92,7 @@ public class AccessGroupService {
      * @param id Идентификатор группы доступа
      * @return {@link ServiceResponse} с найденной группой доступа
      */
+    @Transactional(readOnly = true)
     public ServiceResponse<AccessGroup> getAccessGroupById(Long id) {
         Optional<AccessGroup> accessGroup = accessGroupRepository.findById(id);
 
@@ -82,6 +116,8 @@ public class AccessGroupService {
     public ServiceResponse<AccessGroup> createAccessGroup(AccessGroup accessGroup) {
         try {
             AccessGroup savedAccessGroup = accessGroupRepository.save(accessGroup);
+            evictGroupList();
+            auditService.recordAccessGroup(AuditRecord.Action.CREATE, savedAccessGroup.getId(), Map.of(), auditService.snapshot(savedAccessGroup));
             return new ServiceResponse<>(
                     savedAccessGroup,
                     "Access group created successfully",
@@ -103,8 +139,12 @@ public class AccessGroupService {
      * @return {@link ServiceResponse} с результатом операции
      */
     public ServiceResponse<Void> deleteAccessGroup(Long id) {
-        if (accessGroupRepository.existsById(id)) {
+        Optional<AccessGroup> accessGroup = accessGroupRepository.findById(id);
+        if (accessGroup.isPresent()) {
             accessGroupRepository.deleteById(id);
+            evictGroup(id);
+            principalCache.invalidateAll();
+            auditService.recordAccessGroup(AuditRecord.Action.DELETE, id, auditService.snapshot(accessGroup.get()), Map.of());
             return new ServiceResponse<>(
                     null,
                     "Access group deleted successfully",
@@ -118,4 +158,27 @@ public class AccessGroupService {
             );
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Очищает кэшированный список групп доступа.
+     */
+    private void evictGroupList() {
+        cache().evictQueryRegion(AccessGroup.LIST_CACHE_REGION);
+    }
+
+    /**
+     * Очищает кэш удаленной группы, списка групп и связей пользователей с группами.
+     *
+     * @param id Идентификатор группы доступа
+     */
+    private void evictGroup(Long id) {
+        Cache cache = cache();
+        cache.evictEntityData(AccessGroup.class, id);
+        cache.evictCollectionData(User.class.getName() + ".groups");
+        cache.evictQueryRegion(AccessGroup.LIST_CACHE_REGION);
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.getCache().unwrap(Cache.class);
+    }
+}
@@ -0,0 +1,319 @@
+package com.api.AntiCorruptionAPI.Services;
+
+import com.api.AntiCorruptionAPI.Components.AuditLog;
+import com.api.AntiCorruptionAPI.Components.UserDetailsImpl;
+import com.api.AntiCorruptionAPI.Models.AccessGroup;
+import com.api.AntiCorruptionAPI.Models.AuditRecord;
+import com.api.AntiCorruptionAPI.Models.Report;
+import com.api.AntiCorruptionAPI.Models.User;
+import com.api.AntiCorruptionAPI.Responses.ServiceResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Сервис аудита изменений отчетов, пользователей и групп доступа.
+ * <p>
+ * Формирует снимки полей сущностей до и после изменения, вычисляет разницу
+ * и асинхронно записывает ее в {@link AuditLog}, не увеличивая задержку операций записи в БД.
+ * Чувствительные поля (пароль, фотография) в журнал не попадают. Для персональных данных
+ * ({@link #SENSITIVE_FIELDS}: паспорт, оклад, ИНН, СНИЛС, банковские реквизиты) записывается
+ * только факт изменения: значения до и после заменяются на {@value #REDACTED}.
+ */
+@Service
+public class AuditService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuditService.class);
+
+    /**
+     * Значение, записываемое вместо секретных данных.
+     */
+    private static final String REDACTED = "***";
+
+    /**
+     * Поля пользователя, значения которых не записываются в журнал.
+     * Снимки содержат их значения только для сравнения в памяти.
+     */
+    private static final Set<String> SENSITIVE_FIELDS = Set.of(
+            "passportSeries", "passportNumber", "salary", "inn", "snils", "bankDetails");
+
+    private final AuditLog auditLog;
+
+    /**
+     * Конструктор для внедрения зависимости журнала аудита.
+     *
+     * @param auditLog журнал аудита
+     */
+    public AuditService(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    /**
+     * Снимок полей отчета для последующего сравнения.
+     *
+     * @param report отчет (может быть null)
+     * @return упорядоченная карта "поле — значение"
+     */
+    public Map<String, String> snapshot(Report report) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        if (report == null) {
+            return fields;
+        }
+        fields.put("reporterId", str(report.getReporterId()));
+        fields.put("incidentDate", str(report.getIncidentDate()));
+        fields.put("incidentTime", str(report.getIncidentTime()));
+        fields.put("incidentLocation", report.getIncidentLocation());
+        fields.put("involvedPersons", report.getInvolvedPersons());
+        fields.put("description", report.getDescription());
+        fields.put("evidenceDescription", report.getEvidenceDescription());
+        fields.put("witnesses", report.getWitnesses());
+        fields.put("status", str(report.getStatus()));
+        fields.put("assignedTo", str(report.getAssignedTo()));
+        fields.put("solution", report.getSolution());
+        return fields;
+    }
+
+    /**
+     * Снимок полей пользователя для последующего сравнения.
+     *
+     * @param user пользователь (может быть null)
+     * @return упорядоченная карта "поле — значение"
+     */
+    public Map<String, String> snapshot(User user) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        if (user == null) {
+            return fields;
+        }
+        fields.put("username", user.getUsername());
+        fields.put("groups", user.getGroups().stream()
+                .map(AccessGroup::getName)
+                .sorted()
+                .collect(Collectors.joining(",")));
+        fields.put("employeeId", user.getEmployeeId());
+        fields.put("lastName", user.getLastName());
+        fields.put("firstName", user.getFirstName());
+        fields.put("middleName", user.getMiddleName());
+        fields.put("dateOfBirth", str(user.getDateOfBirth()));
+        fields.put("gender", user.getGender());
+        fields.put("passportSeries", user.getPassportSeries());
+        fields.put("passportNumber", user.getPassportNumber());
+        fields.put("address", user.getAddress());
+        fields.put("phoneNumber", user.getPhoneNumber());
+        fields.put("email", user.getEmail());
+        fields.put("position", user.getPosition());
+        fields.put("department", user.getDepartment());
+        fields.put("hireDate", str(user.getHireDate()));
+        fields.put("contractType", user.getContractType());
+        fields.put("salary", str(user.getSalary()));
+        fields.put("education", user.getEducation());
+        fields.put("workExperience", user.getWorkExperience());
+        fields.put("skills", user.getSkills());
+        fields.put("maritalStatus", user.getMaritalStatus());
+        fields.put("numberOfChildren", str(user.getNumberOfChildren()));
+        fields.put("militaryServiceInfo", user.getMilitaryServiceInfo());
+        fields.put("inn", user.getInn());
+        fields.put("snils", user.getSnils());
+        fields.put("qualificationUpgrade", user.getQualificationUpgrade());
+        fields.put("awards", user.getAwards());
+        fields.put("disciplinaryActions", user.getDisciplinaryActions());
+        fields.put("attestationResults", user.getAttestationResults());
+        fields.put("medicalExamResults", user.getMedicalExamResults());
+        fields.put("bankDetails", user.getBankDetails());
+        fields.put("emergencyContact", user.getEmergencyContact());
+        fields.put("notes", user.getNotes());
+        fields.put("isFired", str(user.getIsFired()));
+        return fields;
+    }
+
+    /**
+     * Снимок полей группы доступа.
+     *
+     * @param group группа доступа (может быть null)
+     * @return упорядоченная карта "поле — значение"
+     */
+    public Map<String, String> snapshot(AccessGroup group) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        if (group != null) {
+            fields.put("name", group.getName());
+        }
+        return fields;
+    }
+
+    /**
+     * Фиксация изменения отчета.
+     *
+     * @param action   действие
+     * @param reportId идентификатор отчета
+     * @param before   снимок до изменения
+     * @param after    снимок после изменения
+     */
+    public void recordReport(AuditRecord.Action action, Long reportId, Map<String, String> before, Map<String, String> after) {
+        record(AuditRecord.EntityType.REPORT, action, reportId, currentActorId(), diff(before, after));
+    }
+
+    /**
+     * Фиксация изменения отчета от имени указанного пользователя.
+     * <p>
+     * Используется фоновыми обработчиками, у которых нет контекста безопасности.
+     *
+     * @param action   действие
+     * @param reportId идентификатор отчета
+     * @param before   снимок до изменения
+     * @param after    снимок после изменения
+     * @param actorId  идентификатор пользователя, от имени которого выполнено изменение
+     */
+    public void recordReport(AuditRecord.Action action, Long reportId, Map<String, String> before,
+                             Map<String, String> after, Long actorId) {
+        record(AuditRecord.EntityType.REPORT, action, reportId, actorId, diff(before, after));
+    }
+
+    /**
+     * Фиксация изменения пользователя.
+     *
+     * @param action действие
+     * @param userId идентификатор пользователя
+     * @param before снимок до изменения
+     * @param after  снимок после изменения
+     */
+    public void recordUser(AuditRecord.Action action, Long userId, Map<String, String> before, Map<String, String> after) {
+        record(AuditRecord.EntityType.USER, action, userId, currentActorId(), diff(before, after));
+    }
+
+    /**
+     * Фиксация смены пароля пользователя без сохранения самих значений.
+     *
+     * @param userId идентификатор пользователя
+     */
+    public void recordPasswordChange(Long userId) {
+        record(AuditRecord.EntityType.USER, AuditRecord.Action.PASSWORD_CHANGE, userId, currentActorId(),
+                List.of(new AuditRecord.FieldChange("password", REDACTED, REDACTED)));
+    }
+
+    /**
+     * Фиксация изменения группы доступа.
+     *
+     * @param action  действие
+     * @param groupId идентификатор группы
+     * @param before  снимок до изменения
+     * @param after   снимок после изменения
+     */
+    public void recordAccessGroup(AuditRecord.Action action, Long groupId, Map<String, String> before, Map<String, String> after) {
+        record(AuditRecord.EntityType.ACCESS_GROUP, action, groupId, currentActorId(), diff(before, after));
+    }
+
+    /**
+     * Получение истории изменений сущности.
+     *
+     * @param entityType тип сущности
+     * @param entityId   идентификатор сущности
+     * @param from       нижняя граница времени (null — вся история)
+     * @param limit      максимальное количество записей
+     * @return Ответ со списком записей аудита
+     */
+    public ServiceResponse<List<AuditRecord>> getEntityHistory(AuditRecord.EntityType entityType, Long entityId, Instant from, int limit) {
+        try {
+            List<AuditRecord> records = auditLog.findByEntity(entityType, entityId, from, limit);
+            return new ServiceResponse<>(records, "Audit records retrieved successfully", HttpStatus.OK);
+        } catch (Exception e) {
+            logger.error("Error reading audit log", e);
+            return new ServiceResponse<>(null, "Error reading audit log: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Получение изменений, выполненных пользователем.
+     *
+     * @param actorId идентификатор пользователя
+     * @param from    нижняя граница времени (null — вся история)
+     * @param limit   максимальное количество записей
+     * @return Ответ со списком записей аудита
+     */
+    public ServiceResponse<List<AuditRecord>> getActorHistory(Long actorId, Instant from, int limit) {
+        try {
+            List<AuditRecord> records = auditLog.findByActor(actorId, from, limit);
+            return new ServiceResponse<>(records, "Audit records retrieved successfully", HttpStatus.OK);
+        } catch (Exception e) {
+            logger.error("Error reading audit log", e);
+            return new ServiceResponse<>(null, "Error reading audit log: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private void record(AuditRecord.EntityType entityType, AuditRecord.Action action, Long entityId,
+                        Long actorId, List<AuditRecord.FieldChange> changes) {
+        if (entityId == null) {
+            return;
+        }
+
+        // Внутри транзакции запись откладывается до фиксации, чтобы не журналировать откаченные изменения
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(entityType, action, entityId, actorId, changes);
+                }
+            });
+        } else {
+            append(entityType, action, entityId, actorId, changes);
+        }
+    }
+
+    private void append(AuditRecord.EntityType entityType, AuditRecord.Action action, long entityId,
+                        Long actorId, List<AuditRecord.FieldChange> changes) {
+        // Ошибки аудита не должны прерывать бизнес-операцию
+        try {
+            auditLog.append(entityType, action, entityId, actorId, changes)
+                    .exceptionally(e -> {
+                        logger.error("Failed to persist audit record for {} {}", entityType, entityId, e);
+                        return null;
+                    });
+        } catch (Exception e) {
+            logger.error("Failed to append audit record for {} {}", entityType, entityId, e);
+        }
+    }
+
+    private static List<AuditRecord.FieldChange> diff(Map<String, String> before, Map<String, String> after) {
+        List<AuditRecord.FieldChange> changes = new ArrayList<>();
+        Map<String, String> keys = new LinkedHashMap<>(before);
+        keys.putAll(after);
+        for (String field : keys.keySet()) {
+            String oldValue = before.get(field);
+            String newValue = after.get(field);
+            if (Objects.equals(oldValue, newValue)) {
+                continue;
+            }
+            if (SENSITIVE_FIELDS.contains(field)) {
+                changes.add(new AuditRecord.FieldChange(field,
+                        oldValue != null ? REDACTED : null, newValue != null ? REDACTED : null));
+            } else {
+                changes.add(new AuditRecord.FieldChange(field, oldValue, newValue));
+            }
+        }
+        return changes;
+    }
+
+    private static Long currentActorId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            return userDetails.getId();
+        }
+        return null;
+    }
+
+    private static String str(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
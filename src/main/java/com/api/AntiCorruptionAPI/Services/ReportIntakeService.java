@@ -0,0 +1,312 @@
+package com.api.AntiCorruptionAPI.Services;
+
+import com.api.AntiCorruptionAPI.Components.JwtUtils;
+import com.api.AntiCorruptionAPI.Components.ReportIntakeLog;
+import com.api.AntiCorruptionAPI.Models.Report;
+import com.api.AntiCorruptionAPI.Models.ReportIntakeEntry;
+import com.api.AntiCorruptionAPI.Models.ReportIntakeRejection;
+import com.api.AntiCorruptionAPI.Repositories.ReportIntakeRejectionRepository;
+import com.api.AntiCorruptionAPI.Repositories.ReportRepository;
+import com.api.AntiCorruptionAPI.Responses.ServiceResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Сервис приема отчетов с отложенной записью в базу данных (write-behind).
+ * <p>
+ * В режиме приема {@code POST /api/reports} только проверяет отчет, записывает его
+ * в локальный журнал предзаписи и сразу возвращает идентификатор отслеживания.
+ * Фоновый обработчик пакетами переносит записи журнала в PostgreSQL.
+ * <p>
+ * Повторная обработка после сбоя не создает дубликатов: каждому отчету присваивается
+ * уникальный {@code intakeId}, и уже вставленные записи пропускаются.
+ * Отклоняются только записи с некорректными данными (нарушение ограничений базы данных);
+ * причина отклонения сохраняется в таблице {@code report_intake_rejections}. При недоступности
+ * базы данных, тайм-аутах и других временных ошибках контрольная точка журнала не сдвигается,
+ * и перенос повторяется с экспоненциально растущей паузой.
+ * Включается свойством {@code app.reports.intake.enabled=true}.
+ */
+@Service
+@ConditionalOnProperty(name = "app.reports.intake.enabled", havingValue = "true")
+public class ReportIntakeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportIntakeService.class);
+
+    /**
+     * Максимальная длина сохраняемой причины отклонения.
+     */
+    private static final int MAX_MESSAGE_LENGTH = 2000;
+
+    private final ReportIntakeLog intakeLog;
+    private final ReportService reportService;
+    private final ReportRepository reportRepository;
+    private final ReportIntakeRejectionRepository rejectionRepository;
+    private final JwtUtils jwtUtils;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Размер пакета вставки.
+     */
+    @Value("${app.reports.intake.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * Начальная пауза перед повтором переноса после временной ошибки в миллисекундах.
+     */
+    @Value("${app.reports.intake.retry-initial-ms:1000}")
+    private long retryInitialMs;
+
+    /**
+     * Максимальная пауза перед повтором переноса в миллисекундах.
+     */
+    @Value("${app.reports.intake.retry-max-ms:60000}")
+    private long retryMaxMs;
+
+    /**
+     * Текущая пауза перед повтором (0 — последний перенос успешен).
+     * Изменяется только планировщиком, который не вызывает {@link #drain()} параллельно.
+     */
+    private long retryDelayMs;
+
+    /**
+     * Время, раньше которого перенос не повторяется.
+     */
+    private long retryAt;
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param intakeLog           журнал предзаписи
+     * @param reportService       сервис отчетов
+     * @param reportRepository    репозиторий отчетов
+     * @param rejectionRepository репозиторий отклоненных записей
+     * @param jwtUtils            утилита для работы с JWT
+     * @param objectMapper        сериализатор записей журнала
+     */
+    public ReportIntakeService(ReportIntakeLog intakeLog,
+                               ReportService reportService,
+                               ReportRepository reportRepository,
+                               ReportIntakeRejectionRepository rejectionRepository,
+                               JwtUtils jwtUtils,
+                               ObjectMapper objectMapper) {
+        this.intakeLog = intakeLog;
+        this.reportService = reportService;
+        this.reportRepository = reportRepository;
+        this.rejectionRepository = rejectionRepository;
+        this.jwtUtils = jwtUtils;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Прием отчета в очередь.
+     * <p>
+     * Проверяет отчет, сохраняет его в журнал предзаписи и возвращает отчет
+     * с заполненным идентификатором отслеживания ({@code intakeId}).
+     *
+     * @param report Данные отчета
+     * @return Ответ со статусом 202 или ошибкой проверки
+     */
+    public ServiceResponse<Report> submit(Report report) {
+        try {
+            Long reporterId = jwtUtils.getCurrentUserId();
+            if (reporterId == null) {
+                return new ServiceResponse<>(null, "Unable to identify user", HttpStatus.UNAUTHORIZED);
+            }
+
+            String validationError = validate(report);
+            if (validationError != null) {
+                return new ServiceResponse<>(null, validationError, HttpStatus.BAD_REQUEST);
+            }
+
+            String trackingId = UUID.randomUUID().toString();
+            report.setId(null);
+            report.setIntakeId(trackingId);
+            report.setReporterId(reporterId);
+            report.setStatus(Report.ReportStatus.NEW);
+
+            ReportIntakeEntry entry = new ReportIntakeEntry(trackingId, reporterId, Instant.now(), report);
+            intakeLog.append(objectMapper.writeValueAsBytes(entry));
+
+            return new ServiceResponse<>(report, "Report accepted for processing", HttpStatus.ACCEPTED);
+        } catch (Exception e) {
+            logger.error("Error accepting report into intake log", e);
+            return new ServiceResponse<>(null, "Error accepting report: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Получение состояния отчета, принятого через очередь.
+     * <p>
+     * Созданный отчет и ошибка обработки доступны только автору отчета;
+     * для остальных пользователей отчет считается не найденным.
+     *
+     * @param trackingId идентификатор отслеживания
+     * @return созданный отчет (200), ожидание обработки (202), ошибка обработки (422) или не найден (404)
+     */
+    public ServiceResponse<Report> getStatus(String trackingId) {
+        Long currentUserId = jwtUtils.getCurrentUserId();
+        if (currentUserId == null) {
+            return new ServiceResponse<>(null, "Unable to identify user", HttpStatus.UNAUTHORIZED);
+        }
+
+        Optional<Report> report = reportRepository.findByIntakeId(trackingId);
+        if (report.isPresent()) {
+            return currentUserId.equals(report.get().getReporterId())
+                    ? new ServiceResponse<>(report.get(), "Report created", HttpStatus.OK)
+                    : new ServiceResponse<>(null, "Report not found", HttpStatus.NOT_FOUND);
+        }
+
+        Optional<ReportIntakeRejection> rejection = rejectionRepository.findById(trackingId);
+        if (rejection.isEmpty()) {
+            return new ServiceResponse<>(null, "Report is pending", HttpStatus.ACCEPTED);
+        }
+        return currentUserId.equals(rejection.get().getReporterId())
+                ? new ServiceResponse<>(null, "Report rejected: " + rejection.get().getMessage(), HttpStatus.UNPROCESSABLE_ENTITY)
+                : new ServiceResponse<>(null, "Report not found", HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Перенос накопленных записей журнала в базу данных.
+     * <p>
+     * Выполняется периодически; при старте приложения первым вызовом
+     * повторно обрабатываются записи, не подтвержденные до сбоя.
+     * После временной ошибки следующая попытка откладывается на растущую паузу.
+     */
+    @Scheduled(fixedDelayString = "${app.reports.intake.drain-interval-ms:200}")
+    public void drain() {
+        if (retryDelayMs > 0 && System.currentTimeMillis() < retryAt) {
+            return;
+        }
+        try {
+            List<ReportIntakeLog.Frame> frames;
+            while (!(frames = intakeLog.readPending(batchSize)).isEmpty()) {
+                List<ReportIntakeEntry> entries = new ArrayList<>(frames.size());
+                for (ReportIntakeLog.Frame frame : frames) {
+                    entries.add(objectMapper.readValue(frame.payload(), ReportIntakeEntry.class));
+                }
+
+                insert(entries);
+                intakeLog.commit(frames.get(frames.size() - 1).nextOffset());
+            }
+            retryDelayMs = 0;
+        } catch (Exception e) {
+            // Контрольная точка не сдвигается: записи будут обработаны при следующей попытке
+            retryDelayMs = retryDelayMs == 0 ? retryInitialMs : Math.min(retryDelayMs * 2, retryMaxMs);
+            retryAt = System.currentTimeMillis() + retryDelayMs;
+            logger.error("Error draining report intake log, retrying in {} ms", retryDelayMs, e);
+        }
+    }
+
+    /**
+     * Вставка пакета записей. Временные ошибки пробрасываются, чтобы пакет был обработан повторно.
+     */
+    private void insert(List<ReportIntakeEntry> entries) {
+        // Записи, отклоненные при предыдущей попытке переноса этого пакета, не вставляются снова
+        Set<String> rejected = new HashSet<>();
+        rejectionRepository.findAllById(entries.stream().map(ReportIntakeEntry::trackingId).toList())
+                .forEach(rejection -> rejected.add(rejection.getTrackingId()));
+        List<ReportIntakeEntry> pending = entries.stream()
+                .filter(entry -> !rejected.contains(entry.trackingId()))
+                .toList();
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            reportService.createReportsFromIntake(pending);
+        } catch (RuntimeException batchError) {
+            if (!isDataError(batchError)) {
+                throw batchError;
+            }
+            // Пакет откатился из-за данных: вставляем по одной, чтобы изолировать некорректные записи
+            logger.warn("Intake batch of {} failed, retrying entries one by one: {}", pending.size(), batchError.getMessage());
+            for (ReportIntakeEntry entry : pending) {
+                try {
+                    reportService.createReportsFromIntake(List.of(entry));
+                } catch (RuntimeException entryError) {
+                    if (!isDataError(entryError)) {
+                        throw entryError;
+                    }
+                    logger.error("Rejecting intake entry {}", entry.trackingId(), entryError);
+                    rejectionRepository.save(ReportIntakeRejection.builder()
+                            .trackingId(entry.trackingId())
+                            .reporterId(entry.reporterId())
+                            .message(truncate(NestedExceptionUtils.getMostSpecificCause(entryError).getMessage()))
+                            .rejectedAt(LocalDateTime.now())
+                            .build());
+                }
+            }
+        }
+    }
+
+    /**
+     * Проверка, вызвана ли ошибка самими данными записи (повтор не поможет),
+     * а не недоступностью или перегрузкой базы данных.
+     */
+    private static boolean isDataError(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException
+                    || cause instanceof org.hibernate.exception.ConstraintViolationException
+                    || cause instanceof org.hibernate.exception.DataException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_MESSAGE_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+
+    private static String validate(Report report) {
+        if (report == null) {
+            return "Report body is required";
+        }
+        if (exceeds(report.getIncidentLocation(), 500)) {
+            return "incidentLocation must not exceed 500 characters";
+        }
+        if (exceeds(report.getInvolvedPersons(), 1000)) {
+            return "involvedPersons must not exceed 1000 characters";
+        }
+        if (exceeds(report.getDescription(), 2000)) {
+            return "description must not exceed 2000 characters";
+        }
+        if (exceeds(report.getEvidenceDescription(), 1000)) {
+            return "evidenceDescription must not exceed 1000 characters";
+        }
+        if (exceeds(report.getWitnesses(), 1000)) {
+            return "witnesses must not exceed 1000 characters";
+        }
+        if (exceeds(report.getSolution(), 2000)) {
+            return "solution must not exceed 2000 characters";
+        }
+        return null;
+    }
+
+    private static boolean exceeds(String value, int maxLength) {
+        return value != null && value.length() > maxLength;
+    }
+}
@@ -0,0 +1,269 @@
+package com.api.AntiCorruptionAPI.Services;
+
+import com.api.AntiCorruptionAPI.Components.PrincipalCache;
+import com.api.AntiCorruptionAPI.Components.ReportFilterCache;
+import com.api.AntiCorruptionAPI.Components.ReportResponseCache;
+import com.api.AntiCorruptionAPI.Components.UserDetailsImpl;
+import com.api.AntiCorruptionAPI.Models.AuditRecord;
+import com.api.AntiCorruptionAPI.Repositories.UserRepository;
+import com.api.AntiCorruptionAPI.Responses.OffboardingProgress;
+import com.api.AntiCorruptionAPI.Responses.ServiceResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Перераспределение открытых отчетов уволенного сотрудника.
+ * <p>
+ * При увольнении сотрудника его отчеты в статусах NEW и IN_PROGRESS распределяются
+ * по кругу между действующими сотрудниками группы SolveReport. Отчеты обновляются
+ * порциями ограниченного размера: каждая порция — один UPDATE в отдельной транзакции,
+ * которая присваивает отчетам новые номера изменений для синхронизации клиентов.
+ * Задача выполняется в фоне, ход выполнения доступен через {@link #getProgress(Long)}.
+ */
+@Service
+public class ReportOffboardingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportOffboardingService.class);
+
+    /**
+     * Группа сотрудников, между которыми распределяются отчеты.
+     */
+    private static final String AGENT_GROUP = "SolveReport";
+
+    private static final String COUNT_OPEN_REPORTS_SQL =
+            "SELECT count(*) FROM reports WHERE assigned_to = ? AND status IN ('NEW', 'IN_PROGRESS')";
+
+    /**
+     * Переназначение одной порции отчетов: i-й отчет порции получает сотрудника
+     * с номером (offset + i) по модулю количества сотрудников. В том же запросе для ленты
+     * изменений уволенного сотрудника сохраняются отметки о снятии с него отчетов.
+     */
+    private static final String REASSIGN_CHUNK_SQL =
+            "WITH locked AS (" +
+            "  SELECT id FROM reports WHERE assigned_to = ? AND status IN ('NEW', 'IN_PROGRESS') " +
+            "  ORDER BY id LIMIT ? FOR UPDATE" +
+            "), batch AS (" +
+            "  SELECT id, row_number() OVER (ORDER BY id) - 1 AS rn FROM locked" +
+            "), updated AS (" +
+            "  UPDATE reports r SET assigned_to = (?::bigint[])[(((b.rn + ?) % ?) + 1)::int], " +
+            "  last_updated = localtimestamp, change_seq = nextval('report_change_seq') " +
+            "  FROM batch b WHERE r.id = b.id " +
+            "  RETURNING r.id, r.assigned_to, r.change_seq, r.last_updated" +
+            "), unassigned AS (" +
+            "  INSERT INTO report_unassignments (report_id, change_seq, assigned_to, unassigned_at) " +
+            "  SELECT id, change_seq, ?, last_updated FROM updated" +
+            ") " +
+            "SELECT id, assigned_to FROM updated";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserRepository userRepository;
+    private final AuditService auditService;
+    private final PrincipalCache principalCache;
+    private final ReportFilterCache reportFilterCache;
+    private final ReportResponseCache reportResponseCache;
+    private final int chunkSize;
+
+    private final Map<Long, Job> jobs = new ConcurrentHashMap<>();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "report-offboarding");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Изменяемое состояние задачи; наружу отдается снимок {@link OffboardingProgress}.
+     */
+    private static final class Job {
+        private final Long userId;
+        private final Instant startedAt = Instant.now();
+        private volatile OffboardingProgress.Status status = OffboardingProgress.Status.RUNNING;
+        private volatile long total;
+        private volatile long reassigned;
+        private volatile int agents;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private Job(Long userId) {
+            this.userId = userId;
+        }
+
+        private void finish(OffboardingProgress.Status status, String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.status = status;
+        }
+
+        private OffboardingProgress snapshot() {
+            return new OffboardingProgress(userId, status, total, reassigned, agents, startedAt, finishedAt, error);
+        }
+    }
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param jdbcTemplate        шаблон для выполнения SQL-запросов
+     * @param transactionTemplate шаблон транзакций
+     * @param userRepository      репозиторий пользователей
+     * @param auditService        сервис аудита изменений
+     * @param principalCache      кэш данных аутентификации
+     * @param reportFilterCache   кэш результатов фильтрации отчетов
+     * @param reportResponseCache кэш готовых ответов на получение отчета
+     * @param chunkSize           количество отчетов в одной порции
+     */
+    public ReportOffboardingService(JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    UserRepository userRepository,
+                                    AuditService auditService,
+                                    PrincipalCache principalCache,
+                                    ReportFilterCache reportFilterCache,
+                                    ReportResponseCache reportResponseCache,
+                                    @Value("${app.users.offboarding.chunk-size:500}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+        this.auditService = auditService;
+        this.principalCache = principalCache;
+        this.reportFilterCache = reportFilterCache;
+        this.reportResponseCache = reportResponseCache;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Останавливает фоновый поток.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Запуск перераспределения отчетов уволенного сотрудника.
+     * <p>
+     * Если задача для сотрудника уже выполняется, повторно она не запускается.
+     *
+     * @param userId идентификатор уволенного сотрудника
+     * @return Ответ с состоянием задачи
+     */
+    public ServiceResponse<OffboardingProgress> startReassignment(Long userId) {
+        // Права уволенного сотрудника перестают действовать сразу, не дожидаясь истечения кэша
+        principalCache.invalidate(List.of(userId));
+
+        Job job = new Job(userId);
+        Job current = jobs.compute(userId, (id, existing) ->
+                existing != null && existing.status == OffboardingProgress.Status.RUNNING ? existing : job);
+        if (current != job) {
+            return new ServiceResponse<>(current.snapshot(), "Reassignment is already running", HttpStatus.CONFLICT);
+        }
+
+        Long actorId = currentActorId();
+        executor.execute(() -> run(job, actorId));
+        logger.info("Started reassignment of open reports of fired user {}", userId);
+        return new ServiceResponse<>(job.snapshot(), "Reassignment started", HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Получение хода перераспределения отчетов сотрудника.
+     *
+     * @param userId идентификатор уволенного сотрудника
+     * @return Ответ с состоянием последней задачи
+     */
+    public ServiceResponse<OffboardingProgress> getProgress(Long userId) {
+        Job job = jobs.get(userId);
+        if (job == null) {
+            return new ServiceResponse<>(null, "No reassignment found for user: " + userId, HttpStatus.NOT_FOUND);
+        }
+        return new ServiceResponse<>(job.snapshot(), "Reassignment progress retrieved successfully", HttpStatus.OK);
+    }
+
+    private void run(Job job, Long actorId) {
+        try {
+            List<Long> agents = userRepository.findActiveIdsByGroupName(AGENT_GROUP, job.userId);
+            job.agents = agents.size();
+            Long total = jdbcTemplate.queryForObject(COUNT_OPEN_REPORTS_SQL, Long.class, job.userId);
+            job.total = total != null ? total : 0;
+
+            if (job.total == 0) {
+                job.finish(OffboardingProgress.Status.COMPLETED, null);
+                return;
+            }
+            if (agents.isEmpty()) {
+                logger.warn("No active {} agents to take over {} reports of user {}", AGENT_GROUP, job.total, job.userId);
+                job.finish(OffboardingProgress.Status.NO_AGENTS, "No active " + AGENT_GROUP + " agents");
+                return;
+            }
+
+            Long[] agentIds = agents.toArray(Long[]::new);
+            long offset = 0;
+            while (!Thread.currentThread().isInterrupted()) {
+                long chunkOffset = offset;
+                List<long[]> changed = transactionTemplate.execute(status -> reassignChunk(job.userId, agentIds, chunkOffset, actorId));
+                if (changed == null || changed.isEmpty()) {
+                    break;
+                }
+                offset += changed.size();
+                job.reassigned += changed.size();
+            }
+
+            logger.info("Reassigned {} reports of fired user {} across {} agents", job.reassigned, job.userId, agentIds.length);
+            job.finish(OffboardingProgress.Status.COMPLETED, null);
+        } catch (Exception e) {
+            logger.error("Failed to reassign reports of fired user {}", job.userId, e);
+            job.finish(OffboardingProgress.Status.FAILED, e.getMessage());
+        }
+    }
+
+    private List<long[]> reassignChunk(Long userId, Long[] agentIds, long offset, Long actorId) {
+        List<long[]> changed = jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(REASSIGN_CHUNK_SQL);
+                    statement.setLong(1, userId);
+                    statement.setInt(2, chunkSize);
+                    statement.setArray(3, connection.createArrayOf("bigint", agentIds));
+                    statement.setLong(4, offset % agentIds.length);
+                    statement.setInt(5, agentIds.length);
+                    statement.setLong(6, userId);
+                    return statement;
+                },
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+
+        if (!changed.isEmpty()) {
+            reportFilterCache.invalidate();
+            reportResponseCache.invalidate(changed.stream().map(row -> row[0]).toList());
+        }
+
+        // Записи аудита откладываются до фиксации транзакции порции
+        for (long[] row : changed) {
+            auditService.recordReport(AuditRecord.Action.ASSIGN, row[0],
+                    Map.of("assignedTo", userId.toString()),
+                    Map.of("assignedTo", Long.toString(row[1])),
+                    actorId);
+        }
+        return changed;
+    }
+
+    private static Long currentActorId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl userDetails) {
+            return userDetails.getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,487 @@
+package com.api.AntiCorruptionAPI.Services;
+
+import com.api.AntiCorruptionAPI.Models.ReportDTO;
+import com.api.AntiCorruptionAPI.Requests.ReportSearchJobRequest;
+import com.api.AntiCorruptionAPI.Responses.ReportSearchJob;
+import com.api.AntiCorruptionAPI.Responses.ReportSearchPage;
+import com.api.AntiCorruptionAPI.Responses.ServiceResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Фоновые задачи поиска отчетов.
+ * <p>
+ * Поиск по большому периоду может выполняться дольше, чем допустимо для HTTP-запроса, поэтому
+ * клиент ставит задачу в очередь, получает ее идентификатор и затем запрашивает состояние
+ * и результаты. Задачи выполняются отдельным пулом с ограниченным количеством потоков
+ * и ограниченной очередью; при заполнении очереди новые задачи отклоняются.
+ * <p>
+ * Результат записывается в локальный файл сегментами по {@value #SEGMENT_SIZE} отчетов
+ * в формате Smile. Сегмент хранится кадром {@code [int длина][int crc32][данные]} и читается
+ * независимо от остальных, поэтому страница результатов читает с диска только нужные сегменты.
+ * Результаты хранятся ограниченное время после завершения задачи и затем удаляются вместе
+ * с задачей; задачи хранятся в памяти, и файлы предыдущего запуска удаляются при старте.
+ */
+@Service
+public class ReportSearchJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportSearchJobService.class);
+
+    /**
+     * Количество отчетов в сегменте файла результатов.
+     */
+    static final int SEGMENT_SIZE = 200;
+
+    private static final int FRAME_HEADER_SIZE = 8;
+
+    private static final String SPOOL_SUFFIX = ".smile";
+
+    private final ReportService reportService;
+    private final ObjectMapper smileMapper;
+    private final Path directory;
+    private final Duration ttl;
+    private final int maxRows;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private final Counter accepted;
+    private final Counter rejected;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Изменяемое состояние задачи; наружу отдается снимок {@link ReportSearchJob}.
+     */
+    private static final class Job {
+        private final String id = UUID.randomUUID().toString();
+        private final Long ownerId;
+        private final ReportSearchJobRequest criteria;
+        private final Path file;
+        private final Instant submittedAt = Instant.now();
+        private final List<Long> segmentOffsets = new ArrayList<>();
+        private volatile ReportSearchJob.Status status = ReportSearchJob.Status.QUEUED;
+        private volatile long rows;
+        private volatile boolean truncated;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile Instant expiresAt;
+        private volatile String error;
+        private volatile Future<?> future;
+
+        private Job(Long ownerId, ReportSearchJobRequest criteria, Path directory) {
+            this.ownerId = ownerId;
+            this.criteria = criteria;
+            this.file = directory.resolve(id + SPOOL_SUFFIX);
+        }
+
+        private void finish(ReportSearchJob.Status status, String error, Duration ttl) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.expiresAt = finishedAt.plus(ttl);
+            this.status = status;
+        }
+
+        private boolean isFinished() {
+            return status != ReportSearchJob.Status.QUEUED && status != ReportSearchJob.Status.RUNNING;
+        }
+
+        private ReportSearchJob snapshot() {
+            return new ReportSearchJob(id, status, rows, truncated, submittedAt, startedAt, finishedAt, expiresAt, error);
+        }
+    }
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param reportService  сервис отчетов (потоковая выборка)
+     * @param mapperBuilder  построитель ObjectMapper с настройками приложения
+     * @param meterRegistry  реестр метрик
+     * @param directory      каталог файлов результатов
+     * @param maxConcurrent  количество одновременно выполняемых задач
+     * @param maxQueued      максимальное количество задач в очереди
+     * @param ttl            время хранения результатов после завершения задачи
+     * @param maxRows        максимальное количество отчетов в результате
+     */
+    public ReportSearchJobService(ReportService reportService,
+                                  Jackson2ObjectMapperBuilder mapperBuilder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.reports.search-jobs.dir:search-jobs}") String directory,
+                                  @Value("${app.reports.search-jobs.max-concurrent:2}") int maxConcurrent,
+                                  @Value("${app.reports.search-jobs.max-queued:20}") int maxQueued,
+                                  @Value("${app.reports.search-jobs.ttl:PT1H}") Duration ttl,
+                                  @Value("${app.reports.search-jobs.max-rows:1000000}") int maxRows) {
+        this.reportService = reportService;
+        this.smileMapper = mapperBuilder.factory(new SmileFactory()).build();
+        this.directory = Paths.get(directory);
+        this.ttl = ttl;
+        this.maxRows = maxRows;
+        this.meterRegistry = meterRegistry;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueued), runnable -> {
+            Thread thread = new Thread(runnable, "report-search-job-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.accepted = Counter.builder("app.reports.search-jobs.submitted")
+                .description("Report search jobs submitted")
+                .tag("result", "accepted")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("app.reports.search-jobs.submitted")
+                .description("Report search jobs submitted")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+        Gauge.builder("app.reports.search-jobs.running", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Report search jobs being executed")
+                .register(meterRegistry);
+        Gauge.builder("app.reports.search-jobs.queued", executor, e -> e.getQueue().size())
+                .description("Report search jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("app.reports.search-jobs.stored", jobs, Map::size)
+                .description("Report search jobs kept in memory with their results")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Создает каталог результатов и удаляет файлы задач предыдущего запуска.
+     *
+     * @throws IOException при ошибках работы с файлами
+     */
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(path -> path.getFileName().toString().endsWith(SPOOL_SUFFIX)).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * Останавливает пул задач.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Постановка задачи поиска в очередь.
+     *
+     * @param ownerId  идентификатор пользователя, поставившего задачу
+     * @param criteria критерии поиска (с уже примененными ограничениями видимости)
+     * @return Ответ с состоянием задачи или сообщением о переполнении очереди
+     */
+    public ServiceResponse<ReportSearchJob> submit(Long ownerId, ReportSearchJobRequest criteria) {
+        Job job = new Job(ownerId, criteria, directory);
+        jobs.put(job.id, job);
+        try {
+            job.future = executor.submit(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            rejected.increment();
+            return new ServiceResponse<>(null, "Too many search jobs in progress, retry later", HttpStatus.TOO_MANY_REQUESTS);
+        }
+        accepted.increment();
+        return new ServiceResponse<>(job.snapshot(), "Search job accepted", HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Получение состояния задачи.
+     *
+     * @param jobId   идентификатор задачи
+     * @param ownerId идентификатор текущего пользователя
+     * @return Ответ с состоянием задачи
+     */
+    public ServiceResponse<ReportSearchJob> getJob(String jobId, Long ownerId) {
+        Job job = findJob(jobId, ownerId);
+        if (job == null) {
+            return new ServiceResponse<>(null, "Search job not found", HttpStatus.NOT_FOUND);
+        }
+        return new ServiceResponse<>(job.snapshot(), "Search job retrieved successfully", HttpStatus.OK);
+    }
+
+    /**
+     * Получение страницы результатов завершенной задачи.
+     *
+     * @param jobId   идентификатор задачи
+     * @param ownerId идентификатор текущего пользователя
+     * @param offset  номер первого отчета (с нуля)
+     * @param limit   количество отчетов на странице
+     * @return Ответ со страницей результатов
+     */
+    public ServiceResponse<ReportSearchPage> getPage(String jobId, Long ownerId, long offset, int limit) {
+        Job job = findJob(jobId, ownerId);
+        if (job == null) {
+            return new ServiceResponse<>(null, "Search job not found", HttpStatus.NOT_FOUND);
+        }
+        if (job.status != ReportSearchJob.Status.COMPLETED) {
+            return new ServiceResponse<>(null, "Search job is " + job.status, HttpStatus.CONFLICT);
+        }
+
+        try (FileChannel channel = FileChannel.open(job.file, StandardOpenOption.READ)) {
+            List<JsonNode> reports = new ArrayList<>(limit);
+            long end = Math.min(job.rows, offset + limit);
+            long position = offset;
+            while (position < end) {
+                int segment = (int) (position / SEGMENT_SIZE);
+                JsonNode records = readSegment(channel, job.segmentOffsets.get(segment));
+                int from = (int) (position - (long) segment * SEGMENT_SIZE);
+                int to = (int) Math.min(records.size(), end - (long) segment * SEGMENT_SIZE);
+                for (int i = from; i < to; i++) {
+                    reports.add(records.get(i));
+                }
+                position = (long) segment * SEGMENT_SIZE + to;
+            }
+            return new ServiceResponse<>(
+                    new ReportSearchPage(job.id, offset, job.rows, end < job.rows, reports),
+                    "Search results retrieved successfully",
+                    HttpStatus.OK
+            );
+        } catch (IOException e) {
+            return new ServiceResponse<>(null, "Error reading search results: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Проверка, что результаты задачи можно выгрузить целиком.
+     *
+     * @param jobId   идентификатор задачи
+     * @param ownerId идентификатор текущего пользователя
+     * @return Ответ с состоянием задачи (статус OK, если задача завершена успешно)
+     */
+    public ServiceResponse<ReportSearchJob> checkStreamable(String jobId, Long ownerId) {
+        ServiceResponse<ReportSearchJob> response = getJob(jobId, ownerId);
+        if (response.status() == HttpStatus.OK && response.data().status() != ReportSearchJob.Status.COMPLETED) {
+            return new ServiceResponse<>(response.data(), "Search job is " + response.data().status(), HttpStatus.CONFLICT);
+        }
+        return response;
+    }
+
+    /**
+     * Выгрузка всех результатов задачи в формате NDJSON (один отчет JSON на строку).
+     * Сегменты читаются с диска по одному, поэтому память не зависит от размера результата.
+     *
+     * @param jobId      идентификатор задачи
+     * @param ownerId    идентификатор текущего пользователя
+     * @param jsonMapper ObjectMapper для записи JSON
+     * @param out        поток ответа
+     * @throws IOException при ошибках чтения файла или записи ответа
+     */
+    public void streamResults(String jobId, Long ownerId, ObjectMapper jsonMapper, OutputStream out) throws IOException {
+        Job job = findJob(jobId, ownerId);
+        if (job == null || job.status != ReportSearchJob.Status.COMPLETED) {
+            return;
+        }
+        ObjectWriter writer = jsonMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (FileChannel channel = FileChannel.open(job.file, StandardOpenOption.READ)) {
+            for (Long segmentOffset : job.segmentOffsets) {
+                for (JsonNode report : readSegment(channel, segmentOffset)) {
+                    writer.writeValue(out, report);
+                    out.write('\n');
+                }
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * Отмена задачи и удаление ее результатов.
+     *
+     * @param jobId   идентификатор задачи
+     * @param ownerId идентификатор текущего пользователя
+     * @return Ответ об удалении
+     */
+    public ServiceResponse<Void> delete(String jobId, Long ownerId) {
+        Job job = findJob(jobId, ownerId);
+        if (job == null) {
+            return new ServiceResponse<>(null, "Search job not found", HttpStatus.NOT_FOUND);
+        }
+        jobs.remove(job.id);
+        if (!job.isFinished()) {
+            job.finish(ReportSearchJob.Status.CANCELLED, null, ttl);
+            Future<?> future = job.future;
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+        deleteFile(job);
+        return new ServiceResponse<>(null, "Search job deleted", HttpStatus.NO_CONTENT);
+    }
+
+    /**
+     * Удаление задач, срок хранения результатов которых истек.
+     */
+    @Scheduled(fixedDelayString = "${app.reports.search-jobs.gc-interval-ms:60000}")
+    public void collectExpired() {
+        Instant now = Instant.now();
+        for (Job job : jobs.values()) {
+            Instant expiresAt = job.expiresAt;
+            if (job.isFinished() && expiresAt != null && expiresAt.isBefore(now) && jobs.remove(job.id, job)) {
+                deleteFile(job);
+                Counter.builder("app.reports.search-jobs.expired")
+                        .description("Report search jobs whose results were garbage-collected")
+                        .register(meterRegistry)
+                        .increment();
+            }
+        }
+    }
+
+    private Job findJob(String jobId, Long ownerId) {
+        Job job = jobs.get(jobId);
+        return job != null && job.ownerId.equals(ownerId) ? job : null;
+    }
+
+    private void run(Job job) {
+        if (job.status != ReportSearchJob.Status.QUEUED) {
+            return;
+        }
+        job.startedAt = Instant.now();
+        job.status = ReportSearchJob.Status.RUNNING;
+        ReportSearchJobRequest criteria = job.criteria;
+        try (FileChannel channel = FileChannel.open(job.file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long rows = reportService.forEachFilteredReport(
+                    criteria.getReporterId(),
+                    criteria.getStartIncidentDate(),
+                    criteria.getEndIncidentDate(),
+                    criteria.getIncidentLocation(),
+                    criteria.getInvolvedPersons(),
+                    criteria.getStatus(),
+                    criteria.getAssignedTo(),
+                    SEGMENT_SIZE,
+                    maxRows + 1,
+                    chunk -> writeSegment(job, channel, chunk)
+            );
+            job.truncated = rows > maxRows;
+            job.finish(ReportSearchJob.Status.COMPLETED, null, ttl);
+            completed("completed");
+        } catch (CancellationException e) {
+            deleteFile(job);
+            completed("cancelled");
+        } catch (Exception e) {
+            logger.error("Report search job {} failed", job.id, e);
+            deleteFile(job);
+            job.finish(ReportSearchJob.Status.FAILED, e.getMessage(), ttl);
+            completed("failed");
+        } finally {
+            // Задача удалена во время выполнения: ее файл больше никто не прочитает
+            if (jobs.get(job.id) != job) {
+                deleteFile(job);
+            }
+        }
+    }
+
+    private void writeSegment(Job job, FileChannel channel, List<ReportDTO> chunk) {
+        if (job.status != ReportSearchJob.Status.RUNNING) {
+            throw new CancellationException("Search job " + job.id + " was cancelled");
+        }
+        // Последний отчет сверх лимита только отмечает, что результат обрезан
+        List<ReportDTO> records = job.rows + chunk.size() > maxRows
+                ? chunk.subList(0, (int) (maxRows - job.rows))
+                : chunk;
+        if (records.isEmpty()) {
+            return;
+        }
+        try {
+            byte[] payload = smileMapper.writeValueAsBytes(records);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_SIZE + payload.length);
+            frame.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+            job.segmentOffsets.add(channel.position());
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+            job.rows += records.size();
+        } catch (IOException e) {
+            throw new IllegalStateException("Error writing search results: " + e.getMessage(), e);
+        }
+    }
+
+    private JsonNode readSegment(FileChannel channel, long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+        readFully(channel, header, offset);
+        header.flip();
+        int length = header.getInt();
+        int checksum = header.getInt();
+
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        readFully(channel, payload, offset + FRAME_HEADER_SIZE);
+        CRC32 crc = new CRC32();
+        crc.update(payload.array());
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Corrupted search results segment at offset " + offset);
+        }
+        return smileMapper.readTree(payload.array());
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of search results file");
+            }
+        }
+    }
+
+    private void deleteFile(Job job) {
+        try {
+            Files.deleteIfExists(job.file);
+        } catch (IOException e) {
+            logger.warn("Unable to delete search results file {}: {}", job.file, e.getMessage());
+        }
+    }
+
+    private void completed(String result) {
+        Counter.builder("app.reports.search-jobs.finished")
+                .description("Report search jobs finished")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+}
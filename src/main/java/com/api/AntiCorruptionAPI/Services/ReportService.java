@@ -1,23 +1,73 @@
 package com.api.AntiCorruptionAPI.Services;
 
 import com.api.AntiCorruptionAPI.Components.JwtUtils;
+import com.api.AntiCorruptionAPI.Components.QueryGuard;
+import com.api.AntiCorruptionAPI.Components.ReplicaConsistencyContext;
+import com.api.AntiCorruptionAPI.Components.ReportFilterCache;
+import com.api.AntiCorruptionAPI.Components.ReportResponseCache;
+import com.api.AntiCorruptionAPI.Components.RequestCoalescer;
+import com.api.AntiCorruptionAPI.Components.SecurityUtils;
+import com.api.AntiCorruptionAPI.Models.AuditRecord;
 import com.api.AntiCorruptionAPI.Models.Report;
 import com.api.AntiCorruptionAPI.Models.ReportDTO;
+import com.api.AntiCorruptionAPI.Models.ReportIntakeEntry;
+import com.api.AntiCorruptionAPI.Models.ReportTombstone;
+import com.api.AntiCorruptionAPI.Models.ReportUnassignment;
 import com.api.AntiCorruptionAPI.Models.User;
+import com.api.AntiCorruptionAPI.Repositories.ReportTombstoneRepository;
+import com.api.AntiCorruptionAPI.Repositories.ReportUnassignmentRepository;
+import com.api.AntiCorruptionAPI.Responses.ReportChange;
+import com.api.AntiCorruptionAPI.Responses.ReportChangesResponse;
+import com.api.AntiCorruptionAPI.Responses.ReportLookupResult;
 import com.api.AntiCorruptionAPI.Responses.ServiceResponse;
 import com.api.AntiCorruptionAPI.Repositories.ReportRepository;
 import com.api.AntiCorruptionAPI.Repositories.UserRepository;
+import com.api.AntiCorruptionAPI.Requests.ReportBatchOperationsRequest;
+import com.api.AntiCorruptionAPI.Responses.ReportOperationResult;
+import com.api.AntiCorruptionAPI.Specifications.ReportProjection;
 import com.api.AntiCorruptionAPI.Specifications.ReportSpecification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Сервис управления отчетами о коррупционных инцидентах.
@@ -37,6 +87,52 @@ public class ReportService {
     private UserRepository userRepository; // Добавьте это поле
     @Autowired
     private JwtUtils jwtUtils;
+    @Autowired
+    private ReportTombstoneRepository reportTombstoneRepository;
+    @Autowired
+    private ReportUnassignmentRepository reportUnassignmentRepository;
+    @Autowired
+    private AuditService auditService;
+    @Autowired
+    private ReportFilterCache reportFilterCache;
+    @Autowired
+    private ReportResponseCache reportResponseCache;
+    @Autowired
+    private SecurityUtils securityUtils;
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private QueryGuard queryGuard;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Интервал "оседания" изменений в миллисекундах.
+     * Лента не отдает изменения моложе этого интервала, чтобы параллельные транзакции,
+     * получившие меньший номер изменения, успели зафиксироваться.
+     */
+    @Value("${app.reports.changes.settle-ms:2000}")
+    private long changesSettleMs;
+
+    /**
+     * Тайм-аут чтения отчета по идентификатору в секундах.
+     */
+    @Value("${app.queries.timeout.report-get:5}")
+    private int reportGetTimeout;
+
+    /**
+     * Тайм-аут фильтрации отчетов в секундах.
+     */
+    @Value("${app.queries.timeout.report-filter:10}")
+    private int reportFilterTimeout;
+
+    /**
+     * Включено ли чтение с реплик.
+     */
+    @Value("${app.datasource.replicas.enabled:false}")
+    private boolean replicasEnabled;
 
     /**
      * Создание нового отчета о коррупционном инциденте.
@@ -53,16 +149,61 @@ public class ReportService {
             }
 
             report.setReporterId(reporterId);
+            report.setIntakeId(null);
             report.setDateSubmitted(LocalDateTime.now());
             report.setStatus(Report.ReportStatus.NEW);
             report.setLastUpdated(LocalDateTime.now());
+            report.setChangeSeq(reportRepository.nextChangeSeq());
             Report savedReport = reportRepository.save(report);
+            reportFilterCache.invalidate();
+            auditService.recordReport(AuditRecord.Action.CREATE, savedReport.getId(), Map.of(), auditService.snapshot(savedReport));
             return new ServiceResponse<>(savedReport, "Report created successfully", HttpStatus.CREATED);
         } catch (Exception e) {
             return new ServiceResponse<>(null, "Error creating report: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    /**
+     * Пакетная вставка отчетов, принятых через очередь отложенной записи.
+     * <p>
+     * Выполняется в одной транзакции. Отчеты, уже вставленные ранее (например,
+     * до сбоя, произошедшего перед подтверждением журнала), пропускаются.
+     *
+     * @param entries записи журнала предзаписи
+     * @return вставленные отчеты
+     */
+    @Transactional(timeoutString = "${app.queries.timeout.report-write:30}")
+    public List<Report> createReportsFromIntake(List<ReportIntakeEntry> entries) {
+        Set<String> existing = reportRepository.findExistingIntakeIds(
+                entries.stream().map(ReportIntakeEntry::trackingId).toList());
+
+        List<Report> reports = new ArrayList<>(entries.size());
+        for (ReportIntakeEntry entry : entries) {
+            if (existing.contains(entry.trackingId())) {
+                continue;
+            }
+            Report report = entry.report();
+            report.setId(null);
+            report.setIntakeId(entry.trackingId());
+            report.setReporterId(entry.reporterId());
+            report.setDateSubmitted(LocalDateTime.ofInstant(entry.receivedAt(), ZoneId.systemDefault()));
+            report.setStatus(Report.ReportStatus.NEW);
+            report.setLastUpdated(LocalDateTime.now());
+            report.setChangeSeq(reportRepository.nextChangeSeq());
+            reports.add(report);
+        }
+
+        List<Report> savedReports = reportRepository.saveAll(reports);
+        if (!savedReports.isEmpty()) {
+            reportFilterCache.invalidate();
+        }
+        for (Report savedReport : savedReports) {
+            auditService.recordReport(AuditRecord.Action.CREATE, savedReport.getId(), Map.of(),
+                    auditService.snapshot(savedReport), savedReport.getReporterId());
+        }
+        return savedReports;
+    }
+
     /**
      * Получение отчета по его уникальному идентификатору.
      *
@@ -71,11 +212,115 @@ public class ReportService {
      */
     public ServiceResponse<Report> getReport(Long id) {
         try {
-            Optional<Report> report = reportRepository.findById(id);
+            Optional<Report> report = findReportCoalesced(id);
+            return report.map(value -> new ServiceResponse<>(value, "Report found", HttpStatus.OK))
+                    .orElseGet(() -> new ServiceResponse<>(null, "Report not found", HttpStatus.NOT_FOUND));
+        } catch (Exception e) {
+            return readFailure("report-get", "Error retrieving report: ", e);
+        }
+    }
+
+    /**
+     * Получение отчета с основного сервера для проверки доступа перед изменением.
+     * <p>
+     * В отличие от {@link #getReport(Long)}, чтение не направляется на реплику и не объединяется
+     * с другими запросами: решение о доступе принимается по актуальному назначению отчета.
+     *
+     * @param id Идентификатор отчета
+     * @return Ответ с найденным отчетом или сообщением об ошибке
+     */
+    public ServiceResponse<Report> getReportForUpdate(Long id) {
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            readOnly.setTimeout(reportGetTimeout);
+            Optional<Report> report = ReplicaConsistencyContext.onPrimary(() ->
+                    readOnly.execute(status -> reportRepository.findById(id)));
             return report.map(value -> new ServiceResponse<>(value, "Report found", HttpStatus.OK))
                     .orElseGet(() -> new ServiceResponse<>(null, "Report not found", HttpStatus.NOT_FOUND));
         } catch (Exception e) {
-            return new ServiceResponse<>(null, "Error retrieving report: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+            return readFailure("report-get", "Error retrieving report: ", e);
+        }
+    }
+
+    /**
+     * Проверка, что версия отчета совпадает с версией на основном сервере.
+     * <p>
+     * Чтение с отстающей реплики может вернуть версию, уже замененную на основном сервере;
+     * такой отчет нельзя сохранять в кэш. Без реплик чтения выполняются на основном сервере,
+     * и проверка не нужна.
+     *
+     * @param id        идентификатор отчета
+     * @param changeSeq номер изменения загруженного отчета
+     * @return true, если версия актуальна
+     */
+    public boolean isCurrentOnPrimary(Long id, Long changeSeq) {
+        if (!replicasEnabled) {
+            return true;
+        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.setTimeout(reportGetTimeout);
+        Long current = ReplicaConsistencyContext.onPrimary(() ->
+                readOnly.execute(status -> reportRepository.findChangeSeqById(id)));
+        return current != null && current.equals(changeSeq);
+    }
+
+    /**
+     * Получение нескольких отчетов по идентификаторам.
+     * <p>
+     * Отчеты выбираются одним запросом {@code id = ANY(?)}; ограничение видимости
+     * ({@code assigned_to}) применяется в том же запросе. Только если часть отчетов
+     * не вернулась пользователю с ограниченным доступом, вторым запросом по идентификаторам
+     * определяется, какие из них существуют (доступ запрещен), а какие нет.
+     *
+     * @param ids       идентификаторы отчетов без повторов
+     * @param visibleTo идентификатор сотрудника, которому должны быть назначены отчеты (null — без ограничения)
+     * @return Ответ с результатами в порядке запроса или сообщением об ошибке
+     */
+    @Transactional(readOnly = true, timeoutString = "${app.queries.timeout.report-get:5}")
+    @SuppressWarnings("unchecked")
+    public ServiceResponse<List<ReportLookupResult>> getReports(List<Long> ids, Long visibleTo) {
+        try {
+            Long[] idArray = ids.toArray(new Long[0]);
+            List<Report> reports = visibleTo == null
+                    ? entityManager.createNativeQuery("select r.* from reports r where r.id = any(:ids)", Report.class)
+                            .setParameter("ids", idArray)
+                            .getResultList()
+                    : entityManager.createNativeQuery(
+                                    "select r.* from reports r where r.id = any(:ids) and r.assigned_to = :visibleTo", Report.class)
+                            .setParameter("ids", idArray)
+                            .setParameter("visibleTo", visibleTo)
+                            .getResultList();
+
+            Map<Long, Report> found = new HashMap<>();
+            for (Report report : reports) {
+                found.put(report.getId(), report);
+            }
+
+            Set<Long> forbidden = Set.of();
+            if (visibleTo != null && found.size() < ids.size()) {
+                Long[] missing = ids.stream().filter(id -> !found.containsKey(id)).toArray(Long[]::new);
+                forbidden = new HashSet<>(entityManager
+                        .createNativeQuery("select r.id from reports r where r.id = any(:ids)", Long.class)
+                        .setParameter("ids", missing)
+                        .getResultList());
+            }
+
+            List<ReportLookupResult> results = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                Report report = found.get(id);
+                if (report != null) {
+                    results.add(new ReportLookupResult(id, ReportLookupResult.Status.FOUND, report));
+                } else if (forbidden.contains(id)) {
+                    results.add(new ReportLookupResult(id, ReportLookupResult.Status.FORBIDDEN, null));
+                } else {
+                    results.add(new ReportLookupResult(id, ReportLookupResult.Status.NOT_FOUND, null));
+                }
+            }
+            return new ServiceResponse<>(results, "Reports retrieved successfully", HttpStatus.OK);
+        } catch (Exception e) {
+            return readFailure("report-get", "Error retrieving reports: ", e);
         }
     }
 
@@ -84,27 +329,33 @@ public class ReportService {
      *
      * @return Ответ со списком отчетов или сообщением об ошибке
      */
+    @Transactional(readOnly = true, timeoutString = "${app.queries.timeout.report-list:15}")
     public ServiceResponse<List<ReportDTO>> getAllReports() {
         try {
             List<Report> reports = reportRepository.findAll();
             return new ServiceResponse<>(getReportsDTO(reports), "Reports retrieved successfully", HttpStatus.OK);
         } catch (Exception e) {
-            return new ServiceResponse<>(null, "Error retrieving reports: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+            return readFailure("report-list", "Error retrieving reports: ", e);
         }
     }
 
     /**
      * Обновление существующего отчета о коррупционном инциденте.
+     * <p>
+     * Отчет загружается и изменяется в одной транзакции на основном сервере,
+     * поэтому переносятся только поля, переданные в {@code updatedReport}.
      *
      * @param id            Идентификатор отчета для обновления
      * @param updatedReport Данные для обновления отчета
      * @return Ответ с обновленным отчетом или сообщением об ошибке
      */
+    @Transactional(timeoutString = "${app.queries.timeout.report-write:30}")
     public ServiceResponse<Report> updateReport(Long id, Report updatedReport) {
         try {
             Optional<Report> existingReportOptional = reportRepository.findById(id);
             if (existingReportOptional.isPresent()) {
                 Report existingReport = existingReportOptional.get();
+                Map<String, String> before = auditService.snapshot(existingReport);
 
                 // Обновляем только те поля, которые не null в updatedReport
                 if (updatedReport.getIncidentDate() != null) {
@@ -145,8 +396,12 @@ public class ReportService {
                 }
 
                 existingReport.setLastUpdated(LocalDateTime.now());
+                existingReport.setChangeSeq(reportRepository.nextChangeSeq());
 
                 Report savedReport = reportRepository.save(existingReport);
+                reportFilterCache.invalidate();
+                reportResponseCache.invalidate(List.of(id));
+                auditService.recordReport(AuditRecord.Action.UPDATE, id, before, auditService.snapshot(savedReport));
                 return new ServiceResponse<>(savedReport, "Report updated successfully", HttpStatus.OK);
             } else {
                 return new ServiceResponse<>(null, "Report not found", HttpStatus.NOT_FOUND);
@@ -156,16 +411,53 @@ public class ReportService {
         }
     }
 
+    /**
+     * Изменение статуса отчета.
+     *
+     * @param id     Идентификатор отчета
+     * @param status Новый статус
+     * @return Ответ с обновленным отчетом или сообщением об ошибке
+     */
+    @Transactional(timeoutString = "${app.queries.timeout.report-write:30}")
+    public ServiceResponse<Report> updateStatus(Long id, Report.ReportStatus status) {
+        return updateReport(id, Report.builder().status(status).build());
+    }
+
+    /**
+     * Изменение решения по отчету.
+     *
+     * @param id       Идентификатор отчета
+     * @param solution Решение
+     * @return Ответ с обновленным отчетом или сообщением об ошибке
+     */
+    @Transactional(timeoutString = "${app.queries.timeout.report-write:30}")
+    public ServiceResponse<Report> updateSolution(Long id, String solution) {
+        return updateReport(id, Report.builder().solution(solution).build());
+    }
+
     /**
      * Удаление отчета по его идентификатору.
+     * <p>
+     * Вместе с удалением сохраняется отметка об удалении для ленты изменений.
      *
      * @param id Идентификатор отчета для удаления
      * @return Ответ об успешности удаления или сообщение об ошибке
      */
+    @Transactional(timeoutString = "${app.queries.timeout.report-write:30}")
     public ServiceResponse<Void> deleteReport(Long id) {
         try {
-            if (reportRepository.existsById(id)) {
+            Optional<Report> existingReport = reportRepository.findById(id);
+            if (existingReport.isPresent()) {
                 reportRepository.deleteById(id);
+                reportTombstoneRepository.save(ReportTombstone.builder()
+                        .reportId(id)
+                        .changeSeq(reportRepository.nextChangeSeq())
+                        .assignedTo(existingReport.get().getAssignedTo())
+                        .deletedAt(LocalDateTime.now())
+                        .build());
+                reportFilterCache.invalidate();
+                reportResponseCache.invalidate(List.of(id));
+                auditService.recordReport(AuditRecord.Action.DELETE, id, auditService.snapshot(existingReport.get()), Map.of());
                 return new ServiceResponse<>(null, "Report deleted successfully", HttpStatus.OK);
             } else {
                 return new ServiceResponse<>(null, "Report not found", HttpStatus.NOT_FOUND);
@@ -182,14 +474,22 @@ public class ReportService {
      * @param assignedTo Идентификатор сотрудника, которому назначается отчет
      * @return Ответ с обновленным отчетом или сообщением об ошибке
      */
+    @Transactional(timeoutString = "${app.queries.timeout.report-write:30}")
     public ServiceResponse<Report> assignReport(Long id, Long assignedTo) {
         try {
             Optional<Report> existingReport = reportRepository.findById(id);
             if (existingReport.isPresent()) {
                 Report report = existingReport.get();
+                Map<String, String> before = auditService.snapshot(report);
+                Long previousAssignee = report.getAssignedTo();
                 report.setAssignedTo(assignedTo);
                 report.setLastUpdated(LocalDateTime.now());
+                report.setChangeSeq(reportRepository.nextChangeSeq());
+                recordUnassignment(id, previousAssignee, assignedTo, report.getChangeSeq(), report.getLastUpdated());
                 Report savedReport = reportRepository.save(report);
+                reportFilterCache.invalidate();
+                reportResponseCache.invalidate(List.of(id));
+                auditService.recordReport(AuditRecord.Action.ASSIGN, id, before, auditService.snapshot(savedReport));
                 return new ServiceResponse<>(savedReport, "Report assigned successfully", HttpStatus.OK);
             } else {
                 return new ServiceResponse<>(null, "Report not found", HttpStatus.NOT_FOUND);
@@ -199,12 +499,134 @@ public class ReportService {
         }
     }
 
+    /**
+     * Выполнение нескольких изменений отчетов (назначение, статус, решение) в одной транзакции.
+     * <p>
+     * Сначала проверяются все операции (существование отчета, права, обязательные значения),
+     * затем корректные операции применяются по порядку к заблокированным отчетам. Каждый
+     * измененный отчет получает один номер изменения и одну инструкцию UPDATE; все инструкции
+     * одинаковы по форме и отправляются одним пакетом JDBC при сбросе контекста.
+     * <p>
+     * В режиме {@code atomic} ошибка любой операции отменяет весь пакет: остальные операции
+     * помечаются как пропущенные, изменения не сохраняются.
+     *
+     * @param operations операции в порядке применения
+     * @param atomic     режим "все или ничего"
+     * @param permitted  типы операций, разрешенные текущему пользователю
+     * @return Ответ с результатами операций в порядке запроса или сообщением об ошибке
+     */
+    @Transactional(timeoutString = "${app.queries.timeout.report-write:30}")
+    public ServiceResponse<List<ReportOperationResult>> applyOperations(
+            List<ReportBatchOperationsRequest.Operation> operations,
+            boolean atomic,
+            Set<ReportBatchOperationsRequest.Type> permitted
+    ) {
+        try {
+            Set<Long> ids = new LinkedHashSet<>();
+            operations.forEach(operation -> ids.add(operation.getReportId()));
+            Map<Long, Report> reports = new HashMap<>();
+            for (Report report : reportRepository.findAllByIdForUpdate(ids)) {
+                reports.put(report.getId(), report);
+            }
+
+            // Проверка всех операций до применения
+            String[] errors = new String[operations.size()];
+            boolean failed = false;
+            for (int i = 0; i < operations.size(); i++) {
+                errors[i] = validateOperation(operations.get(i), reports, permitted);
+                failed |= errors[i] != null;
+            }
+
+            List<ReportOperationResult> results = new ArrayList<>(operations.size());
+            if (atomic && failed) {
+                for (int i = 0; i < operations.size(); i++) {
+                    ReportBatchOperationsRequest.Operation operation = operations.get(i);
+                    results.add(errors[i] != null
+                            ? new ReportOperationResult(i, operation.getType(), operation.getReportId(), ReportOperationResult.Status.FAILED, errors[i])
+                            : new ReportOperationResult(i, operation.getType(), operation.getReportId(), ReportOperationResult.Status.SKIPPED, "Batch rejected"));
+                }
+                return new ServiceResponse<>(results, "Batch rejected, no operations applied", HttpStatus.UNPROCESSABLE_ENTITY);
+            }
+
+            Set<Report> changed = new LinkedHashSet<>();
+            Map<Long, Long> previousAssignees = new HashMap<>();
+            int applied = 0;
+            for (int i = 0; i < operations.size(); i++) {
+                ReportBatchOperationsRequest.Operation operation = operations.get(i);
+                if (errors[i] != null) {
+                    results.add(new ReportOperationResult(i, operation.getType(), operation.getReportId(), ReportOperationResult.Status.FAILED, errors[i]));
+                    continue;
+                }
+
+                Report report = reports.get(operation.getReportId());
+                Map<String, String> before = auditService.snapshot(report);
+                switch (operation.getType()) {
+                    case ASSIGN -> {
+                        // Для ленты важен исполнитель до пакета, а не после предыдущей операции пакета
+                        previousAssignees.putIfAbsent(report.getId(), report.getAssignedTo());
+                        report.setAssignedTo(operation.getAssignedTo());
+                    }
+                    case STATUS -> report.setStatus(operation.getStatus());
+                    case SOLUTION -> report.setSolution(operation.getSolution());
+                }
+                auditService.recordReport(
+                        operation.getType() == ReportBatchOperationsRequest.Type.ASSIGN ? AuditRecord.Action.ASSIGN : AuditRecord.Action.UPDATE,
+                        report.getId(), before, auditService.snapshot(report));
+                changed.add(report);
+                applied++;
+                results.add(new ReportOperationResult(i, operation.getType(), operation.getReportId(), ReportOperationResult.Status.APPLIED, null));
+            }
+
+            if (!changed.isEmpty()) {
+                LocalDateTime now = LocalDateTime.now();
+                List<Long> changeSeqs = reportRepository.nextChangeSeqs(changed.size());
+                int next = 0;
+                for (Report report : changed) {
+                    report.setLastUpdated(now);
+                    report.setChangeSeq(changeSeqs.get(next++));
+                    if (previousAssignees.containsKey(report.getId())) {
+                        recordUnassignment(report.getId(), previousAssignees.get(report.getId()), report.getAssignedTo(), report.getChangeSeq(), now);
+                    }
+                }
+                entityManager.unwrap(Session.class).setJdbcBatchSize(changed.size());
+                entityManager.flush();
+                reportFilterCache.invalidate();
+                reportResponseCache.invalidate(changed.stream().map(Report::getId).toList());
+            }
+
+            return new ServiceResponse<>(
+                    results,
+                    "Operations applied: " + applied + " of " + operations.size(),
+                    applied > 0 ? HttpStatus.OK : HttpStatus.UNPROCESSABLE_ENTITY
+            );
+        } catch (Exception e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return new ServiceResponse<>(null, "Error applying report operations: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private static String validateOperation(ReportBatchOperationsRequest.Operation operation, Map<Long, Report> reports,
+                                            Set<ReportBatchOperationsRequest.Type> permitted) {
+        if (!permitted.contains(operation.getType())) {
+            return "Access denied";
+        }
+        if (!reports.containsKey(operation.getReportId())) {
+            return "Report not found";
+        }
+        return switch (operation.getType()) {
+            case ASSIGN -> operation.getAssignedTo() == null ? "assignedTo is required" : null;
+            case STATUS -> operation.getStatus() == null ? "status is required" : null;
+            case SOLUTION -> operation.getSolution() == null ? "solution is required" : null;
+        };
+    }
+
     /**
      * Получение списка отчетов, назначенных конкретному сотруднику.
      *
      * @param assignedTo Идентификатор сотрудника
      * @return Список отчетов, назначенных сотруднику
      */
+    @Transactional(readOnly = true, timeoutString = "${app.queries.timeout.report-list:15}")
     public ServiceResponse<List<ReportDTO>> getReportsByAssignedTo(Long assignedTo) {
         try {
             List<ReportDTO> reportDTOs = reportRepository.findByAssignedTo(assignedTo).stream()
@@ -233,11 +655,7 @@ public class ReportService {
                     HttpStatus.OK
             );
         } catch (Exception e) {
-            return new ServiceResponse<>(
-                    null,
-                    "Error retrieving reports: " + e.getMessage(),
-                    HttpStatus.INTERNAL_SERVER_ERROR
-            );
+            return readFailure("report-list", "Error retrieving reports: ", e);
         }
     }
 
@@ -251,32 +669,539 @@ public class ReportService {
             Long assignedTo
     ) {
         try {
-            Specification<Report> spec = ReportSpecification.filterReports(
-                    reporterId,
-                    startIncidentDate,
-                    endIncidentDate,
-                    incidentLocation,
-                    involvedPersons,
-                    status,
-                    assignedTo
-            );
+            FilterKey key = FilterKey.of(securityUtils.isUserInViewAllReportsGroup(), reporterId, startIncidentDate,
+                    endIncidentDate, incidentLocation, involvedPersons, status, assignedTo, null);
+            return reportFilterCache.get(key, () -> coalesceRead("filterReports", key, reportFilterTimeout, () -> {
+                Specification<Report> spec = ReportSpecification.filterReports(
+                        reporterId,
+                        startIncidentDate,
+                        endIncidentDate,
+                        incidentLocation,
+                        involvedPersons,
+                        status,
+                        assignedTo
+                );
 
-            List<Report> reports = reportRepository.findAll(spec);
+                QueryGuard.Decision decision = queryGuard.checkReportFilter("report-filter", spec);
+                if (decision.action() == QueryGuard.Action.REJECT) {
+                    return this.<List<ReportDTO>>filterRejected(decision);
+                }
 
-            List<ReportDTO> reportDTOs = getReportsDTO(reports);
+                // Слишком широкий фильтр выполняется с ограничением: только самые новые отчеты
+                List<Report> reports = decision.action() == QueryGuard.Action.LIMIT
+                        ? reportRepository.findBy(spec, query -> query.sortBy(Sort.by(Sort.Direction.DESC, "id"))
+                                .limit(decision.limit()).all())
+                        : reportRepository.findAll(spec);
+
+                return new ServiceResponse<>(
+                        List.copyOf(getReportsDTO(reports)),
+                        filteredMessage(decision),
+                        HttpStatus.OK
+                );
+            }).value());
+        } catch (Exception e) {
+            return readFailure("report-filter", "Error filtering reports: ", e);
+        }
+    }
+
+    /**
+     * Поиск отчетов по критериям без формирования DTO.
+     * <p>
+     * Используется GraphQL API: связанные пользователи загружаются отдельно пакетами,
+     * поэтому количество SQL-запросов не зависит от количества отчетов.
+     *
+     * @param reporterId        идентификатор автора
+     * @param startIncidentDate начальная дата инцидента
+     * @param endIncidentDate   конечная дата инцидента
+     * @param incidentLocation  место инцидента
+     * @param involvedPersons   вовлеченные лица
+     * @param status            статус отчета
+     * @param assignedTo        идентификатор назначенного сотрудника
+     * @param limit             максимальное количество отчетов
+     * @return список отчетов, упорядоченный по идентификатору
+     */
+    @Transactional(readOnly = true, timeoutString = "${app.queries.timeout.report-list:15}")
+    public List<Report> searchReports(
+            Long reporterId,
+            LocalDate startIncidentDate,
+            LocalDate endIncidentDate,
+            String incidentLocation,
+            String involvedPersons,
+            Report.ReportStatus status,
+            Long assignedTo,
+            int limit
+    ) {
+        Specification<Report> spec = ReportSpecification.filterReports(
+                reporterId,
+                startIncidentDate,
+                endIncidentDate,
+                incidentLocation,
+                involvedPersons,
+                status,
+                assignedTo
+        );
+        return reportRepository.findBy(spec, query -> query.sortBy(Sort.by("id")).limit(limit).all());
+    }
+
+    /**
+     * Потоковая выборка отчетов по критериям фильтрации для фоновых задач поиска.
+     * <p>
+     * Отчеты читаются курсором в порядке идентификаторов и передаются обработчику порциями;
+     * после каждой порции контекст сохраняемости очищается, поэтому память не зависит
+     * от размера результата. Обработчик может прервать выборку исключением.
+     *
+     * @param reporterId        идентификатор автора
+     * @param startIncidentDate начальная дата инцидента
+     * @param endIncidentDate   конечная дата инцидента
+     * @param incidentLocation  место инцидента
+     * @param involvedPersons   вовлеченные лица
+     * @param status            статус отчета
+     * @param assignedTo        идентификатор назначенного сотрудника
+     * @param chunkSize         количество отчетов в порции
+     * @param maxRows           максимальное количество отчетов
+     * @param sink              обработчик порций
+     * @return количество переданных отчетов
+     */
+    @Transactional(readOnly = true, timeoutString = "${app.queries.timeout.report-search-job:600}")
+    public long forEachFilteredReport(
+            Long reporterId,
+            LocalDate startIncidentDate,
+            LocalDate endIncidentDate,
+            String incidentLocation,
+            String involvedPersons,
+            Report.ReportStatus status,
+            Long assignedTo,
+            int chunkSize,
+            int maxRows,
+            Consumer<List<ReportDTO>> sink
+    ) {
+        Specification<Report> spec = ReportSpecification.filterReports(
+                reporterId,
+                startIncidentDate,
+                endIncidentDate,
+                incidentLocation,
+                involvedPersons,
+                status,
+                assignedTo
+        );
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Report> query = criteriaBuilder.createQuery(Report.class);
+        Root<Report> root = query.from(Report.class);
+        query.where(spec.toPredicate(root, query, criteriaBuilder));
+        query.orderBy(criteriaBuilder.asc(root.get("id")));
+
+        long count = 0;
+        List<Report> chunk = new ArrayList<>(chunkSize);
+        try (Stream<Report> reports = entityManager.createQuery(query)
+                .setMaxResults(maxRows)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, chunkSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            Iterator<Report> iterator = reports.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize) {
+                    sink.accept(getReportsDTO(chunk));
+                    count += chunk.size();
+                    chunk.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            sink.accept(getReportsDTO(chunk));
+            count += chunk.size();
+        }
+        return count;
+    }
+
+    /**
+     * Получение выбранных полей отчета по идентификатору.
+     * <p>
+     * Для пользователей без доступа ко всем отчетам дополнительно читается {@code assignedTo}
+     * для проверки назначения; в ответ он попадает, только если был запрошен.
+     *
+     * @param id         идентификатор отчета
+     * @param projection запрошенные поля
+     * @param visibleTo  идентификатор сотрудника, которому должен быть назначен отчет (null — без ограничения)
+     * @return Ответ с полями отчета или сообщением об ошибке
+     */
+    @Transactional(readOnly = true, timeoutString = "${app.queries.timeout.report-get:5}")
+    public ServiceResponse<Map<String, Object>> getReportFields(Long id, ReportProjection projection, Long visibleTo) {
+        try {
+            Specification<Report> byId = (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("id"), id);
+            List<Tuple> rows = selectColumns(byId,
+                    visibleTo != null ? projection.columnsWith("assignedTo") : projection.columns());
+            if (rows.isEmpty()) {
+                return new ServiceResponse<>(null, "Report not found", HttpStatus.NOT_FOUND);
+            }
+            Tuple row = rows.get(0);
+            if (visibleTo != null && !visibleTo.equals(row.get("assignedTo"))) {
+                return new ServiceResponse<>(null, "Access denied", HttpStatus.FORBIDDEN);
+            }
+            return new ServiceResponse<>(toFields(rows, projection).get(0), "Report found", HttpStatus.OK);
+        } catch (Exception e) {
+            return readFailure("report-get", "Error retrieving report: ", e);
+        }
+    }
+
+    /**
+     * Получение выбранных полей всех отчетов.
+     *
+     * @param projection запрошенные поля
+     * @return Ответ со списком полей отчетов или сообщением об ошибке
+     */
+    @Transactional(readOnly = true, timeoutString = "${app.queries.timeout.report-list:15}")
+    public ServiceResponse<List<Map<String, Object>>> getAllReportFields(ReportProjection projection) {
+        try {
+            List<Tuple> rows = selectColumns(null, projection.columns());
+            return new ServiceResponse<>(toFields(rows, projection), "Reports retrieved successfully", HttpStatus.OK);
+        } catch (Exception e) {
+            return readFailure("report-list", "Error retrieving reports: ", e);
+        }
+    }
+
+    /**
+     * Получение выбранных полей незакрытых отчетов, назначенных сотруднику.
+     *
+     * @param assignedTo Идентификатор сотрудника
+     * @param projection запрошенные поля
+     * @return Ответ со списком полей отчетов или сообщением об ошибке
+     */
+    @Transactional(readOnly = true, timeoutString = "${app.queries.timeout.report-list:15}")
+    public ServiceResponse<List<Map<String, Object>>> getReportFieldsByAssignedTo(Long assignedTo, ReportProjection projection) {
+        try {
+            Specification<Report> spec = (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                    criteriaBuilder.equal(root.get("assignedTo"), assignedTo),
+                    criteriaBuilder.notEqual(root.get("status"), Report.ReportStatus.CLOSED));
+            List<Tuple> rows = selectColumns(spec, projection.columns());
+            if (rows.isEmpty()) {
+                return new ServiceResponse<>(null, "No reports found for the assigned user.", HttpStatus.NOT_FOUND);
+            }
+            return new ServiceResponse<>(toFields(rows, projection), "Reports retrieved successfully.", HttpStatus.OK);
+        } catch (Exception e) {
+            return readFailure("report-list", "Error retrieving reports: ", e);
+        }
+    }
+
+    /**
+     * Фильтрация отчетов с выборкой только запрошенных полей.
+     *
+     * @param reporterId        идентификатор автора
+     * @param startIncidentDate начальная дата инцидента
+     * @param endIncidentDate   конечная дата инцидента
+     * @param incidentLocation  место инцидента
+     * @param involvedPersons   вовлеченные лица
+     * @param status            статус отчета
+     * @param assignedTo        идентификатор назначенного сотрудника
+     * @param projection        запрошенные поля
+     * @return Ответ со списком полей отчетов или сообщением об ошибке
+     */
+    public ServiceResponse<List<Map<String, Object>>> filterReportFields(
+            Long reporterId,
+            LocalDate startIncidentDate,
+            LocalDate endIncidentDate,
+            String incidentLocation,
+            String involvedPersons,
+            Report.ReportStatus status,
+            Long assignedTo,
+            ReportProjection projection
+    ) {
+        try {
+            FilterKey key = FilterKey.of(securityUtils.isUserInViewAllReportsGroup(), reporterId, startIncidentDate,
+                    endIncidentDate, incidentLocation, involvedPersons, status, assignedTo, projection.fields());
+            return reportFilterCache.get(key, () -> coalesceRead("filterReportFields", key, reportFilterTimeout, () -> {
+                Specification<Report> spec = ReportSpecification.filterReports(
+                        reporterId,
+                        startIncidentDate,
+                        endIncidentDate,
+                        incidentLocation,
+                        involvedPersons,
+                        status,
+                        assignedTo
+                );
+
+                QueryGuard.Decision decision = queryGuard.checkReportFilter("report-filter", spec);
+                if (decision.action() == QueryGuard.Action.REJECT) {
+                    return this.<List<Map<String, Object>>>filterRejected(decision);
+                }
+                List<Tuple> rows = selectColumns(spec, projection.columns(),
+                        decision.action() == QueryGuard.Action.LIMIT ? decision.limit() : 0);
+                return new ServiceResponse<>(List.copyOf(toFields(rows, projection)), filteredMessage(decision), HttpStatus.OK);
+            }).value());
+        } catch (Exception e) {
+            return readFailure("report-filter", "Error filtering reports: ", e);
+        }
+    }
+
+    /**
+     * Получение страницы ленты изменений отчетов после указанного курсора.
+     * <p>
+     * Лента объединяет измененные отчеты и отметки об удалении в порядке номеров изменений.
+     * Пользователь с ограниченной видимостью дополнительно получает как удаленные отчеты,
+     * которые были сняты с него и назначены другому сотруднику.
+     * Изменения моложе интервала оседания не выдаются, чтобы курсор оставался монотонным;
+     * в этом случае ответ сообщает, через сколько миллисекунд повторить запрос.
+     *
+     * @param since      курсор (номер последнего полученного клиентом изменения)
+     * @param limit      максимальное количество изменений на странице
+     * @param assignedTo идентификатор сотрудника для ограничения видимости (null — все отчеты)
+     * @return Ответ со страницей изменений или сообщением об ошибке
+     */
+    @Transactional(readOnly = true, timeoutString = "${app.queries.timeout.report-changes:5}")
+    public ServiceResponse<ReportChangesResponse> getChanges(long since, int limit, Long assignedTo) {
+        try {
+            // Каждый источник ограничен limit + 1 записями: первые limit изменений объединенного
+            // списка всегда находятся среди них
+            Pageable window = PageRequest.of(0, limit + 1);
+            List<Report> reports = assignedTo == null
+                    ? reportRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(since, window)
+                    : reportRepository.findByAssignedToAndChangeSeqGreaterThanOrderByChangeSeqAsc(assignedTo, since, window);
+            List<ReportTombstone> tombstones = assignedTo == null
+                    ? reportTombstoneRepository.findByChangeSeqGreaterThanOrderByChangeSeqAsc(since, window)
+                    : reportTombstoneRepository.findByAssignedToAndChangeSeqGreaterThanOrderByChangeSeqAsc(assignedTo, since, window);
+            List<ReportUnassignment> unassignments = assignedTo == null
+                    ? List.of()
+                    : reportUnassignmentRepository.findByAssignedToAndChangeSeqGreaterThanOrderByChangeSeqAsc(assignedTo, since, window);
+
+            List<PendingChange> pending = new ArrayList<>(reports.size() + tombstones.size() + unassignments.size());
+            for (ReportDTO report : getReportsDTO(reports)) {
+                pending.add(new PendingChange(new ReportChange(report.getChangeSeq(), report.getId(), false, report), report.getLastUpdated()));
+            }
+            for (ReportTombstone tombstone : tombstones) {
+                pending.add(new PendingChange(new ReportChange(tombstone.getChangeSeq(), tombstone.getReportId(), true, null), tombstone.getDeletedAt()));
+            }
+            for (ReportUnassignment unassignment : unassignments) {
+                pending.add(new PendingChange(new ReportChange(unassignment.getChangeSeq(), unassignment.getReportId(), true, null), unassignment.getUnassignedAt()));
+            }
+            pending.sort(Comparator.comparingLong(change -> change.change().changeSeq()));
+
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime settledBefore = now.minus(Duration.ofMillis(changesSettleMs));
+            List<ReportChange> changes = new ArrayList<>();
+            long cursor = since;
+            boolean hasMore = false;
+            long retryAfterMs = 0;
+
+            for (PendingChange next : pending) {
+                if (next.changedAt() != null && next.changedAt().isAfter(settledBefore)) {
+                    // Следующее изменение еще не осело: повторять запрос раньше бессмысленно
+                    retryAfterMs = Math.max(1, Duration.between(settledBefore, next.changedAt()).toMillis());
+                    break;
+                }
+                if (changes.size() == limit) {
+                    hasMore = true;
+                    break;
+                }
+                changes.add(next.change());
+                cursor = next.change().changeSeq();
+            }
 
             return new ServiceResponse<>(
-                    reportDTOs,
-                    "Reports filtered successfully",
+                    new ReportChangesResponse(changes, cursor, hasMore, retryAfterMs),
+                    "Report changes retrieved successfully",
                     HttpStatus.OK
             );
         } catch (Exception e) {
-            return new ServiceResponse<>(
-                    null,
-                    "Error filtering reports: " + e.getMessage(),
-                    HttpStatus.INTERNAL_SERVER_ERROR
-            );
+            return readFailure("report-changes", "Error retrieving report changes: ", e);
+        }
+    }
+
+    /**
+     * Изменение ленты вместе со временем, от которого отсчитывается интервал оседания.
+     */
+    private record PendingChange(ReportChange change, LocalDateTime changedAt) {
+    }
+
+    /**
+     * Отметка о снятии отчета с прежнего исполнителя для его ленты изменений.
+     * Переназначение на того же сотрудника или назначение ранее не назначенного отчета отметки не создает.
+     */
+    private void recordUnassignment(Long reportId, Long previousAssignee, Long newAssignee, long changeSeq, LocalDateTime at) {
+        if (previousAssignee == null || previousAssignee.equals(newAssignee)) {
+            return;
+        }
+        reportUnassignmentRepository.save(ReportUnassignment.builder()
+                .reportId(reportId)
+                .changeSeq(changeSeq)
+                .assignedTo(previousAssignee)
+                .unassignedAt(at)
+                .build());
+    }
+
+    /**
+     * Загрузка отчета по идентификатору с объединением одновременных запросов одного отчета.
+     * Присоединившиеся вызовы получают копию сущности: контроллеры изменяют полученный отчет.
+     */
+    private Optional<Report> findReportCoalesced(Long id) {
+        RequestCoalescer.Result<Optional<Report>> result = coalesceRead("getReport", id, reportGetTimeout, () -> reportRepository.findById(id));
+        return result.coalesced() ? result.value().map(ReportService::copyOf) : result.value();
+    }
+
+    /**
+     * Чтение с объединением одинаковых одновременных запросов в одну транзакцию только для чтения.
+     * <p>
+     * Ключ дополняется версией данных отчетов, поэтому запрос после зафиксированного изменения
+     * не присоединяется к чтению, начатому до него. Внутри чужой транзакции чтение не объединяется:
+     * оно должно видеть ее незафиксированные изменения. Чтение с маркером согласованности
+     * также не объединяется: чужое чтение могло выполняться на отстающей реплике.
+     *
+     * @param timeoutSeconds тайм-аут транзакции чтения; применяется и к каждому SQL-запросу
+     */
+    private <T> RequestCoalescer.Result<T> coalesceRead(String operation, Object key, int timeoutSeconds, Supplier<T> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return new RequestCoalescer.Result<>(loader.get(), false);
+        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.setTimeout(timeoutSeconds);
+        if (ReplicaConsistencyContext.getRequiredLsn() != 0) {
+            return new RequestCoalescer.Result<>(readOnly.execute(status -> loader.get()), false);
+        }
+        return requestCoalescer.execute(operation, List.of(key, reportFilterCache.version()),
+                () -> readOnly.execute(status -> loader.get()));
+    }
+
+    /**
+     * Ответ об ошибке чтения. Запрос, прерванный по тайм-ауту, учитывается в метриках
+     * и возвращается как временная недоступность.
+     */
+    private <T> ServiceResponse<T> readFailure(String operation, String message, Exception e) {
+        if (queryGuard.recordTimeout(operation, e)) {
+            return new ServiceResponse<>(null, "Query timed out, narrow the request and retry", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+        return new ServiceResponse<>(null, message + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    private <T> ServiceResponse<T> filterRejected(QueryGuard.Decision decision) {
+        return new ServiceResponse<>(
+                null,
+                String.format("Filter is too broad (estimated cost %.0f, about %.0f reports); add more specific criteria",
+                        decision.estimatedCost(), decision.estimatedRows()),
+                HttpStatus.UNPROCESSABLE_ENTITY
+        );
+    }
+
+    private static String filteredMessage(QueryGuard.Decision decision) {
+        return decision.action() == QueryGuard.Action.LIMIT
+                ? "Reports filtered successfully (limited to the " + decision.limit()
+                        + " most recent reports; narrow the filter to see all matches)"
+                : "Reports filtered successfully";
+    }
+
+    private static Report copyOf(Report report) {
+        return Report.builder()
+                .id(report.getId())
+                .dateSubmitted(report.getDateSubmitted())
+                .reporterId(report.getReporterId())
+                .incidentDate(report.getIncidentDate())
+                .incidentTime(report.getIncidentTime())
+                .incidentLocation(report.getIncidentLocation())
+                .involvedPersons(report.getInvolvedPersons())
+                .description(report.getDescription())
+                .evidenceDescription(report.getEvidenceDescription())
+                .witnesses(report.getWitnesses())
+                .status(report.getStatus())
+                .assignedTo(report.getAssignedTo())
+                .lastUpdated(report.getLastUpdated())
+                .solution(report.getSolution())
+                .changeSeq(report.getChangeSeq())
+                .intakeId(report.getIntakeId())
+                .build();
+    }
+
+    /**
+     * Нормализованный ключ кэша фильтрации.
+     * <p>
+     * Строки поиска приводятся к виду, в котором их использует {@link ReportSpecification}
+     * (нижний регистр, слова через один пробел); диапазон дат учитывается, только если заданы обе границы.
+     *
+     * @param allReports область видимости: доступ ко всем отчетам или только к своим
+     * @param fields     запрошенные поля (null — полные отчеты)
+     */
+    private record FilterKey(boolean allReports, Long reporterId, LocalDate startIncidentDate, LocalDate endIncidentDate,
+                             String incidentLocation, String involvedPersons, Report.ReportStatus status,
+                             Long assignedTo, List<String> fields) {
+
+        static FilterKey of(boolean allReports, Long reporterId, LocalDate startIncidentDate, LocalDate endIncidentDate,
+                            String incidentLocation, String involvedPersons, Report.ReportStatus status,
+                            Long assignedTo, List<String> fields) {
+            boolean dateRange = startIncidentDate != null && endIncidentDate != null;
+            return new FilterKey(allReports, reporterId,
+                    dateRange ? startIncidentDate : null,
+                    dateRange ? endIncidentDate : null,
+                    normalize(incidentLocation), normalize(involvedPersons), status, assignedTo, fields);
+        }
+
+        private static String normalize(String value) {
+            if (value == null || value.isEmpty()) {
+                return null;
+            }
+            return String.join(" ", value.toLowerCase().split("\\s+"));
+        }
+    }
+
+    /**
+     * Выборка только указанных столбцов отчетов без создания сущностей.
+     */
+    private List<Tuple> selectColumns(Specification<Report> spec, Set<String> columns) {
+        return selectColumns(spec, columns, 0);
+    }
+
+    /**
+     * Выборка указанных столбцов с ограничением количества строк (самые новые отчеты).
+     *
+     * @param maxResults максимальное количество строк (0 — без ограничения)
+     */
+    private List<Tuple> selectColumns(Specification<Report> spec, Set<String> columns, int maxResults) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Report> root = query.from(Report.class);
+        query.multiselect(columns.stream().<Selection<?>>map(column -> root.get(column).alias(column)).toList());
+        if (spec != null) {
+            Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        if (maxResults <= 0) {
+            return entityManager.createQuery(query).getResultList();
+        }
+        query.orderBy(criteriaBuilder.desc(root.get("id")));
+        return entityManager.createQuery(query).setMaxResults(maxResults).getResultList();
+    }
+
+    /**
+     * Преобразование строк проекции в набор полей в порядке запроса.
+     * ФИО назначенных сотрудников загружаются одним запросом.
+     */
+    private List<Map<String, Object>> toFields(List<Tuple> rows, ReportProjection projection) {
+        Map<Long, String> fullNames = new HashMap<>();
+        if (projection.fields().contains(ReportProjection.ASSIGNED_TO_FULL_NAME)) {
+            Set<Long> userIds = new HashSet<>();
+            for (Tuple row : rows) {
+                Long userId = row.get("assignedTo", Long.class);
+                if (userId != null) {
+                    userIds.add(userId);
+                }
+            }
+            for (User user : userRepository.findAllById(userIds)) {
+                fullNames.put(user.getId(), user.getLastName() + " " + user.getFirstName() + " " +
+                        (user.getMiddleName() != null ? user.getMiddleName() : ""));
+            }
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> fields = new LinkedHashMap<>();
+            for (String field : projection.fields()) {
+                fields.put(field, ReportProjection.ASSIGNED_TO_FULL_NAME.equals(field)
+                        ? fullNames.get(row.get("assignedTo", Long.class))
+                        : row.get(field));
+            }
+            result.add(fields);
         }
+        return result;
     }
 
     private List<ReportDTO> getReportsDTO(List<Report> reports) {
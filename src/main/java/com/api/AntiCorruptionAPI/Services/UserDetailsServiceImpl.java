@@ -1,10 +1,11 @@
 package com.api.AntiCorruptionAPI.Services;
 
+import com.api.AntiCorruptionAPI.Models.AuditRecord;
 import com.api.AntiCorruptionAPI.Models.User;
 import com.api.AntiCorruptionAPI.Repositories.UserRepository;
 import com.api.AntiCorruptionAPI.Responses.ServiceResponse;
+import com.api.AntiCorruptionAPI.Components.PrincipalCache;
 import com.api.AntiCorruptionAPI.Components.UserDetailsImpl;
-import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -12,8 +13,13 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Сервис для управления пользователями и аутентификации в системе.
  * <p>
@@ -27,16 +33,27 @@ import org.springframework.web.server.ResponseStatusException;
 public class UserDetailsServiceImpl implements UserDetailsService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuditService auditService;
+    private final PrincipalCache principalCache;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Конструктор для внедрения зависимостей репозитория и кодировщика паролей.
      *
-     * @param userRepository  Репозиторий для работы с пользователями
-     * @param passwordEncoder Кодировщик паролей для безопасного хэширования
+     * @param userRepository     Репозиторий для работы с пользователями
+     * @param passwordEncoder    Кодировщик паролей для безопасного хэширования
+     * @param auditService       Сервис аудита изменений
+     * @param principalCache     Кэш данных аутентификации
+     * @param transactionManager Менеджер транзакций для загрузки пользователя
      */
-    public UserDetailsServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserDetailsServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                                  AuditService auditService, PrincipalCache principalCache,
+                                  PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.auditService = auditService;
+        this.principalCache = principalCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
@@ -59,7 +76,9 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         user.setUsername(username);
         user.setPassword(passwordEncoder.encode(password)); // Хэшируем пароль
         user.setIsFired(false);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        auditService.recordUser(AuditRecord.Action.CREATE, savedUser.getId(), Map.of(), auditService.snapshot(savedUser));
+        return savedUser;
     }
 
     /**
@@ -88,6 +107,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         // Обновить пароль
         user.setPassword(encodedPassword);
         userRepository.save(user);
+        principalCache.invalidate(List.of(userId));
+        auditService.recordPasswordChange(userId);
 
         return new ServiceResponse<>(
                 null,
@@ -100,18 +121,20 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      * Загрузка данных пользователя для аутентификации.
      * <p>
      * Используется Spring Security для проверки учетных данных
-     * при входе в систему.
+     * при входе в систему. Результат кэшируется в {@link PrincipalCache}:
+     * транзакция открывается только при отсутствии пользователя в кэше.
      *
      * @param username Имя пользователя для поиска
      * @return Детали пользователя для аутентификации
      * @throws UsernameNotFoundException если пользователь не найден
      */
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
+        return principalCache.get(username, () -> transactionTemplate.execute(status -> {
+            User user = userRepository.findByUsername(username)
+                    .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
 
-        return UserDetailsImpl.build(user);
+            return UserDetailsImpl.build(user);
+        }));
     }
 }
\ No newline at end of file
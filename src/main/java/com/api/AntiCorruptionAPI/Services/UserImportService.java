@@ -0,0 +1,544 @@
+package com.api.AntiCorruptionAPI.Services;
+
+import com.api.AntiCorruptionAPI.Models.AccessGroup;
+import com.api.AntiCorruptionAPI.Models.AuditRecord;
+import com.api.AntiCorruptionAPI.Models.User;
+import com.api.AntiCorruptionAPI.Repositories.AccessGroupRepository;
+import com.api.AntiCorruptionAPI.Requests.UserImportRow;
+import com.api.AntiCorruptionAPI.Responses.ServiceResponse;
+import com.api.AntiCorruptionAPI.Responses.UserImportResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Сервис массового импорта пользователей.
+ * <p>
+ * Принимает CSV (первая строка — заголовок с именами полей) или NDJSON (один JSON-объект на строку).
+ * Уникальность логинов проверяется одним запросом для всего файла, пароли хэшируются параллельно
+ * в ограниченном пуле потоков, пользователи и их группы вставляются пакетами JDBC.
+ * Результат содержит состояние каждой строки; ошибка в одной строке не отменяет остальные.
+ * Если пакет не вставился из-за ограничения базы данных (например, логин занят параллельной
+ * регистрацией после проверки), его строки вставляются по одной, каждая в своей точке сохранения,
+ * чтобы ошибку получили только некорректные строки.
+ */
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (username, password, employee_id, last_name, first_name, middle_name, " +
+                    "position, department, email, phone_number, is_fired) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false)";
+
+    private static final String INSERT_USER_GROUP_SQL =
+            "INSERT INTO user_groups (user_id, group_id) VALUES (?, ?)";
+
+    /**
+     * Длина строковых столбцов таблицы пользователей (varchar по умолчанию Hibernate).
+     */
+    private static final int MAX_COLUMN_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final AccessGroupRepository accessGroupRepository;
+    private final AuditService auditService;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService hashingPool;
+
+    /**
+     * Максимальное количество строк в одном импорте.
+     */
+    @Value("${app.users.import.max-rows:10000}")
+    private int maxRows;
+
+    /**
+     * Количество строк в одном пакете вставки (и одной транзакции).
+     */
+    @Value("${app.users.import.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Строка, прошедшая проверку и ожидающая вставки.
+     */
+    private static final class PendingRow {
+        private final int index;
+        private final UserImportRow row;
+        private final List<Long> groupIds;
+        private String passwordHash;
+
+        private PendingRow(int index, UserImportRow row, List<Long> groupIds) {
+            this.index = index;
+            this.row = row;
+            this.groupIds = groupIds;
+        }
+    }
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param jdbcTemplate          шаблон для выполнения SQL-запросов
+     * @param transactionTemplate   шаблон транзакций
+     * @param passwordEncoder       кодировщик паролей
+     * @param accessGroupRepository репозиторий групп доступа
+     * @param auditService          сервис аудита изменений
+     * @param objectMapper          разбор строк NDJSON
+     * @param hashingThreads        размер пула хэширования паролей (0 — по числу процессоров)
+     */
+    public UserImportService(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             PasswordEncoder passwordEncoder,
+                             AccessGroupRepository accessGroupRepository,
+                             AuditService auditService,
+                             ObjectMapper objectMapper,
+                             @Value("${app.users.import.hashing-threads:0}") int hashingThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.accessGroupRepository = accessGroupRepository;
+        this.auditService = auditService;
+        this.objectMapper = objectMapper;
+
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.hashingPool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Останавливает пул хэширования паролей.
+     */
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    /**
+     * Импорт пользователей из CSV.
+     *
+     * @param csv          содержимое файла
+     * @param assignGroups разрешено ли назначать группы доступа
+     * @return Ответ с результатами по строкам
+     */
+    public ServiceResponse<UserImportResult> importCsv(String csv, boolean assignGroups) {
+        List<String[]> records;
+        try {
+            records = parseCsv(csv);
+        } catch (IllegalArgumentException e) {
+            return new ServiceResponse<>(null, "Malformed CSV: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+        if (records.isEmpty()) {
+            return new ServiceResponse<>(null, "CSV header is required", HttpStatus.BAD_REQUEST);
+        }
+
+        String[] header = records.get(0);
+        List<UserImportRow> rows = new ArrayList<>(records.size() - 1);
+        List<String> parseErrors = new ArrayList<>(records.size() - 1);
+        for (int i = 1; i < records.size(); i++) {
+            try {
+                rows.add(toRow(header, records.get(i)));
+                parseErrors.add(null);
+            } catch (IllegalArgumentException e) {
+                rows.add(null);
+                parseErrors.add(e.getMessage());
+            }
+        }
+        return importRows(rows, parseErrors, assignGroups);
+    }
+
+    /**
+     * Импорт пользователей из NDJSON.
+     *
+     * @param ndjson       содержимое файла
+     * @param assignGroups разрешено ли назначать группы доступа
+     * @return Ответ с результатами по строкам
+     */
+    public ServiceResponse<UserImportResult> importNdjson(String ndjson, boolean assignGroups) {
+        List<UserImportRow> rows = new ArrayList<>();
+        List<String> parseErrors = new ArrayList<>();
+        for (String line : ndjson.split("\r?\n")) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                rows.add(objectMapper.readValue(line, UserImportRow.class));
+                parseErrors.add(null);
+            } catch (Exception e) {
+                rows.add(null);
+                parseErrors.add("Malformed JSON: " + e.getMessage());
+            }
+        }
+        return importRows(rows, parseErrors, assignGroups);
+    }
+
+    private ServiceResponse<UserImportResult> importRows(List<UserImportRow> rows, List<String> parseErrors,
+                                                         boolean assignGroups) {
+        if (rows.isEmpty()) {
+            return new ServiceResponse<>(null, "No rows to import", HttpStatus.BAD_REQUEST);
+        }
+        if (rows.size() > maxRows) {
+            return new ServiceResponse<>(null, "Import is limited to " + maxRows + " rows", HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+
+        try {
+            UserImportResult.Row[] results = new UserImportResult.Row[rows.size()];
+            Map<String, Long> groupIdsByName = new HashMap<>();
+            for (AccessGroup group : accessGroupRepository.findAllCached()) {
+                groupIdsByName.put(group.getName(), group.getId());
+            }
+            Set<String> existing = findExistingUsernames(rows);
+
+            // Проверка строк
+            List<PendingRow> pending = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i < rows.size(); i++) {
+                UserImportRow row = rows.get(i);
+                String error = parseErrors.get(i);
+                if (error == null) {
+                    error = validate(row, seen, existing, assignGroups, groupIdsByName);
+                }
+                if (error != null) {
+                    results[i] = failed(i, row, error);
+                    continue;
+                }
+                seen.add(row.getUsername());
+                pending.add(new PendingRow(i, row, row.getGroups() == null ? List.of()
+                        : row.getGroups().stream().distinct().map(groupIdsByName::get).toList()));
+            }
+
+            // Параллельное хэширование паролей
+            CompletableFuture.allOf(pending.stream()
+                    .map(p -> CompletableFuture.runAsync(
+                            () -> p.passwordHash = passwordEncoder.encode(p.row.getPassword()), hashingPool))
+                    .toArray(CompletableFuture[]::new)).join();
+
+            // Пакетная вставка
+            for (int from = 0; from < pending.size(); from += batchSize) {
+                List<PendingRow> batch = pending.subList(from, Math.min(from + batchSize, pending.size()));
+                try {
+                    List<Long> ids = transactionTemplate.execute(status -> insertBatch(batch));
+                    for (int j = 0; j < batch.size(); j++) {
+                        PendingRow p = batch.get(j);
+                        results[p.index] = new UserImportResult.Row(
+                                p.index + 1, p.row.getUsername(), UserImportResult.Status.CREATED, ids.get(j), null);
+                    }
+                } catch (Exception e) {
+                    // Например, логин занят параллельной регистрацией после проверки
+                    logger.warn("User import batch of {} rows failed, retrying row by row: {}", batch.size(), e.getMessage());
+                    insertRowByRow(batch, results);
+                }
+            }
+
+            List<UserImportResult.Row> rowResults = Arrays.asList(results);
+            int created = (int) rowResults.stream().filter(r -> r.status() == UserImportResult.Status.CREATED).count();
+            UserImportResult result = new UserImportResult(rows.size(), created, rows.size() - created, rowResults);
+            return new ServiceResponse<>(
+                    result,
+                    "Imported " + created + " of " + rows.size() + " users",
+                    created > 0 ? HttpStatus.OK : HttpStatus.UNPROCESSABLE_ENTITY
+            );
+        } catch (Exception e) {
+            logger.error("User import failed", e);
+            return new ServiceResponse<>(null, "User import failed: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private Set<String> findExistingUsernames(List<UserImportRow> rows) {
+        String[] usernames = rows.stream()
+                .filter(row -> row != null && row.getUsername() != null)
+                .map(UserImportRow::getUsername)
+                .distinct()
+                .toArray(String[]::new);
+        if (usernames.length == 0) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query(
+                connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            "SELECT username FROM users WHERE username = ANY (?)");
+                    statement.setArray(1, connection.createArrayOf("text", usernames));
+                    return statement;
+                },
+                (resultSet, rowNum) -> resultSet.getString(1)));
+    }
+
+    /**
+     * Вставка строк пакета по одной в одной транзакции: каждая строка выполняется в своей
+     * точке сохранения, ошибка откатывает только ее.
+     */
+    private void insertRowByRow(List<PendingRow> batch, UserImportResult.Row[] results) {
+        UserImportResult.Row[] outcome = new UserImportResult.Row[batch.size()];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int j = 0; j < batch.size(); j++) {
+                    PendingRow p = batch.get(j);
+                    Object savepoint = status.createSavepoint();
+                    try {
+                        Long id = insertBatch(List.of(p)).get(0);
+                        status.releaseSavepoint(savepoint);
+                        outcome[j] = new UserImportResult.Row(
+                                p.index + 1, p.row.getUsername(), UserImportResult.Status.CREATED, id, null);
+                    } catch (RuntimeException e) {
+                        status.rollbackToSavepoint(savepoint);
+                        outcome[j] = failed(p.index, p.row,
+                                "Insert failed: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                    }
+                }
+            });
+        } catch (Exception e) {
+            logger.warn("User import of {} rows one by one failed: {}", batch.size(), e.getMessage());
+            for (int j = 0; j < batch.size(); j++) {
+                PendingRow p = batch.get(j);
+                outcome[j] = failed(p.index, p.row, "Insert failed: " + e.getMessage());
+            }
+        }
+        for (int j = 0; j < batch.size(); j++) {
+            results[batch.get(j).index] = outcome[j];
+        }
+    }
+
+    private List<Long> insertBatch(List<PendingRow> batch) {
+        List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            List<Long> generated = new ArrayList<>(batch.size());
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_USER_SQL, new String[]{"id"})) {
+                for (PendingRow p : batch) {
+                    UserImportRow row = p.row;
+                    statement.setString(1, row.getUsername());
+                    statement.setString(2, p.passwordHash);
+                    statement.setString(3, row.getEmployeeId());
+                    statement.setString(4, row.getLastName());
+                    statement.setString(5, row.getFirstName());
+                    statement.setString(6, row.getMiddleName());
+                    statement.setString(7, row.getPosition());
+                    statement.setString(8, row.getDepartment());
+                    statement.setString(9, row.getEmail());
+                    statement.setString(10, row.getPhoneNumber());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        generated.add(keys.getLong(1));
+                    }
+                }
+            }
+            return generated;
+        });
+        if (ids == null || ids.size() != batch.size()) {
+            throw new IllegalStateException("Generated keys do not match inserted rows");
+        }
+
+        List<Object[]> memberships = new ArrayList<>();
+        for (int j = 0; j < batch.size(); j++) {
+            for (Long groupId : batch.get(j).groupIds) {
+                memberships.add(new Object[]{ids.get(j), groupId});
+            }
+        }
+        if (!memberships.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_USER_GROUP_SQL, memberships);
+        }
+
+        // Аудит фиксируется после коммита транзакции пакета
+        for (int j = 0; j < batch.size(); j++) {
+            auditService.recordUser(AuditRecord.Action.CREATE, ids.get(j), Map.of(),
+                    auditService.snapshot(toUser(batch.get(j), ids.get(j))));
+        }
+        return ids;
+    }
+
+    private static String validate(UserImportRow row, Set<String> seen, Set<String> existing,
+                                   boolean assignGroups, Map<String, Long> groupIdsByName) {
+        if (row.getUsername() == null || row.getUsername().isBlank()) {
+            return "username is required";
+        }
+        if (row.getPassword() == null || row.getPassword().isBlank()) {
+            return "password is required";
+        }
+        if (existing.contains(row.getUsername())) {
+            return "Username is already taken";
+        }
+        if (seen.contains(row.getUsername())) {
+            return "Duplicate username in import";
+        }
+        String tooLong = firstTooLong(
+                "username", row.getUsername(),
+                "employeeId", row.getEmployeeId(),
+                "lastName", row.getLastName(),
+                "firstName", row.getFirstName(),
+                "middleName", row.getMiddleName(),
+                "position", row.getPosition(),
+                "department", row.getDepartment(),
+                "email", row.getEmail(),
+                "phoneNumber", row.getPhoneNumber());
+        if (tooLong != null) {
+            return tooLong + " must not exceed " + MAX_COLUMN_LENGTH + " characters";
+        }
+        if (row.getGroups() != null && !row.getGroups().isEmpty()) {
+            if (!assignGroups) {
+                return "ManageUserGroups authority is required to assign groups";
+            }
+            for (String group : row.getGroups()) {
+                if (!groupIdsByName.containsKey(group)) {
+                    return "Unknown group: " + group;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Имя первого поля, значение которого длиннее столбца.
+     *
+     * @param namesAndValues пары "имя поля, значение"
+     */
+    private static String firstTooLong(String... namesAndValues) {
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            String value = namesAndValues[i + 1];
+            if (value != null && value.length() > MAX_COLUMN_LENGTH) {
+                return namesAndValues[i];
+            }
+        }
+        return null;
+    }
+
+    private static UserImportResult.Row failed(int index, UserImportRow row, String error) {
+        return new UserImportResult.Row(index + 1, row != null ? row.getUsername() : null,
+                UserImportResult.Status.FAILED, null, error);
+    }
+
+    private static User toUser(PendingRow pending, Long id) {
+        UserImportRow row = pending.row;
+        User user = new User();
+        user.setId(id);
+        user.setUsername(row.getUsername());
+        user.setEmployeeId(row.getEmployeeId());
+        user.setLastName(row.getLastName());
+        user.setFirstName(row.getFirstName());
+        user.setMiddleName(row.getMiddleName());
+        user.setPosition(row.getPosition());
+        user.setDepartment(row.getDepartment());
+        user.setEmail(row.getEmail());
+        user.setPhoneNumber(row.getPhoneNumber());
+        user.setIsFired(false);
+        if (row.getGroups() != null) {
+            for (String name : row.getGroups()) {
+                AccessGroup group = new AccessGroup();
+                group.setName(name);
+                user.getGroups().add(group);
+            }
+        }
+        return user;
+    }
+
+    private static UserImportRow toRow(String[] header, String[] values) {
+        if (values.length > header.length) {
+            throw new IllegalArgumentException("Row has more columns than the header");
+        }
+        UserImportRow row = new UserImportRow();
+        for (int c = 0; c < values.length; c++) {
+            String value = values[c].isEmpty() ? null : values[c];
+            switch (header[c].trim().toLowerCase(Locale.ROOT)) {
+                case "username" -> row.setUsername(value);
+                case "password" -> row.setPassword(value);
+                case "employeeid" -> row.setEmployeeId(value);
+                case "lastname" -> row.setLastName(value);
+                case "firstname" -> row.setFirstName(value);
+                case "middlename" -> row.setMiddleName(value);
+                case "position" -> row.setPosition(value);
+                case "department" -> row.setDepartment(value);
+                case "email" -> row.setEmail(value);
+                case "phonenumber" -> row.setPhoneNumber(value);
+                case "groups" -> row.setGroups(value == null ? new ArrayList<>()
+                        : Arrays.stream(value.split(";")).map(String::trim).filter(s -> !s.isEmpty()).toList());
+                default -> throw new IllegalArgumentException("Unknown column: " + header[c]);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Разбор CSV по RFC 4180: поля в кавычках могут содержать запятые, переводы строк
+     * и удвоенные кавычки. Пустые строки пропускаются.
+     */
+    static List<String[]> parseCsv(String csv) {
+        List<String[]> records = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStarted = false;
+
+        for (int i = 0; i < csv.length(); i++) {
+            char ch = csv.charAt(i);
+            if (quoted) {
+                if (ch == '"') {
+                    if (i + 1 < csv.length() && csv.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"' && field.isEmpty()) {
+                quoted = true;
+                fieldStarted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStarted = true;
+            } else if (ch == '\n' || ch == '\r') {
+                if (ch == '\r' && i + 1 < csv.length() && csv.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                if (fieldStarted || !field.isEmpty()) {
+                    fields.add(field.toString());
+                    records.add(fields.toArray(String[]::new));
+                }
+                fields.clear();
+                field.setLength(0);
+                fieldStarted = false;
+            } else {
+                field.append(ch);
+                fieldStarted = true;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        if (fieldStarted || !field.isEmpty()) {
+            fields.add(field.toString());
+            records.add(fields.toArray(String[]::new));
+        }
+        return records;
+    }
+}
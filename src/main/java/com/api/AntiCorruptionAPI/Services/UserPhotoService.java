@@ -0,0 +1,404 @@
+package com.api.AntiCorruptionAPI.Services;
+
+import com.api.AntiCorruptionAPI.Components.UserPhotoMigration;
+import com.api.AntiCorruptionAPI.Models.UserPhoto;
+import com.api.AntiCorruptionAPI.Repositories.UserPhotoRepository;
+import com.api.AntiCorruptionAPI.Repositories.UserRepository;
+import com.api.AntiCorruptionAPI.Responses.ServiceResponse;
+import com.api.AntiCorruptionAPI.Responses.UserPhotoFile;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Сервис фотографий сотрудников.
+ * <p>
+ * Фотографии хранятся в таблице {@code user_photos} и отдаются из дискового кэша:
+ * при загрузке фотографии в кэш записываются оригинал и миниатюры заданных размеров,
+ * при первом обращении к отсутствующему в кэше файлу он формируется из базы данных.
+ * Имена файлов кэша содержат ETag, поэтому устаревшие файлы никогда не отдаются.
+ */
+@Service
+public class UserPhotoService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserPhotoService.class);
+
+    private static final String ORIGINAL = "original";
+
+    private final UserPhotoRepository userPhotoRepository;
+    private final UserRepository userRepository;
+    private final UserPhotoMigration userPhotoMigration;
+
+    /**
+     * Каталог дискового кэша фотографий.
+     */
+    @Value("${app.users.photos.cache-dir:photo-cache}")
+    private String cacheDir;
+
+    /**
+     * Максимальный размер загружаемой фотографии в байтах.
+     */
+    @Value("${app.users.photos.max-size-bytes:5242880}")
+    private long maxSizeBytes;
+
+    /**
+     * Допустимые размеры миниатюр (по большей стороне, в пикселях).
+     */
+    @Value("${app.users.photos.thumbnail-sizes:64,256}")
+    private List<Integer> thumbnailSizes;
+
+    /**
+     * Максимальное количество пикселей фотографии. Проверяется по заголовку изображения
+     * до декодирования: небольшой сжатый файл может разворачиваться в гигабайты пикселей.
+     */
+    @Value("${app.users.photos.max-pixels:16777216}")
+    private long maxPixels;
+
+    private Path cacheRoot;
+
+    /**
+     * Конструктор для внедрения зависимостей.
+     *
+     * @param userPhotoRepository репозиторий фотографий
+     * @param userRepository      репозиторий пользователей
+     * @param userPhotoMigration  перенос фотографий из старого столбца
+     */
+    public UserPhotoService(UserPhotoRepository userPhotoRepository, UserRepository userRepository,
+                            UserPhotoMigration userPhotoMigration) {
+        this.userPhotoRepository = userPhotoRepository;
+        this.userRepository = userRepository;
+        this.userPhotoMigration = userPhotoMigration;
+    }
+
+    /**
+     * Создает каталог дискового кэша.
+     *
+     * @throws IOException при ошибке создания каталога
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        cacheRoot = Paths.get(cacheDir);
+        Files.createDirectories(cacheRoot);
+    }
+
+    /**
+     * Загрузка (замена) фотографии пользователя.
+     * <p>
+     * После сохранения в кэш заранее записываются оригинал и миниатюры.
+     *
+     * @param userId идентификатор пользователя
+     * @param data   содержимое фотографии
+     * @return Ответ с ETag сохраненной фотографии или ошибкой
+     */
+    public ServiceResponse<String> savePhoto(Long userId, byte[] data) {
+        try {
+            if (!userRepository.existsById(userId)) {
+                return new ServiceResponse<>(null, "User not found", HttpStatus.NOT_FOUND);
+            }
+            ServiceResponse<String> validation = validatePhoto(data);
+            if (validation.status() != HttpStatus.OK) {
+                return validation;
+            }
+            String contentType = validation.data();
+
+            UserPhoto photo = userPhotoRepository.save(UserPhoto.builder()
+                    .userId(userId)
+                    .data(data)
+                    .contentType(contentType)
+                    .size((long) data.length)
+                    .etag(DigestUtils.md5DigestAsHex(data))
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+
+            evictCache(userId);
+            try {
+                writeCacheFiles(photo);
+            } catch (IOException e) {
+                // Кэш будет заполнен при первом обращении
+                logger.warn("Unable to pre-generate photo cache for user {}: {}", userId, e.getMessage());
+            }
+            return new ServiceResponse<>(photo.getEtag(), "Photo uploaded successfully", HttpStatus.OK);
+        } catch (Exception e) {
+            logger.error("Error saving photo for user {}", userId, e);
+            return new ServiceResponse<>(null, "Error saving photo: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Проверка фотографии без сохранения: размер, формат и количество пикселей.
+     *
+     * @param data содержимое фотографии
+     * @return Ответ с MIME-типом фотографии или ошибкой 400, 413, 415
+     */
+    public ServiceResponse<String> validatePhoto(byte[] data) {
+        if (data == null || data.length == 0) {
+            return new ServiceResponse<>(null, "Photo is empty", HttpStatus.BAD_REQUEST);
+        }
+        if (data.length > maxSizeBytes) {
+            return new ServiceResponse<>(null, "Photo exceeds " + maxSizeBytes + " bytes", HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+        String contentType = detectContentType(data);
+        if (contentType == null) {
+            return new ServiceResponse<>(null, "Unsupported image format", HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        }
+        long[] dimensions;
+        try {
+            dimensions = readDimensions(data);
+        } catch (IOException e) {
+            return new ServiceResponse<>(null, "Unreadable image: " + e.getMessage(), HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        }
+        if (dimensions != null && dimensions[0] * dimensions[1] > maxPixels) {
+            return new ServiceResponse<>(null, "Photo exceeds " + maxPixels + " pixels", HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+        return new ServiceResponse<>(contentType, "Photo is valid", HttpStatus.OK);
+    }
+
+    /**
+     * Удаление фотографии пользователя.
+     *
+     * @param userId идентификатор пользователя
+     * @return Ответ об успешности удаления
+     */
+    public ServiceResponse<Void> deletePhoto(Long userId) {
+        try {
+            if (!userPhotoRepository.existsById(userId)) {
+                return new ServiceResponse<>(null, "Photo not found", HttpStatus.NOT_FOUND);
+            }
+            userPhotoRepository.deleteById(userId);
+            userPhotoMigration.clearLegacyPhoto(userId);
+            evictCache(userId);
+            return new ServiceResponse<>(null, "Photo deleted successfully", HttpStatus.OK);
+        } catch (Exception e) {
+            logger.error("Error deleting photo for user {}", userId, e);
+            return new ServiceResponse<>(null, "Error deleting photo: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Получение файла фотографии из дискового кэша.
+     * <p>
+     * Содержимое читается из базы данных, только если файла еще нет в кэше.
+     *
+     * @param userId идентификатор пользователя
+     * @param size   размер миниатюры или null для оригинала
+     * @return Ответ с файлом фотографии или ошибкой
+     */
+    @Transactional
+    public ServiceResponse<UserPhotoFile> getPhoto(Long userId, Integer size) {
+        try {
+            if (size != null && !thumbnailSizes.contains(size)) {
+                return new ServiceResponse<>(null, "Supported sizes: " + thumbnailSizes, HttpStatus.BAD_REQUEST);
+            }
+
+            Optional<UserPhotoRepository.Info> info = userPhotoRepository.findInfoByUserId(userId);
+            if (info.isEmpty()) {
+                return new ServiceResponse<>(null, "Photo not found", HttpStatus.NOT_FOUND);
+            }
+            String etag = info.get().getEtag();
+            String contentType = info.get().getContentType();
+
+            if (contentType == null) {
+                // Фотография перенесена из старой схемы: тип определяется по содержимому
+                UserPhoto photo = userPhotoRepository.findById(userId).orElseThrow();
+                contentType = detectContentType(photo.getData());
+                if (contentType == null) {
+                    contentType = "application/octet-stream";
+                }
+                userPhotoRepository.updateContentType(userId, contentType);
+            }
+
+            String variant = size != null ? size.toString() : ORIGINAL;
+            String variantType = size != null ? thumbnailContentType(contentType) : contentType;
+            Path file = cacheFile(userId, etag, variant, variantType);
+            if (!Files.exists(file)) {
+                UserPhoto photo = userPhotoRepository.findById(userId).orElse(null);
+                if (photo == null) {
+                    return new ServiceResponse<>(null, "Photo not found", HttpStatus.NOT_FOUND);
+                }
+                photo.setContentType(contentType);
+                writeCacheFiles(photo);
+            }
+
+            if (size != null && !Files.exists(file)) {
+                // Формат не поддерживается для масштабирования — отдаем оригинал
+                variantType = contentType;
+                file = cacheFile(userId, etag, ORIGINAL, contentType);
+            }
+            String variantEtag = size != null ? etag + "-" + size : etag;
+            return new ServiceResponse<>(new UserPhotoFile(file, variantType, variantEtag), "Photo found", HttpStatus.OK);
+        } catch (Exception e) {
+            logger.error("Error retrieving photo for user {}", userId, e);
+            return new ServiceResponse<>(null, "Error retrieving photo: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private void writeCacheFiles(UserPhoto photo) throws IOException {
+        byte[] data = photo.getData();
+        String contentType = photo.getContentType();
+        writeAtomically(cacheFile(photo.getUserId(), photo.getEtag(), ORIGINAL, contentType), data);
+
+        BufferedImage image = decodeForThumbnails(data);
+        if (image == null) {
+            return;
+        }
+        String thumbnailType = thumbnailContentType(contentType);
+        String format = "image/png".equals(thumbnailType) ? "png" : "jpeg";
+        for (int size : thumbnailSizes) {
+            BufferedImage thumbnail = scale(image, size, "png".equals(format));
+            Path target = cacheFile(photo.getUserId(), photo.getEtag(), Integer.toString(size), thumbnailType);
+            Path temp = Files.createTempFile(cacheRoot, "thumb", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                ImageIO.write(thumbnail, format, out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Декодирование изображения для миниатюр. Размеры читаются из заголовка до декодирования;
+     * изображения больше допустимого не декодируются. Декодируется уменьшенная копия
+     * (прореживание пикселей), достаточная для самой большой миниатюры.
+     *
+     * @return изображение или null, если формат не поддерживается или изображение слишком большое
+     */
+    private BufferedImage decodeForThumbnails(byte[] data) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long width = reader.getWidth(0);
+                long height = reader.getHeight(0);
+                if (width * height > maxPixels) {
+                    logger.warn("Skipping thumbnails for a {}x{} image: exceeds {} pixels", width, height, maxPixels);
+                    return null;
+                }
+                int largestThumbnail = thumbnailSizes.stream().mapToInt(Integer::intValue).max().orElse(1);
+                int subsampling = (int) Math.max(1, Math.max(width, height) / (2L * largestThumbnail));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Размеры изображения из заголовка без декодирования пикселей.
+     *
+     * @return ширина и высота или null, если формат не поддерживается
+     */
+    private static long[] readDimensions(byte[] data) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                return new long[]{reader.getWidth(0), reader.getHeight(0)};
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void writeAtomically(Path target, byte[] data) throws IOException {
+        Path temp = Files.createTempFile(cacheRoot, "photo", ".tmp");
+        Files.write(temp, data);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void evictCache(Long userId) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheRoot, userId + "-*")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to evict photo cache for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private Path cacheFile(Long userId, String etag, String variant, String contentType) {
+        return cacheRoot.resolve(userId + "-" + etag + "-" + variant + "." + extension(contentType));
+    }
+
+    private static BufferedImage scale(BufferedImage image, int maxSide, boolean keepAlpha) {
+        double ratio = Math.min(1.0, (double) maxSide / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+
+        BufferedImage thumbnail = new BufferedImage(width, height,
+                keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return thumbnail;
+    }
+
+    private static String thumbnailContentType(String contentType) {
+        return "image/png".equals(contentType) || "image/gif".equals(contentType) ? "image/png" : "image/jpeg";
+    }
+
+    private static String extension(String contentType) {
+        return switch (contentType) {
+            case "image/jpeg" -> "jpg";
+            case "image/png" -> "png";
+            case "image/gif" -> "gif";
+            case "image/webp" -> "webp";
+            default -> "bin";
+        };
+    }
+
+    private static String detectContentType(byte[] data) {
+        if (data.length >= 3 && (data[0] & 0xFF) == 0xFF && (data[1] & 0xFF) == 0xD8 && (data[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (data.length >= 8 && (data[0] & 0xFF) == 0x89 && data[1] == 'P' && data[2] == 'N' && data[3] == 'G') {
+            return "image/png";
+        }
+        if (data.length >= 6 && data[0] == 'G' && data[1] == 'I' && data[2] == 'F' && data[3] == '8') {
+            return "image/gif";
+        }
+        if (data.length >= 12 && data[0] == 'R' && data[1] == 'I' && data[2] == 'F' && data[3] == 'F'
+                && data[8] == 'W' && data[9] == 'E' && data[10] == 'B' && data[11] == 'P') {
+            return "image/webp";
+        }
+        return null;
+    }
+}
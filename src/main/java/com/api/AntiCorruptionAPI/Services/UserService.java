@@ -1,21 +1,47 @@
 package com.api.AntiCorruptionAPI.Services;
 
+import com.api.AntiCorruptionAPI.Components.PrincipalCache;
+import com.api.AntiCorruptionAPI.Components.UserUpdateMapper;
 import com.api.AntiCorruptionAPI.Models.AccessGroup;
+import com.api.AntiCorruptionAPI.Models.AuditRecord;
 import com.api.AntiCorruptionAPI.Models.User;
+import com.api.AntiCorruptionAPI.Responses.BulkGroupMembershipResult;
+import com.api.AntiCorruptionAPI.Responses.OffboardingProgress;
 import com.api.AntiCorruptionAPI.Responses.ServiceResponse;
+import com.api.AntiCorruptionAPI.Responses.UserDirectoryEntry;
+import com.api.AntiCorruptionAPI.Responses.UserDirectoryPage;
 import com.api.AntiCorruptionAPI.Repositories.AccessGroupRepository;
 import com.api.AntiCorruptionAPI.Repositories.UserRepository;
 import com.api.AntiCorruptionAPI.Requests.UserUpdateRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Сервис для управления пользователями в системе.
@@ -35,18 +61,57 @@ public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
+    /**
+     * Добавление всех пар "пользователь — группа" одним запросом; существующие связи пропускаются.
+     */
+    private static final String ADD_MEMBERSHIPS_SQL =
+            "INSERT INTO user_groups (user_id, group_id) " +
+            "SELECT u, g FROM unnest(?::bigint[]) u CROSS JOIN unnest(?::bigint[]) g " +
+            "ON CONFLICT DO NOTHING";
+
+    /**
+     * Удаление всех пар "пользователь — группа" одним запросом.
+     */
+    private static final String REMOVE_MEMBERSHIPS_SQL =
+            "DELETE FROM user_groups WHERE user_id = ANY (?) AND group_id = ANY (?)";
+
     private final UserRepository userRepository;
     private final AccessGroupRepository accessGroupRepository;
+    private final AuditService auditService;
+    private final UserPhotoService userPhotoService;
+    private final UserUpdateMapper userUpdateMapper;
+    private final PrincipalCache principalCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ReportOffboardingService reportOffboardingService;
 
     /**
      * Конструктор для внедрения зависимостей репозиториев.
      *
      * @param userRepository Репозиторий для работы с пользователями
      * @param accessGroupRepository Репозиторий для работы с группами доступа
+     * @param auditService Сервис аудита изменений
+     * @param userPhotoService Сервис фотографий сотрудников
+     * @param userUpdateMapper Копирование полей запроса на обновление
+     * @param principalCache Кэш данных аутентификации
+     * @param jdbcTemplate Шаблон для массовых операций с членством в группах
+     * @param entityManagerFactory Фабрика менеджеров сущностей (для очистки кэша второго уровня)
+     * @param reportOffboardingService Перераспределение отчетов уволенных сотрудников
      */
-    public UserService(UserRepository userRepository, AccessGroupRepository accessGroupRepository) {
+    public UserService(UserRepository userRepository, AccessGroupRepository accessGroupRepository,
+                       AuditService auditService, UserPhotoService userPhotoService,
+                       UserUpdateMapper userUpdateMapper, PrincipalCache principalCache,
+                       JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                       ReportOffboardingService reportOffboardingService) {
         this.userRepository = userRepository;
         this.accessGroupRepository = accessGroupRepository;
+        this.auditService = auditService;
+        this.userPhotoService = userPhotoService;
+        this.userUpdateMapper = userUpdateMapper;
+        this.principalCache = principalCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.reportOffboardingService = reportOffboardingService;
     }
 
     /**
@@ -54,6 +119,7 @@ public class UserService {
      *
      * @return Ответ со списком пользователей
      */
+    @Transactional(readOnly = true, timeoutString = "${app.queries.timeout.user-read:5}")
     public ServiceResponse<List<User>> getAllUsers() {
         List<User> users = userRepository.findAll();
         return new ServiceResponse<>(
@@ -63,6 +129,63 @@ public class UserService {
         );
     }
 
+    /**
+     * Получение страницы справочника сотрудников.
+     * <p>
+     * Читает только отображаемые столбцы; группы всех пользователей страницы
+     * загружаются одним дополнительным запросом.
+     *
+     * @param page Номер страницы (с нуля)
+     * @param size Размер страницы
+     * @return Ответ со страницей справочника
+     */
+    @Transactional(readOnly = true, timeoutString = "${app.queries.timeout.user-read:5}")
+    public ServiceResponse<UserDirectoryPage> getUserDirectory(int page, int size) {
+        Page<UserRepository.DirectoryRow> rows = userRepository.findDirectoryPage(PageRequest.of(page, size));
+
+        Map<Long, List<String>> groups = new HashMap<>();
+        if (rows.hasContent()) {
+            List<Long> userIds = rows.getContent().stream().map(UserRepository.DirectoryRow::getId).toList();
+            for (UserRepository.GroupMembershipRow membership : userRepository.findGroupNames(userIds)) {
+                groups.computeIfAbsent(membership.getUserId(), id -> new ArrayList<>()).add(membership.getGroupName());
+            }
+        }
+
+        List<UserDirectoryEntry> entries = rows.getContent().stream()
+                .map(row -> new UserDirectoryEntry(
+                        row.getId(),
+                        row.getUsername(),
+                        row.getLastName(),
+                        row.getFirstName(),
+                        row.getMiddleName(),
+                        row.getPosition(),
+                        row.getDepartment(),
+                        row.getIsFired(),
+                        groups.getOrDefault(row.getId(), List.of())))
+                .toList();
+
+        return new ServiceResponse<>(
+                new UserDirectoryPage(entries, page, size, rows.getTotalElements(), rows.getTotalPages()),
+                "User directory retrieved successfully",
+                HttpStatus.OK
+        );
+    }
+
+    /**
+     * Получение пользователей по набору идентификаторов одним запросом.
+     *
+     * @param ids Идентификаторы пользователей
+     * @return Карта "идентификатор — пользователь" (отсутствующие пользователи не включаются)
+     */
+    @Transactional(readOnly = true, timeoutString = "${app.queries.timeout.user-read:5}")
+    public Map<Long, User> getUsersByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
     /**
      * Добавление нового пользователя в систему.
      *
@@ -80,6 +203,7 @@ public class UserService {
             }
 
             User savedUser = userRepository.save(user);
+            auditService.recordUser(AuditRecord.Action.CREATE, savedUser.getId(), Map.of(), auditService.snapshot(savedUser));
             logger.info("User  added successfully: {}", savedUser.getUsername());
             return new ServiceResponse<>(savedUser, "User  added successfully", HttpStatus.CREATED);
         } catch (DataIntegrityViolationException e) {
@@ -102,6 +226,9 @@ public class UserService {
             Optional<User> user = userRepository.findById(id);
             if (user.isPresent()) {
                 userRepository.deleteById(id);
+                userPhotoService.deletePhoto(id);
+                principalCache.invalidate(List.of(id));
+                auditService.recordUser(AuditRecord.Action.DELETE, id, auditService.snapshot(user.get()), Map.of());
                 logger.info("User  deleted successfully: {}", id);
                 return new ServiceResponse<>(null, "User  deleted successfully", HttpStatus.OK);
             } else {
@@ -120,6 +247,7 @@ public class UserService {
      * @param groupName Название группы
      * @return Ответ со списком пользователей группы
      */
+    @Transactional(readOnly = true, timeoutString = "${app.queries.timeout.user-read:5}")
     public ServiceResponse<List<User>> getUsersByGroup(String groupName) {
         List<User> users = userRepository.findByGroupsName(groupName);
         return new ServiceResponse<>(
@@ -133,6 +261,9 @@ public class UserService {
      * Обновление информации о пользователе.
      *
      * Поддерживает обновление различных полей, включая группы доступа.
+     * При увольнении сотрудника его открытые отчеты перераспределяются в фоне.
+     * Фотография проверяется до сохранения пользователя: при ошибке возвращается 400, 413 или 415
+     * и пользователь не изменяется.
      *
      * @param id Идентификатор пользователя
      * @param userUpdateRequest Данные для обновления
@@ -143,24 +274,18 @@ public class UserService {
             // Найти пользователя по ID
             User user = userRepository.findById(id)
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User  not found"));
-
-            Class<?> requestClass = userUpdateRequest.getClass();
-            Class<?> userClass = user.getClass();
-
-            for (Method getter : requestClass.getMethods()) {
-                if (getter.getName().startsWith("get") && !getter.getName().equals("getClass")) {
-                    try {
-                        Object value = getter.invoke(userUpdateRequest);
-                        if (value != null) {
-                            String setterName = "set" + getter.getName().substring(3);
-                            Method setter = userClass.getMethod(setterName, getter.getReturnType());
-                            setter.invoke(user, value);
-                        }
-                    } catch (Exception e) {
-                        logger.error("Error updating user field: {}", getter.getName(), e);
-                    }
+            if (userUpdateRequest.getPhoto() != null) {
+                // Некорректная фотография отклоняется до изменения пользователя
+                ServiceResponse<String> validation = userPhotoService.validatePhoto(userUpdateRequest.getPhoto());
+                if (validation.status() != HttpStatus.OK) {
+                    return new ServiceResponse<>(null, validation.message(), validation.status());
                 }
             }
+            Map<String, String> before = auditService.snapshot(user);
+            boolean wasFired = Boolean.TRUE.equals(user.getIsFired());
+
+            // Копирование заполненных полей (без пароля, групп и фотографии)
+            userUpdateMapper.apply(userUpdateRequest, user);
 
             // Обновление полей пользователя
             if (userUpdateRequest.getUsername() != null) {
@@ -169,20 +294,39 @@ public class UserService {
 
             // Обработка обновления групп
             if (userUpdateRequest.getGroups() != null) {
-                // Очистить существующие группы
-                user.getGroups().clear();
-
-                // Добавить новые группы
-                for (AccessGroup group : userUpdateRequest.getGroups()) {
-                    // Найти группу по ID (предполагается, что у вас есть метод в репозитории)
-                    AccessGroup existingGroup = accessGroupRepository.findById(group.getId())
-                            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found with ID: " + group.getId()));
-                    user.getGroups().add(existingGroup);
+                // Загрузка всех новых групп одним запросом
+                Set<Long> groupIds = userUpdateRequest.getGroups().stream()
+                        .map(AccessGroup::getId)
+                        .collect(Collectors.toCollection(LinkedHashSet::new));
+                List<AccessGroup> groups = accessGroupRepository.findAllById(groupIds);
+                if (groups.size() != groupIds.size()) {
+                    groups.forEach(group -> groupIds.remove(group.getId()));
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Group not found with ID: " + groupIds.iterator().next());
                 }
+
+                // Замена существующих групп
+                user.getGroups().clear();
+                user.getGroups().addAll(groups);
             }
 
             // Сохранить обновленного пользователя
             User updatedUser = userRepository.save(user);
+            ServiceResponse<String> photoError = null;
+            if (userUpdateRequest.getPhoto() != null) {
+                ServiceResponse<String> photoResponse = userPhotoService.savePhoto(id, userUpdateRequest.getPhoto());
+                if (photoResponse.status() != HttpStatus.OK) {
+                    photoError = photoResponse;
+                }
+            }
+            principalCache.invalidate(List.of(id));
+            auditService.recordUser(AuditRecord.Action.UPDATE, id, before, auditService.snapshot(updatedUser));
+            if (!wasFired && Boolean.TRUE.equals(updatedUser.getIsFired())) {
+                reportOffboardingService.startReassignment(id);
+            }
+            if (photoError != null) {
+                return new ServiceResponse<>(updatedUser, "User  updated, photo not saved: " + photoError.message(),
+                        photoError.status());
+            }
             return new ServiceResponse<>(updatedUser, "User  updated successfully", HttpStatus.OK);
         } catch (ResponseStatusException e) {
             return new ServiceResponse<>(null, e.getReason(), (HttpStatus) e.getStatusCode());
@@ -192,6 +336,24 @@ public class UserService {
         }
     }
 
+    /**
+     * Повторный запуск перераспределения отчетов уволенного сотрудника
+     * (например, если при увольнении не было свободных сотрудников).
+     *
+     * @param id Идентификатор уволенного сотрудника
+     * @return Ответ с состоянием задачи
+     */
+    public ServiceResponse<OffboardingProgress> reassignReportsOfFiredUser(long id) {
+        Optional<User> user = userRepository.findById(id);
+        if (user.isEmpty()) {
+            return new ServiceResponse<>(null, "User  not found", HttpStatus.NOT_FOUND);
+        }
+        if (!Boolean.TRUE.equals(user.get().getIsFired())) {
+            return new ServiceResponse<>(null, "User is not fired", HttpStatus.CONFLICT);
+        }
+        return reportOffboardingService.startReassignment(id);
+    }
+
     /**
      * Добавление пользователя в группу доступа.
      *
@@ -206,7 +368,11 @@ public class UserService {
         AccessGroup group = accessGroupRepository.findById(groupId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Access group not found"));
 
+        Map<String, String> before = auditService.snapshot(user);
         user.getGroups().add(group);
+        User updatedUser = userRepository.save(user);
+        principalCache.invalidate(List.of(userId));
+        auditService.recordUser(AuditRecord.Action.ADD_TO_GROUP, userId, before, auditService.snapshot(updatedUser));
         return new ServiceResponse<>(null, "User added to group successfully", HttpStatus.OK);
     }
 
@@ -226,9 +392,12 @@ public class UserService {
                             HttpStatus.NOT_FOUND, "Group not found"));
 
             // Удаление группы из множества групп пользователя
+            Map<String, String> before = auditService.snapshot(user);
             user.getGroups().remove(group);
 
             User updatedUser = userRepository.save(user);
+            principalCache.invalidate(List.of(userId));
+            auditService.recordUser(AuditRecord.Action.REMOVE_FROM_GROUP, userId, before, auditService.snapshot(updatedUser));
 
             return new ServiceResponse<>(
                     updatedUser,
@@ -244,4 +413,126 @@ public class UserService {
             );
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Массовое добавление пользователей в группы доступа.
+     * <p>
+     * Все пары "пользователь — группа" добавляются одним запросом к таблице user_groups.
+     * Повторный вызов с теми же данными ничего не меняет.
+     *
+     * @param userIds  Идентификаторы пользователей
+     * @param groupIds Идентификаторы групп доступа
+     * @return Ответ с количеством добавленных связей
+     */
+    @Transactional(timeoutString = "${app.queries.timeout.user-write:30}")
+    public ServiceResponse<BulkGroupMembershipResult> addUsersToGroups(Collection<Long> userIds, Collection<Long> groupIds) {
+        return changeMemberships(userIds, groupIds, true);
+    }
+
+    /**
+     * Массовое удаление пользователей из групп доступа.
+     * <p>
+     * Все пары "пользователь — группа" удаляются одним запросом к таблице user_groups.
+     * Повторный вызов с теми же данными ничего не меняет.
+     *
+     * @param userIds  Идентификаторы пользователей
+     * @param groupIds Идентификаторы групп доступа
+     * @return Ответ с количеством удаленных связей
+     */
+    @Transactional(timeoutString = "${app.queries.timeout.user-write:30}")
+    public ServiceResponse<BulkGroupMembershipResult> removeUsersFromGroups(Collection<Long> userIds, Collection<Long> groupIds) {
+        return changeMemberships(userIds, groupIds, false);
+    }
+
+    private ServiceResponse<BulkGroupMembershipResult> changeMemberships(Collection<Long> userIds,
+                                                                         Collection<Long> groupIds,
+                                                                         boolean add) {
+        List<Long> users = userIds.stream().filter(Objects::nonNull).distinct().toList();
+        List<Long> groups = groupIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (users.isEmpty() || groups.isEmpty()) {
+            return new ServiceResponse<>(null, "User and group lists must not be empty", HttpStatus.BAD_REQUEST);
+        }
+
+        // Проверка групп по кэшированному списку
+        Map<Long, String> groupNames = accessGroupRepository.findAllCached().stream()
+                .collect(Collectors.toMap(AccessGroup::getId, AccessGroup::getName));
+        List<Long> missingGroups = groups.stream().filter(id -> !groupNames.containsKey(id)).toList();
+        if (!missingGroups.isEmpty()) {
+            return new ServiceResponse<>(null, "Access groups not found: " + missingGroups, HttpStatus.NOT_FOUND);
+        }
+
+        Set<Long> existingUsers = new HashSet<>(userRepository.findExistingIds(users));
+        List<Long> missingUsers = users.stream().filter(id -> !existingUsers.contains(id)).toList();
+        if (!missingUsers.isEmpty()) {
+            return new ServiceResponse<>(null, "Users not found: " + missingUsers, HttpStatus.NOT_FOUND);
+        }
+
+        Map<Long, Set<String>> before = new HashMap<>();
+        for (UserRepository.GroupMembershipRow row : userRepository.findGroupNames(users)) {
+            before.computeIfAbsent(row.getUserId(), id -> new TreeSet<>()).add(row.getGroupName());
+        }
+
+        int changed = jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(add ? ADD_MEMBERSHIPS_SQL : REMOVE_MEMBERSHIPS_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", users.toArray()));
+            statement.setArray(2, connection.createArrayOf("bigint", groups.toArray()));
+            return statement;
+        });
+
+        if (changed > 0) {
+            // Запрос выполнен в обход Hibernate: коллекции групп в кэше второго уровня устарели
+            evictUserGroupsAfterCommit(users);
+            principalCache.invalidate(users);
+
+            AuditRecord.Action action = add ? AuditRecord.Action.ADD_TO_GROUP : AuditRecord.Action.REMOVE_FROM_GROUP;
+            Set<String> names = groups.stream().map(groupNames::get).collect(Collectors.toSet());
+            for (Long userId : users) {
+                Set<String> oldGroups = before.getOrDefault(userId, Set.of());
+                Set<String> newGroups = new TreeSet<>(oldGroups);
+                if (add) {
+                    newGroups.addAll(names);
+                } else {
+                    newGroups.removeAll(names);
+                }
+                if (!newGroups.equals(oldGroups)) {
+                    auditService.recordUser(action, userId,
+                            Map.of("groups", String.join(",", oldGroups)),
+                            Map.of("groups", String.join(",", newGroups)));
+                }
+            }
+        }
+
+        logger.info("{} {} group memberships for {} users and {} groups",
+                add ? "Added" : "Removed", changed, users.size(), groups.size());
+        return new ServiceResponse<>(
+                new BulkGroupMembershipResult(users.size(), groups.size(), changed),
+                add ? "Users added to groups successfully" : "Users removed from groups successfully",
+                HttpStatus.OK
+        );
+    }
+
+    /**
+     * Очищает кэшированные коллекции групп пользователей после фиксации транзакции.
+     *
+     * @param userIds Идентификаторы пользователей
+     */
+    private void evictUserGroupsAfterCommit(List<Long> userIds) {
+        Runnable evict = () -> {
+            Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+            String role = User.class.getName() + ".groups";
+            for (Long userId : userIds) {
+                cache.evictCollectionData(role, userId);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+}
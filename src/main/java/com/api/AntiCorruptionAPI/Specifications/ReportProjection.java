@@ -0,0 +1,98 @@
+package com.api.AntiCorruptionAPI.Specifications;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Выборка полей отчета, запрошенная клиентом параметром {@code fields}.
+ * <p>
+ * Поля проверяются по белому списку свойств {@code Report} и передаются в SQL-проекцию,
+ * поэтому незапрошенные столбцы не читаются из базы данных и не попадают в ответ.
+ * Вычисляемое поле {@code assignedToFullName} требует чтения столбца {@code assigned_to}.
+ *
+ * @param fields  запрошенные поля в порядке запроса
+ * @param columns свойства сущности, выбираемые в SQL
+ */
+public record ReportProjection(List<String> fields, Set<String> columns) {
+
+    /**
+     * Вычисляемое поле с ФИО назначенного сотрудника.
+     */
+    public static final String ASSIGNED_TO_FULL_NAME = "assignedToFullName";
+
+    /**
+     * Белый список сохраняемых свойств отчета, доступных для выборки.
+     */
+    public static final Set<String> ALLOWED_COLUMNS = Collections.unmodifiableSet(new LinkedHashSet<>(List.of(
+            "id",
+            "dateSubmitted",
+            "reporterId",
+            "incidentDate",
+            "incidentTime",
+            "incidentLocation",
+            "involvedPersons",
+            "description",
+            "evidenceDescription",
+            "witnesses",
+            "status",
+            "assignedTo",
+            "lastUpdated",
+            "solution",
+            "changeSeq",
+            "intakeId"
+    )));
+
+    /**
+     * Разбор параметра {@code fields} (имена через запятую).
+     *
+     * @param fields значение параметра
+     * @return выборка полей или null, если параметр не задан (возвращаются все поля)
+     * @throws IllegalArgumentException если указаны неизвестные поля
+     */
+    public static ReportProjection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+
+        Set<String> requested = new LinkedHashSet<>();
+        List<String> unknown = new ArrayList<>();
+        for (String part : fields.split(",")) {
+            String field = part.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (ALLOWED_COLUMNS.contains(field) || ASSIGNED_TO_FULL_NAME.equals(field)) {
+                requested.add(field);
+            } else {
+                unknown.add(field);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Неизвестные поля: " + String.join(", ", unknown));
+        }
+        if (requested.isEmpty()) {
+            throw new IllegalArgumentException("Не указаны поля");
+        }
+
+        Set<String> columns = new LinkedHashSet<>();
+        for (String field : requested) {
+            columns.add(ASSIGNED_TO_FULL_NAME.equals(field) ? "assignedTo" : field);
+        }
+        return new ReportProjection(List.copyOf(requested), Collections.unmodifiableSet(columns));
+    }
+
+    /**
+     * Свойства для SQL с добавлением служебных (например, для проверки доступа).
+     *
+     * @param extra дополнительные свойства
+     * @return свойства сущности для выборки
+     */
+    public Set<String> columnsWith(String... extra) {
+        Set<String> result = new LinkedHashSet<>(columns);
+        Collections.addAll(result, extra);
+        return result;
+    }
+}
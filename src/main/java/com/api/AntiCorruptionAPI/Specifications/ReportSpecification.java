@@ -1,11 +1,15 @@
 package com.api.AntiCorruptionAPI.Specifications;
 
 import com.api.AntiCorruptionAPI.Models.Report;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -59,34 +63,14 @@ public class ReportSpecification {
                 predicates.add(criteriaBuilder.between(root.get("incidentDate"), startIncidentDate, endIncidentDate));
             }
 
-            // Фильтр по местоположению инцидента с нечетким поиском
+            // Фильтр по местоположению инцидента с нечетким поиском: все слова одним параметром-массивом
             if (incidentLocation != null && !incidentLocation.isEmpty()) {
-                String[] locationParts = incidentLocation.toLowerCase().split("\\s+");
-                Predicate[] locationPredicates = new Predicate[locationParts.length];
-
-                for (int i = 0; i < locationParts.length; i++) {
-                    locationPredicates[i] = criteriaBuilder.like(
-                            criteriaBuilder.lower(root.get("incidentLocation")),
-                            "%" + locationParts[i] + "%"
-                    );
-                }
-
-                predicates.add(criteriaBuilder.and(locationPredicates));
+                predicates.add(likeAll(criteriaBuilder, root.get("incidentLocation"), incidentLocation));
             }
 
-            // Фильтр по вовлеченным лицам с нечетким поиском
+            // Фильтр по вовлеченным лицам с нечетким поиском: все слова одним параметром-массивом
             if (involvedPersons != null && !involvedPersons.isEmpty()) {
-                String[] personParts = involvedPersons.toLowerCase().split("\\s+");
-                Predicate[] personPredicates = new Predicate[personParts.length];
-
-                for (int i = 0; i < personParts.length; i++) {
-                    personPredicates[i] = criteriaBuilder.like(
-                            criteriaBuilder.lower(root.get("involvedPersons")),
-                            "%" + personParts[i] + "%"
-                    );
-                }
-
-                predicates.add(criteriaBuilder.and(personPredicates));
+                predicates.add(likeAll(criteriaBuilder, root.get("involvedPersons"), involvedPersons));
             }
 
             // Фильтр по статусу отчета
@@ -103,4 +87,25 @@ public class ReportSpecification {
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    /**
+     * Условие "поле содержит каждое слово поисковой строки" без учета регистра.
+     * <p>
+     * Шаблоны передаются одним параметром-массивом ({@code lower(поле) LIKE ALL (?)}),
+     * поэтому SQL одинаков при любом количестве слов: Hibernate и PostgreSQL переиспользуют
+     * один план запроса вместо отдельного плана на каждое количество слов.
+     *
+     * @param criteriaBuilder построитель критериев
+     * @param field           строковое поле отчета
+     * @param search          поисковая строка
+     * @return условие фильтрации
+     */
+    private static Predicate likeAll(CriteriaBuilder criteriaBuilder, Expression<String> field, String search) {
+        String[] patterns = Arrays.stream(search.toLowerCase().split("\\s+"))
+                .map(part -> "%" + part + "%")
+                .toArray(String[]::new);
+        Expression<String[]> parameter = ((HibernateCriteriaBuilder) criteriaBuilder).value(patterns);
+        return criteriaBuilder.isTrue(criteriaBuilder.function(
+                ReportSqlFunctions.LIKE_ALL, Boolean.class, criteriaBuilder.lower(field), parameter));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.api.AntiCorruptionAPI.Specifications;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Дополнительные SQL-функции для запросов к отчетам.
+ * <p>
+ * Регистрируется через {@code META-INF/services/org.hibernate.boot.model.FunctionContributor}.
+ * Функция {@code like_all(значение, шаблоны)} проверяет совпадение строки со всеми шаблонами
+ * массива ({@code значение LIKE ALL (шаблоны)} в PostgreSQL). Массив передается одним параметром,
+ * поэтому текст SQL не зависит от количества слов в поисковой строке.
+ */
+public class ReportSqlFunctions implements FunctionContributor {
+
+    /**
+     * Имя функции сопоставления со всеми шаблонами.
+     */
+    public static final String LIKE_ALL = "like_all";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.BOOLEAN);
+        functionContributions.getFunctionRegistry()
+                .registerPattern(LIKE_ALL, "(?1 like all (?2))", booleanType);
+    }
+}
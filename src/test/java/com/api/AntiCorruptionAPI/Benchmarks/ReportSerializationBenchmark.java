@@ -0,0 +1,127 @@
+package com.api.AntiCorruptionAPI.Benchmarks;
+
+import com.api.AntiCorruptionAPI.Models.Report;
+import com.api.AntiCorruptionAPI.Models.ReportDTO;
+import com.api.AntiCorruptionAPI.Responses.ServiceResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость сериализации и десериализации {@code ServiceResponse<List<ReportDTO>>}
+ * на 1000 отчетов в JSON, CBOR и Smile (см. {@code BinaryFormatsConfig}).
+ * <p>
+ * Размер полезной нагрузки каждого формата выводится перед запуском замеров.
+ * Запуск: {@code java -cp <test-classpath> com.api.AntiCorruptionAPI.Benchmarks.ReportSerializationBenchmark}
+ * (добавьте {@code -prof gc} в параметры JMH для замера выделения памяти).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReportSerializationBenchmark {
+
+    private static final int REPORTS = 1000;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private JavaType responseType;
+    private ServiceResponse<List<ReportDTO>> response;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        mapper = mapper(format);
+        // Клиенты десериализуют отчеты без вычисляемого поля assignedToFullName
+        responseType = mapper.getTypeFactory().constructParametricType(ServiceResponse.class,
+                mapper.getTypeFactory().constructCollectionType(List.class, Report.class));
+        response = new ServiceResponse<>(reports(), "Список сообщений получен", HttpStatus.OK);
+        payload = mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public Object deserialize() throws IOException {
+        return mapper.readValue(payload, responseType);
+    }
+
+    /**
+     * ObjectMapper с настройками, совпадающими с настройками Spring Boot по умолчанию.
+     */
+    private static ObjectMapper mapper(String format) {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        return new Jackson2ObjectMapperBuilder()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                        SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+                .factory(factory)
+                .build();
+    }
+
+    private static List<ReportDTO> reports() {
+        List<ReportDTO> reports = new ArrayList<>(REPORTS);
+        LocalDateTime base = LocalDateTime.of(2024, 3, 1, 9, 0);
+        Report.ReportStatus[] statuses = Report.ReportStatus.values();
+        for (int i = 0; i < REPORTS; i++) {
+            Report report = Report.builder()
+                    .id((long) i + 1)
+                    .dateSubmitted(base.plusMinutes(i * 17L))
+                    .reporterId(100L + i % 50)
+                    .incidentDate(LocalDate.of(2024, 2, 1).plusDays(i % 28))
+                    .incidentTime(LocalTime.of(i % 24, i % 60))
+                    .incidentLocation("г. Москва, ул. Тверская, д. " + (i % 120 + 1))
+                    .involvedPersons("Петров П. П., начальник отдела закупок; Сидоров С. С., заместитель")
+                    .description("Сотрудник потребовал вознаграждение за ускоренное рассмотрение заявки № " + (5000 + i)
+                            + ". Требование было высказано устно в присутствии свидетелей.")
+                    .evidenceDescription("Аудиозапись разговора, переписка в мессенджере")
+                    .witnesses("Кузнецова А. А.")
+                    .status(statuses[i % statuses.length])
+                    .assignedTo(i % 3 == 0 ? null : 10L + i % 7)
+                    .lastUpdated(base.plusMinutes(i * 17L + 60))
+                    .solution(i % 3 == 2 ? "Материалы переданы в правоохранительные органы" : null)
+                    .changeSeq((long) i * 3)
+                    .build();
+            reports.add(new ReportDTO(report, report.getAssignedTo() == null ? null : "Иванов Иван Иванович"));
+        }
+        return reports;
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException {
+        ServiceResponse<List<ReportDTO>> sample = new ServiceResponse<>(reports(), "Список сообщений получен", HttpStatus.OK);
+        for (String format : new String[]{"json", "cbor", "smile"}) {
+            System.out.printf("%-6s payload per %d reports: %d bytes%n",
+                    format, REPORTS, mapper(format).writeValueAsBytes(sample).length);
+        }
+        new Runner(new OptionsBuilder()
+                .include(ReportSerializationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,173 @@
+package com.api.AntiCorruptionAPI.Benchmarks;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Нагрузочный клиент для сравнения режимов выполнения запросов: пул платформенных потоков
+ * Tomcat и виртуальные потоки ({@code spring.threads.virtual.enabled}).
+ * <p>
+ * Клиент входит в систему, затем в течение заданного времени выполняет запросы к эндпоинту,
+ * обращающемуся к базе данных, с фиксированным числом одновременных запросов (замкнутый цикл)
+ * и выводит пропускную способность, p50, p99 и количество ошибок.
+ * <p>
+ * Сравнение: запустите приложение с {@code APP_VIRTUAL_THREADS=false}, затем с
+ * {@code APP_VIRTUAL_THREADS=true} и выполните клиент с одинаковыми параметрами, например
+ * <pre>
+ * java -Djdk.internal.httpclient.disableHostnameVerification=true -cp target/test-classes \
+ *     com.api.AntiCorruptionAPI.Benchmarks.ThreadModeLoadClient \
+ *     https://localhost:3000 admin password /api/reports/filter?status=NEW 400 60
+ * </pre>
+ * Число одновременных запросов стоит выбирать больше {@code server.tomcat.threads.max} (200),
+ * иначе разница между режимами не проявится. Сертификат сервера не проверяется — только для стенда.
+ */
+public class ThreadModeLoadClient {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    /**
+     * Параметры: базовый адрес, логин, пароль, путь запроса, число одновременных запросов,
+     * длительность в секундах (после 10 секунд прогрева).
+     *
+     * @param args параметры запуска
+     * @throws Exception при ошибке входа или прерывании
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 6) {
+            System.err.println("Usage: ThreadModeLoadClient <baseUrl> <username> <password> <path> <concurrency> <seconds>");
+            System.exit(1);
+        }
+        String baseUrl = args[0];
+        String path = args[3];
+        int concurrency = Integer.parseInt(args[4]);
+        Duration duration = Duration.ofSeconds(Long.parseLong(args[5]));
+        Duration warmup = Duration.ofSeconds(10);
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        HttpClient client = HttpClient.newBuilder()
+                .sslContext(trustAll())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        String token = login(client, baseUrl, args[1], args[2]);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+        long[][] latencies = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        for (int w = 0; w < concurrency; w++) {
+            int worker = w;
+            workers.execute(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                try {
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            long elapsed = System.nanoTime() - now;
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            } else if (now >= warmupEnd) {
+                                if (count == samples.length) {
+                                    samples = Arrays.copyOf(samples, count * 2);
+                                }
+                                samples[count++] = elapsed;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    latencies[worker] = samples;
+                    counts[worker] = count;
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        workers.shutdown();
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int w = 0; w < concurrency; w++) {
+            System.arraycopy(latencies[w], 0, all, offset, counts[w]);
+            offset += counts[w];
+        }
+        Arrays.sort(all);
+
+        System.out.printf("concurrency=%d duration=%ds requests=%d errors=%d%n",
+                concurrency, duration.toSeconds(), total, errors.get());
+        System.out.printf("throughput=%.1f req/s p50=%.1f ms p99=%.1f ms max=%.1f ms%n",
+                total / (double) duration.toSeconds(),
+                percentile(all, 0.50), percentile(all, 0.99),
+                all.length > 0 ? all[all.length - 1] / 1e6 : 0.0);
+    }
+
+    private static String login(HttpClient client, String baseUrl, String username, String password) throws Exception {
+        String body = "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}";
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Login failed: " + response.statusCode() + " " + response.body());
+        }
+        return matcher.group(1);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static SSLContext trustAll() throws Exception {
+        TrustManager[] trustManagers = {new X509TrustManager() {
+            @Override
+            public void checkClientTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public void checkServerTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public X509Certificate[] getAcceptedIssuers() {
+                return new X509Certificate[0];
+            }
+        }};
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, trustManagers, new SecureRandom());
+        return context;
+    }
+}
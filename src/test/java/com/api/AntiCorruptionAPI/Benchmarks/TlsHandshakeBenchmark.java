@@ -0,0 +1,150 @@
+package com.api.AntiCorruptionAPI.Benchmarks;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Замер стоимости TLS-рукопожатия и задержки запросов для текущего и настроенного
+ * профиля коннектора ({@code app.server.tls-tuning.enabled}).
+ * <p>
+ * Режимы:
+ * <ul>
+ *     <li>{@code full} — новое соединение с новым SSL-контекстом: полное рукопожатие на каждый запрос;</li>
+ *     <li>{@code resumed} — новое соединение с общим SSL-контекстом: возобновление сессии, если сервер его поддерживает;</li>
+ *     <li>{@code keep-alive} — последовательные запросы HTTP/1.1 в одном соединении;</li>
+ *     <li>{@code http2} — последовательные запросы HTTP/2 в одном соединении (если ALPN согласовал h2).</li>
+ * </ul>
+ * Запуск (приложение запущено локально, сначала с выключенным профилем, затем с включенным):
+ * <pre>
+ * java -Djdk.internal.httpclient.disableHostnameVerification=true -cp target/test-classes \
+ *     com.api.AntiCorruptionAPI.Benchmarks.TlsHandshakeBenchmark localhost 3000 /actuator/health 2000
+ * </pre>
+ * Сертификат сервера не проверяется — только для стенда.
+ */
+public class TlsHandshakeBenchmark {
+
+    /**
+     * Параметры: хост, порт, путь запроса, количество замеров в каждом режиме.
+     *
+     * @param args параметры запуска
+     * @throws Exception при ошибках соединения
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("Usage: TlsHandshakeBenchmark <host> <port> <path> <iterations>");
+            System.exit(1);
+        }
+        String host = args[0];
+        int port = Integer.parseInt(args[1]);
+        String path = args[2];
+        int iterations = Integer.parseInt(args[3]);
+        int warmup = Math.max(50, iterations / 10);
+
+        // Полное рукопожатие: новый контекст не содержит кэша сессий
+        report("full", measure(warmup, iterations, () -> exchangeOnNewConnection(trustAll(), host, port, path)));
+
+        SSLContext shared = trustAll();
+        report("resumed", measure(warmup, iterations, () -> exchangeOnNewConnection(shared, host, port, path)));
+
+        URI uri = URI.create("https://" + host + ":" + port + path);
+        for (HttpClient.Version version : new HttpClient.Version[]{HttpClient.Version.HTTP_1_1, HttpClient.Version.HTTP_2}) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(version)
+                    .sslContext(trustAll())
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+            HttpResponse<Void> probe = client.send(request, HttpResponse.BodyHandlers.discarding());
+            String mode = version == HttpClient.Version.HTTP_2 ? "http2" : "keep-alive";
+            if (version == HttpClient.Version.HTTP_2 && probe.version() != HttpClient.Version.HTTP_2) {
+                mode += " (negotiated " + probe.version() + ")";
+            }
+            report(mode, measure(warmup, iterations, () -> client.send(request, HttpResponse.BodyHandlers.discarding())));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        void run() throws Exception;
+    }
+
+    private static long[] measure(int warmup, int iterations, Action action) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            action.run();
+        }
+        long[] samples = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            action.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static void report(String mode, long[] sorted) {
+        System.out.printf("%-28s p50=%7.3f ms  p99=%7.3f ms  max=%7.3f ms%n", mode,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    /**
+     * Рукопожатие и один запрос HTTP/1.1 с закрытием соединения.
+     */
+    private static void exchangeOnNewConnection(SSLContext context, String host, int port, String path) throws Exception {
+        try (SSLSocket socket = (SSLSocket) context.getSocketFactory().createSocket()) {
+            socket.connect(new InetSocketAddress(host, port), 10_000);
+            socket.setTcpNoDelay(true);
+            socket.startHandshake();
+
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET " + path + " HTTP/1.1\r\nHost: " + host + "\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            InputStream in = socket.getInputStream();
+            byte[] buffer = new byte[8192];
+            while (in.read(buffer) != -1) {
+                // Ответ читается до закрытия соединения сервером
+            }
+        }
+    }
+
+    private static SSLContext trustAll() throws Exception {
+        TrustManager[] trustManagers = {new X509TrustManager() {
+            @Override
+            public void checkClientTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public void checkServerTrusted(X509Certificate[] chain, String authType) {
+            }
+
+            @Override
+            public X509Certificate[] getAcceptedIssuers() {
+                return new X509Certificate[0];
+            }
+        }};
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, trustManagers, new SecureRandom());
+        return context;
+    }
+}
@@ -0,0 +1,85 @@
+package com.api.AntiCorruptionAPI.Benchmarks;
+
+import com.api.AntiCorruptionAPI.Components.UserUpdateMapper;
+import com.api.AntiCorruptionAPI.Models.User;
+import com.api.AntiCorruptionAPI.Requests.UserUpdateRequest;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение копирования полей при обновлении пользователя:
+ * прежний рефлексивный цикл из {@code UserService.updateUser} и {@link UserUpdateMapper}.
+ * <p>
+ * Запуск: {@code java -cp <test-classpath> com.api.AntiCorruptionAPI.Benchmarks.UserUpdateMapperBenchmark}
+ * (добавьте {@code -prof gc} в параметры JMH для замера выделения памяти).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UserUpdateMapperBenchmark {
+
+    private UserUpdateMapper mapper;
+    private UserUpdateRequest request;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        mapper = new UserUpdateMapper();
+        user = new User();
+
+        // Типичное обновление карточки сотрудника: несколько строковых полей и дата
+        request = new UserUpdateRequest();
+        request.setLastName("Иванов");
+        request.setFirstName("Иван");
+        request.setPosition("Старший специалист");
+        request.setDepartment("Отдел проверок");
+        request.setPhoneNumber("+7 900 000-00-00");
+        request.setEmail("ivanov@example.org");
+        request.setHireDate(new Date(1_600_000_000_000L));
+    }
+
+    @Benchmark
+    public User reflectiveLoop(Blackhole blackhole) {
+        Class<?> requestClass = request.getClass();
+        Class<?> userClass = user.getClass();
+
+        for (Method getter : requestClass.getMethods()) {
+            if (getter.getName().startsWith("get") && !getter.getName().equals("getClass")) {
+                try {
+                    Object value = getter.invoke(request);
+                    if (value != null) {
+                        String setterName = "set" + getter.getName().substring(3);
+                        Method setter = userClass.getMethod(setterName, getter.getReturnType());
+                        setter.invoke(user, value);
+                    }
+                } catch (Exception e) {
+                    // Прежний код журналировал и пропускал такие поля (например, Date -> LocalDate)
+                    blackhole.consume(e);
+                }
+            }
+        }
+        return user;
+    }
+
+    @Benchmark
+    public User precompiledMapper() {
+        mapper.apply(request, user);
+        return user;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserUpdateMapperBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,137 @@
+package com.api.AntiCorruptionAPI.Specifications;
+
+import com.api.AntiCorruptionAPI.Models.Report;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.jdbc.connections.internal.UserSuppliedConnectionProviderImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Проверка количества различных SQL-запросов, порождаемых {@link ReportSpecification#filterReports}.
+ * <p>
+ * Случайный набор фильтров (разное количество слов в поисковых строках, разные комбинации
+ * необязательных условий) превращается в SQL для PostgreSQL. База данных не нужна: запрос
+ * перехватывается инспектором до выполнения. Каждое из шести необязательных условий добавляет
+ * не более одного фрагмента SQL, поэтому различных запросов не больше 2^6 = 64.
+ */
+class ReportSpecificationSqlShapeTest {
+
+    private static final int ITERATIONS = 5000;
+    private static final int MAX_SHAPES = 64;
+    private static final String[] WORDS = {"москва", "отдел", "закупки", "иванов", "петров", "склад", "тендер", "договор"};
+
+    private static final Set<String> statements = ConcurrentHashMap.newKeySet();
+    private static SessionFactory sessionFactory;
+
+    /**
+     * Сигнал о перехваченном запросе, прерывающий его выполнение.
+     */
+    private static final class Captured extends RuntimeException {
+        Captured() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Поставщик соединений без базы данных: SQL перехватывается до обращения к соединению.
+     */
+    public static class NoConnectionProvider extends UserSuppliedConnectionProviderImpl {
+        @Override
+        public Connection getConnection() throws SQLException {
+            throw new SQLException("No database: statement is captured before execution");
+        }
+    }
+
+    @BeforeAll
+    static void buildSessionFactory() {
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(Report.class)
+                .setProperty("hibernate.dialect", "org.hibernate.dialect.PostgreSQLDialect")
+                .setProperty("hibernate.boot.allow_jdbc_metadata_access", "false")
+                .setProperty("hibernate.connection.provider_class", NoConnectionProvider.class.getName());
+        configuration.setStatementInspector(sql -> {
+            statements.add(sql);
+            throw new Captured();
+        });
+        sessionFactory = configuration.buildSessionFactory();
+    }
+
+    @AfterAll
+    static void closeSessionFactory() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    void fuzzedFiltersProduceBoundedNumberOfStatements() {
+        statements.clear();
+        Random random = new Random(42);
+        try (Session session = sessionFactory.openSession()) {
+            for (int i = 0; i < ITERATIONS; i++) {
+                LocalDate start = LocalDate.of(2024, 1, 1).plusDays(random.nextInt(300));
+                render(session, ReportSpecification.filterReports(
+                        random.nextBoolean() ? (long) random.nextInt(1000) : null,
+                        random.nextBoolean() ? start : null,
+                        random.nextBoolean() ? start.plusDays(random.nextInt(60)) : null,
+                        random.nextBoolean() ? words(random) : null,
+                        random.nextBoolean() ? words(random) : null,
+                        random.nextBoolean() ? Report.ReportStatus.values()[random.nextInt(Report.ReportStatus.values().length)] : null,
+                        random.nextBoolean() ? (long) random.nextInt(100) : null
+                ));
+            }
+        }
+
+        assertThat(statements).isNotEmpty();
+        assertThat(statements.size())
+                .as("distinct SQL statements for %d random filters: %s", ITERATIONS, statements)
+                .isLessThanOrEqualTo(MAX_SHAPES);
+    }
+
+    @Test
+    void searchWordCountDoesNotChangeStatement() {
+        statements.clear();
+        try (Session session = sessionFactory.openSession()) {
+            for (String search : new String[]{"склад", "склад тендер", "склад тендер договор иванов петров"}) {
+                render(session, ReportSpecification.filterReports(null, null, null, search, search, null, null));
+            }
+        }
+
+        assertThat(statements).hasSize(1);
+        assertThat(statements.iterator().next()).contains("like all (?)");
+    }
+
+    private static void render(Session session, Specification<Report> specification) {
+        CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
+        CriteriaQuery<Report> query = criteriaBuilder.createQuery(Report.class);
+        Root<Report> root = query.from(Report.class);
+        query.where(specification.toPredicate(root, query, criteriaBuilder));
+        assertThatThrownBy(() -> session.createQuery(query).getResultList()).isInstanceOf(Captured.class);
+    }
+
+    private static String words(Random random) {
+        StringBuilder builder = new StringBuilder();
+        int count = 1 + random.nextInt(6);
+        for (int i = 0; i < count; i++) {
+            builder.append(i == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return builder.toString();
+    }
+}